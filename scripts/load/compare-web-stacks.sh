@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Compares the servlet stack (platform then virtual threads) with the reactive one under the same
+# high-concurrency load, and reports throughput, p99, threads, memory, sockets and Mongo
+# connections of each run.
+#
+# Prerequisites: docker compose services up, the jar built (./gradlew bootJar), hey installed.
+#   TOKEN=<bearer token> EXAMPLE_ID=<existing id> scripts/load/compare-web-stacks.sh
+#
+# Environment: CONCURRENCY (2000), DURATION (60s), PORT (8081), STACKS ("platform virtual reactive")
+set -euo pipefail
+
+: "${TOKEN:?Bearer token with the USER role}"
+: "${EXAMPLE_ID:?Id of an existing example}"
+CONCURRENCY=${CONCURRENCY:-2000}
+DURATION=${DURATION:-60s}
+PORT=${PORT:-8081}
+STACKS=${STACKS:-platform virtual reactive}
+BASE_URL="http://localhost:${PORT}"
+JAR=$(ls build/libs/template-service-*.jar | grep -v -- '-plain' | head -n 1)
+REPORT=build/reports/load/web-stacks.md
+
+metric() {
+  # Sum of a Prometheus metric, optionally filtered on a label matcher
+  curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/actuator/prometheus" \
+    | grep -E "^$1(\{[^}]*$2[^}]*\})? " | awk '{ sum += $2 } END { printf "%.0f", sum }'
+}
+
+run_stack() {
+  local stack=$1 profiles="dev" virtual=false
+  case "${stack}" in
+    virtual) virtual=true ;;
+    reactive) profiles="dev,reactive" ;;
+  esac
+
+  VIRTUAL_THREADS_ENABLED=${virtual} SERVER_PORT=${PORT} \
+    java -jar "${JAR}" --spring.profiles.active="${profiles}" > "build/reports/load/${stack}.log" 2>&1 &
+  local pid=$!
+  until curl -sf "${BASE_URL}/actuator/health/readiness" > /dev/null; do sleep 1; done
+
+  # Warm-up, then sample the process half-way through the measured run
+  hey -z 10s -c 50 -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/examples/${EXAMPLE_ID}" > /dev/null
+  hey -z "${DURATION}" -c "${CONCURRENCY}" -H "Authorization: Bearer ${TOKEN}" \
+    "${BASE_URL}/api/examples/${EXAMPLE_ID}" > "build/reports/load/${stack}.hey" &
+  local hey_pid=$!
+  sleep $(( ${DURATION%s} / 2 ))
+  local threads heap rss sockets mongo
+  threads=$(metric jvm_threads_live_threads)
+  heap=$(( $(metric jvm_memory_used_bytes 'area="heap"') / 1048576 ))
+  rss=$(( $(ps -o rss= -p "${pid}") / 1024 ))
+  sockets=$(ls -l "/proc/${pid}/fd" 2>/dev/null | grep -c socket || true)
+  mongo=$(metric mongodb_driver_pool_size)
+  wait "${hey_pid}"
+  kill "${pid}" && wait "${pid}" 2>/dev/null || true
+
+  local rps p99
+  rps=$(awk '/Requests\/sec/ { printf "%.0f", $2 }' "build/reports/load/${stack}.hey")
+  p99=$(awk '/ 99% in / { printf "%.1f", $3 * 1000 }' "build/reports/load/${stack}.hey")
+  echo "| ${stack} | ${rps} | ${p99} | ${threads} | ${heap} | ${rss} | ${sockets} | ${mongo} |" >> "${REPORT}"
+}
+
+mkdir -p build/reports/load
+{
+  echo "GET /api/examples/{id}, ${CONCURRENCY} connections, ${DURATION}"
+  echo
+  echo "| Stack | req/s | p99 (ms) | Threads | Heap (MiB) | RSS (MiB) | Sockets | Mongo connections |"
+  echo "|-------|-------|----------|---------|------------|-----------|---------|-------------------|"
+} > "${REPORT}"
+for stack in ${STACKS}; do
+  echo "Running ${stack}..."
+  run_stack "${stack}"
+done
+cat "${REPORT}"
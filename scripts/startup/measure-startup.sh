@@ -0,0 +1,99 @@
+#!/usr/bin/env bash
+# Measures the time to ready (JVM launch to /actuator/health/readiness UP) of the regular jar,
+# the extracted jar, AOT and AOT + AppCDS, the last one being what docker/Dockerfile runs.
+# Fails when the fastest mode's median exceeds MAX_READY_MS, to catch startup regressions.
+#
+# Prerequisites: docker compose services up, the jar built (./gradlew bootJar).
+#   scripts/startup/measure-startup.sh
+#
+# Environment: RUNS (5), PORT (8081), PROFILES (prod), MODES ("jar extracted aot aot-cds"),
+#   MAX_READY_MS (unset: no check)
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-8081}
+PROFILES=${PROFILES:-prod}
+MODES=${MODES:-jar extracted aot aot-cds}
+JAR=$(ls build/libs/template-service-*.jar | grep -v -- '-plain' | head -n 1)
+WORK=build/startup
+REPORT=build/reports/startup/startup.md
+
+now_ms() {
+  date +%s%3N
+}
+
+prepare() {
+  rm -rf "${WORK}"
+  java -Djarmode=tools -jar "${JAR}" extract --destination "${WORK}"
+  # Same training run as docker/Dockerfile
+  java -XX:ArchiveClassesAtExit="${WORK}/app.jsa" -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh -Dspring.profiles.active="${PROFILES}" \
+    -Dspring.data.mongodb.auto-index-creation=false \
+    -jar "${WORK}/$(basename "${JAR}")" > "${WORK}/training.log" 2>&1
+}
+
+command_for() {
+  local app="${WORK}/$(basename "${JAR}")"
+  case "$1" in
+    jar) echo "java -jar ${JAR}" ;;
+    extracted) echo "java -jar ${app}" ;;
+    aot) echo "java -Dspring.aot.enabled=true -jar ${app}" ;;
+    aot-cds)
+      echo "java -XX:SharedArchiveFile=${WORK}/app.jsa -Dspring.aot.enabled=true -jar ${app}" ;;
+  esac
+}
+
+# Prints the time to ready of one run, in milliseconds
+run_once() {
+  local mode=$1 start pid ready
+  start=$(now_ms)
+  # No cache warm-up: it waits for Mongo, not for the JVM
+  CACHE_WARM_UP_ENABLED=false SERVER_PORT=${PORT} \
+    $(command_for "${mode}") --spring.profiles.active="${PROFILES}" \
+    > "${WORK}/${mode}.log" 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:${PORT}/actuator/health/readiness" > /dev/null; do
+    if ! kill -0 "${pid}" 2>/dev/null; then
+      echo "${mode} did not start, see ${WORK}/${mode}.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  ready=$(( $(now_ms) - start ))
+  kill "${pid}" && wait "${pid}" 2>/dev/null || true
+  echo "${ready}"
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+mkdir -p "$(dirname "${REPORT}")"
+prepare
+{
+  echo "# Time to ready (${RUNS} runs, profile ${PROFILES})"
+  echo
+  echo "| Mode | Median (ms) | Min (ms) | Max (ms) |"
+  echo "|------|-------------|----------|----------|"
+} > "${REPORT}"
+
+best=""
+for mode in ${MODES}; do
+  times=()
+  for _ in $(seq "${RUNS}"); do
+    times+=("$(run_once "${mode}")")
+  done
+  sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+  mid=$(echo "${sorted}" | median)
+  echo "| ${mode} | ${mid} | $(echo "${sorted}" | head -n 1) | $(echo "${sorted}" | tail -n 1) |" \
+    >> "${REPORT}"
+  if [[ -z "${best}" || "${mid}" -lt "${best}" ]]; then
+    best=${mid}
+  fi
+done
+
+cat "${REPORT}"
+if [[ -n "${MAX_READY_MS:-}" && "${best}" -gt "${MAX_READY_MS}" ]]; then
+  echo "Startup regression: ${best} ms > ${MAX_READY_MS} ms" >&2
+  exit 1
+fi
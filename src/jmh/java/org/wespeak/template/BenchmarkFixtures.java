@@ -0,0 +1,62 @@
+package org.wespeak.template;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.time.Instant;
+import java.util.Map;
+import org.wespeak.template.exception.ErrorResponse;
+
+/** Shared fixtures for the JMH benchmarks, mirroring what the application handles per request. */
+public final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {}
+
+  /** ObjectMapper configured like Spring Boot's auto-configured one. */
+  public static ObjectMapper objectMapper() {
+    return JsonMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+  }
+
+  public static ExampleEntity exampleEntity() {
+    Instant now = Instant.parse("2024-01-15T10:30:00Z");
+    return ExampleEntity.builder()
+        .id("507f1f77bcf86cd799439011")
+        .code("EXAMPLE_001")
+        .name("My Example")
+        .description("This is an example used by the benchmarks")
+        .active(true)
+        .createdAt(now)
+        .updatedAt(now)
+        .build();
+  }
+
+  public static ExampleResponse exampleResponse() {
+    ExampleEntity entity = exampleEntity();
+    return ExampleResponse.builder()
+        .id(entity.getId())
+        .code(entity.getCode())
+        .name(entity.getName())
+        .description(entity.getDescription())
+        .active(entity.isActive())
+        .createdAt(entity.getCreatedAt())
+        .updatedAt(entity.getUpdatedAt())
+        .build();
+  }
+
+  public static ErrorResponse validationErrorResponse() {
+    return ErrorResponse.builder()
+        .timestamp(Instant.parse("2024-01-15T10:30:00Z"))
+        .status(400)
+        .error("Validation Failed")
+        .message("Invalid request parameters")
+        .path("/api/examples")
+        .validationErrors(
+            Map.of("code", "Code is required", "name", "Name must be between 2 and 100 characters"))
+        .build();
+  }
+}
@@ -0,0 +1,43 @@
+package org.wespeak.template;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.wespeak.template.exception.ErrorResponse;
+
+/** Jackson serialization of the response bodies written on every request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSerializationBenchmark {
+
+  private ObjectWriter exampleWriter;
+  private ObjectWriter errorWriter;
+  private ExampleResponse exampleResponse;
+  private ErrorResponse errorResponse;
+
+  @Setup
+  public void setUp() {
+    exampleWriter = BenchmarkFixtures.objectMapper().writerFor(ExampleResponse.class);
+    errorWriter = BenchmarkFixtures.objectMapper().writerFor(ErrorResponse.class);
+    exampleResponse = BenchmarkFixtures.exampleResponse();
+    errorResponse = BenchmarkFixtures.validationErrorResponse();
+  }
+
+  @Benchmark
+  public byte[] exampleResponse() throws JsonProcessingException {
+    return exampleWriter.writeValueAsBytes(exampleResponse);
+  }
+
+  @Benchmark
+  public byte[] errorResponse() throws JsonProcessingException {
+    return errorWriter.writeValueAsBytes(errorResponse);
+  }
+}
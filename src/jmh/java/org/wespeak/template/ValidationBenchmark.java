@@ -0,0 +1,56 @@
+package org.wespeak.template;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Bean Validation of {@link CreateExampleRequest}, as done by {@code @Valid} on create. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  private CreateExampleRequest valid;
+  private CreateExampleRequest invalid;
+
+  @Setup
+  public void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    valid =
+        CreateExampleRequest.builder()
+            .code("EXAMPLE_001")
+            .name("My Example")
+            .description("This is an example")
+            .build();
+    invalid = CreateExampleRequest.builder().code("E").name("").build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<CreateExampleRequest>> validRequest() {
+    return validator.validate(valid);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<CreateExampleRequest>> invalidRequest() {
+    return validator.validate(invalid);
+  }
+}
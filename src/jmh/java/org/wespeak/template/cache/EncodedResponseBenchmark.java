@@ -0,0 +1,101 @@
+package org.wespeak.template.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.unit.DataSize;
+import org.wespeak.template.BenchmarkFixtures;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.cache.EncodedResponseCache.Encoded;
+import org.wespeak.template.cache.EncodedResponseCache.Format;
+
+/**
+ * Per-request cost of writing a cached example: Jackson serialization (and gzip, as Tomcat does
+ * above {@code min-response-size}) on every request, versus the bytes kept by {@link
+ * EncodedResponseCache}, and the CBOR / Smile encodings. {@code descriptionLength} 4096 gives a
+ * body large enough to be compressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EncodedResponseBenchmark {
+
+  @Param({"40", "4096"})
+  private int descriptionLength;
+
+  private ObjectMapper objectMapper;
+  private ObjectMapper cborMapper;
+  private ObjectMapper smileMapper;
+  private EncodedResponseCache cache;
+  private ExampleResponse value;
+
+  @Setup
+  public void setUp() {
+    objectMapper = BenchmarkFixtures.objectMapper();
+    cborMapper = objectMapper.copyWith(new CBORFactory());
+    smileMapper = objectMapper.copyWith(new SmileFactory());
+    cache =
+        new EncodedResponseCache(
+            objectMapper, new SimpleMeterRegistry(), 1000, true, DataSize.ofBytes(0));
+    value = BenchmarkFixtures.exampleResponse();
+    value.setDescription("d".repeat(descriptionLength));
+  }
+
+  @Benchmark
+  public byte[] jsonSerialized() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(value);
+  }
+
+  @Benchmark
+  public byte[] jsonSerializedAndGzipped() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      objectMapper.writeValue(gzip, value);
+    }
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public Encoded jsonPreEncoded() {
+    return cache.encode(value, Format.JSON, false);
+  }
+
+  @Benchmark
+  public Encoded jsonPreEncodedGzipped() {
+    return cache.encode(value, Format.JSON, true);
+  }
+
+  @Benchmark
+  public Encoded cborPreEncoded() {
+    return cache.encode(value, Format.CBOR, false);
+  }
+
+  @Benchmark
+  public Encoded smilePreEncoded() {
+    return cache.encode(value, Format.SMILE, false);
+  }
+
+  @Benchmark
+  public byte[] cborSerialized() throws JsonProcessingException {
+    return cborMapper.writeValueAsBytes(value);
+  }
+
+  @Benchmark
+  public byte[] smileSerialized() throws JsonProcessingException {
+    return smileMapper.writeValueAsBytes(value);
+  }
+}
@@ -0,0 +1,52 @@
+package org.wespeak.template.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.wespeak.template.BenchmarkFixtures;
+import org.wespeak.template.ExampleResponse;
+
+/** Hit and miss paths of the {@code examples} Caffeine cache, through Spring's Cache API. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExampleCacheBenchmark {
+
+  private static final String SPEC = "maximumSize=500,expireAfterWrite=10m";
+
+  private final AtomicLong missKeys = new AtomicLong();
+  private Cache cache;
+  private ExampleResponse value;
+
+  @Setup
+  public void setUp() {
+    cache = new CaffeineCache("examples", Caffeine.from(SPEC).build());
+    value = BenchmarkFixtures.exampleResponse();
+    cache.put(value.getId(), value);
+  }
+
+  @Benchmark
+  public Cache.ValueWrapper hit() {
+    return cache.get(value.getId());
+  }
+
+  @Benchmark
+  public Cache.ValueWrapper miss() {
+    return cache.get("missing-" + missKeys.incrementAndGet());
+  }
+
+  /** Miss followed by a put, as done by {@code @Cacheable} after loading from Mongo. */
+  @Benchmark
+  public ExampleResponse missAndLoad() {
+    return cache.get("loaded-" + (missKeys.incrementAndGet() & 1023), () -> value);
+  }
+}
@@ -0,0 +1,62 @@
+package org.wespeak.template.listener;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.wespeak.template.BenchmarkFixtures;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleCreatedPayload;
+import org.wespeak.template.service.SampleService.SampleEventPayload;
+
+/** JSON deserialization of the {@link CloudEvent} records consumed by both listeners. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CloudEventDeserializationBenchmark {
+
+  private static final String ENVELOPE =
+      "{\"id\":\"evt-42\",\"source\":\"benchmark\",\"type\":\"%s\","
+          + "\"time\":\"2024-01-15T10:30:00Z\",\"data\":%s}";
+
+  private ObjectReader sampleReader;
+  private ObjectReader exampleCreatedReader;
+  private byte[] sampleEvent;
+  private byte[] exampleCreatedEvent;
+
+  @Setup
+  public void setUp() {
+    ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+    sampleReader = objectMapper.readerFor(new TypeReference<CloudEvent<SampleEventPayload>>() {});
+    exampleCreatedReader =
+        objectMapper.readerFor(new TypeReference<CloudEvent<ExampleCreatedPayload>>() {});
+    sampleEvent =
+        String.format(ENVELOPE, "sample.created", "{\"id\":\"s-1\",\"message\":\"hello\"}")
+            .getBytes(StandardCharsets.UTF_8);
+    exampleCreatedEvent =
+        String.format(
+                ENVELOPE,
+                "example.created",
+                "{\"id\":\"507f1f77bcf86cd799439011\",\"code\":\"EXAMPLE_001\","
+                    + "\"name\":\"My Example\"}")
+            .getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public CloudEvent<SampleEventPayload> sampleEvent() throws IOException {
+    return sampleReader.readValue(sampleEvent);
+  }
+
+  @Benchmark
+  public CloudEvent<ExampleCreatedPayload> exampleCreatedEvent() throws IOException {
+    return exampleCreatedReader.readValue(exampleCreatedEvent);
+  }
+}
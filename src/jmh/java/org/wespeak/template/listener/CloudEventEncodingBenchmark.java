@@ -0,0 +1,80 @@
+package org.wespeak.template.listener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.wespeak.template.BenchmarkFixtures;
+import org.wespeak.template.listener.CloudEventCodec.EncodedEvent;
+import org.wespeak.template.listener.CloudEventCodec.Encoding;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleCreatedPayload;
+
+/**
+ * Avro (binary mode) vs JSON (structured mode) for an {@code example.created} record. The record
+ * sizes are printed once at setup since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CloudEventEncodingBenchmark {
+
+  private CloudEventCodec codec;
+  private CloudEvent<ExampleCreatedPayload> event;
+  private byte[] avroValue;
+  private Map<String, Object> avroHeaders;
+  private byte[] jsonValue;
+
+  @Setup
+  public void setUp() throws IOException {
+    codec = new CloudEventCodec(BenchmarkFixtures.objectMapper(), "mock://bench");
+    event =
+        new CloudEvent<>(
+            "evt-42",
+            "benchmark",
+            "example.created",
+            Instant.parse("2024-01-15T10:30:00Z"),
+            new ExampleCreatedPayload("507f1f77bcf86cd799439011", "EXAMPLE_001", "My Example"));
+
+    EncodedEvent avro = codec.encode("example.events", event, Encoding.AVRO);
+    avroValue = avro.value();
+    avroHeaders = new HashMap<>(avro.headers());
+    jsonValue = BenchmarkFixtures.objectMapper().writeValueAsBytes(event);
+
+    int avroHeaderBytes =
+        avro.headers().entrySet().stream()
+            .mapToInt(e -> e.getKey().getBytes(StandardCharsets.UTF_8).length + e.getValue().length)
+            .sum();
+    System.out.printf(
+        "%nrecord bytes: avro value=%d (+%d header bytes), json value=%d%n",
+        avroValue.length, avroHeaderBytes, jsonValue.length);
+  }
+
+  @Benchmark
+  public EncodedEvent encodeAvro() throws IOException {
+    return codec.encode("example.events", event, Encoding.AVRO);
+  }
+
+  @Benchmark
+  public EncodedEvent encodeJson() throws IOException {
+    return codec.encode("example.events", event, Encoding.JSON);
+  }
+
+  @Benchmark
+  public CloudEvent<ExampleCreatedPayload> decodeAvro() {
+    return codec.decode(avroValue, avroHeaders, ExampleCreatedPayload.class);
+  }
+
+  @Benchmark
+  public CloudEvent<ExampleCreatedPayload> decodeStructuredJson() {
+    return codec.decode(jsonValue, Map.of(), ExampleCreatedPayload.class);
+  }
+}
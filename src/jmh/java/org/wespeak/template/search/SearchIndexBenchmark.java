@@ -0,0 +1,115 @@
+package org.wespeak.template.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.wespeak.template.search.InvertedIndex.ExampleText;
+import org.wespeak.template.search.InvertedIndex.Result;
+
+/**
+ * Query and update cost of {@link InvertedIndex} on synthetic examples: names and descriptions
+ * drawn from a vocabulary of {@value #VOCABULARY} words with a skewed frequency, so that a few
+ * words appear in most descriptions, like stop words would. Run with {@code
+ * -PjmhIncludes=SearchIndexBenchmark}; the build at one million examples takes a few seconds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+  private static final int VOCABULARY = 50_000;
+  private static final int DESCRIPTION_WORDS = 8;
+
+  @Param({"100000", "1000000"})
+  private int documents;
+
+  private final AtomicLong added = new AtomicLong();
+  private String[] words;
+  private InvertedIndex index;
+  private String rareWord;
+  private String commonWord;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    words = new String[VOCABULARY];
+    for (int i = 0; i < VOCABULARY; i++) {
+      words[i] = word(random);
+    }
+    List<ExampleText> examples = new ArrayList<>(documents);
+    for (int i = 0; i < documents; i++) {
+      examples.add(example(random, i));
+    }
+    index = InvertedIndex.build(examples, 64, 2);
+    rareWord = words[VOCABULARY / 10];
+    commonWord = words[0];
+  }
+
+  /** Code typed in full, a single match. */
+  @Benchmark
+  public Result exactCode() {
+    return index.search("EX" + (documents / 2) + " ", 0, 20);
+  }
+
+  /** Two-letter prefix while typing, expanded to the most frequent terms. */
+  @Benchmark
+  public Result shortPrefix() {
+    return index.search("ka", 0, 20);
+  }
+
+  @Benchmark
+  public Result rareWordAndPrefix() {
+    return index.search(rareWord + " " + commonWord.substring(0, 3), 0, 20);
+  }
+
+  /** Word in most descriptions: the cost grows with its number of matches. */
+  @Benchmark
+  public Result commonWord() {
+    return index.search(commonWord + " ", 0, 20);
+  }
+
+  /** Create then delete of an example, as done after commit. */
+  @Benchmark
+  public boolean addAndRemove() {
+    long n = added.incrementAndGet();
+    String id = "added-" + n;
+    index.add(new ExampleText(id, "ADDED" + n, words[1] + " " + words[2], words[3]));
+    index.remove(id);
+    return index.contains(id);
+  }
+
+  private ExampleText example(Random random, int i) {
+    StringBuilder description = new StringBuilder();
+    for (int w = 0; w < DESCRIPTION_WORDS; w++) {
+      description.append(skewed(random)).append(' ');
+    }
+    return new ExampleText(
+        String.format("%024x", i),
+        "EX" + i,
+        skewed(random) + " " + skewed(random),
+        description.toString());
+  }
+
+  /** Low indexes are much more frequent: the product of two uniform draws. */
+  private String skewed(Random random) {
+    return words[random.nextInt(random.nextInt(VOCABULARY) + 1)];
+  }
+
+  private static String word(Random random) {
+    char[] letters = new char[4 + random.nextInt(6)];
+    for (int i = 0; i < letters.length; i++) {
+      letters[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(letters);
+  }
+}
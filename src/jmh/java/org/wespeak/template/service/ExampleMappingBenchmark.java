@@ -0,0 +1,32 @@
+package org.wespeak.template.service;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.wespeak.template.BenchmarkFixtures;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExampleResponse;
+
+/** {@link ExampleService#toResponse} entity to DTO mapping through the Lombok builder. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExampleMappingBenchmark {
+
+  private ExampleEntity entity;
+
+  @Setup
+  public void setUp() {
+    entity = BenchmarkFixtures.exampleEntity();
+  }
+
+  @Benchmark
+  public ExampleResponse toResponse() {
+    return ExampleService.toResponse(entity);
+  }
+}
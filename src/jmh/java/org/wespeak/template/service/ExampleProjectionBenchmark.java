@@ -0,0 +1,129 @@
+package org.wespeak.template.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.TerminatingFind;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExampleResponse;
+
+/**
+ * Read paths of {@link ExampleService} against an embedded Mongo: the former entity hydration
+ * followed by {@code toResponse}, the DTO projection now used, and a sparse fieldset ({@code
+ * ?fields=code,name}), for one example and for a page of {@value #PAGE_SIZE}. Run with {@code
+ * -PjmhProfilers=gc} to compare allocations ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExampleProjectionBenchmark {
+
+  private static final int DOCUMENTS = 2_000;
+  private static final int PAGE_SIZE = 500;
+
+  private TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+  private MongoClient client;
+  private MongoTemplate mongoTemplate;
+  private String id;
+
+  @Setup
+  public void setUp() {
+    mongod = Mongod.instance().start(Version.Main.V7_0);
+    ServerAddress address = mongod.current().getServerAddress();
+    client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+    mongoTemplate = new MongoTemplate(client, "benchmark");
+
+    Instant now = Instant.parse("2024-01-15T10:30:00Z");
+    List<ExampleEntity> entities = new ArrayList<>(DOCUMENTS);
+    for (int i = 0; i < DOCUMENTS; i++) {
+      entities.add(
+          ExampleEntity.builder()
+              .id(new ObjectId().toHexString())
+              .code(String.format("EXAMPLE_%05d", i))
+              .name("Example " + i)
+              .description("This is example " + i + ", used by the projection benchmark")
+              .active(true)
+              .createdAt(now)
+              .updatedAt(now)
+              .build());
+    }
+    mongoTemplate.insertAll(entities);
+    id = entities.get(DOCUMENTS / 2).getId();
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+    mongod.close();
+  }
+
+  @Benchmark
+  public ExampleResponse findByIdEntity() {
+    return ExampleService.toResponse(mongoTemplate.findById(id, ExampleEntity.class));
+  }
+
+  @Benchmark
+  public ExampleResponse findByIdProjection() {
+    return responses(byId()).oneValue();
+  }
+
+  @Benchmark
+  public ExampleResponse findByIdSparse() {
+    return responses(sparse(byId())).oneValue();
+  }
+
+  @Benchmark
+  public List<ExampleResponse> pageEntity() {
+    return mongoTemplate.find(page(), ExampleEntity.class).stream()
+        .map(ExampleService::toResponse)
+        .toList();
+  }
+
+  @Benchmark
+  public List<ExampleResponse> pageProjection() {
+    return responses(page()).all();
+  }
+
+  @Benchmark
+  public List<ExampleResponse> pageSparse() {
+    return responses(sparse(page())).all();
+  }
+
+  private TerminatingFind<ExampleResponse> responses(Query query) {
+    return mongoTemplate.query(ExampleEntity.class).as(ExampleResponse.class).matching(query);
+  }
+
+  private Query byId() {
+    return Query.query(Criteria.where("_id").is(id));
+  }
+
+  private static Query page() {
+    return new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(PAGE_SIZE);
+  }
+
+  private static Query sparse(Query query) {
+    query.fields().include("id", "code", "name");
+    return query;
+  }
+}
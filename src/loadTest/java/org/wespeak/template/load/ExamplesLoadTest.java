@@ -0,0 +1,337 @@
+package org.wespeak.template.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.wespeak.template.load.LoadReport.ConsumerLag;
+import org.wespeak.template.load.OpenModelLoad.Operation;
+import org.wespeak.template.load.OpenModelLoad.Result;
+
+/**
+ * Load test of the REST and Kafka paths, run by {@code ./gradlew loadTest} (see the task for the
+ * settings). The application runs on a random port against embedded Mongo (single-node replica set,
+ * for the outbox transactions), embedded Kafka and {@link StubJwkServer}:
+ *
+ * <ul>
+ *   <li>HTTP requests arrive at {@code load.rate} per second, split between reads of seeded
+ *       examples, creates, deletes and reads of unknown ids by {@code load.mix};
+ *   <li>CloudEvents are published to {@code sample.events} at {@code load.kafka-rate} per second,
+ *       and the outbox relays the creates to {@code example.events};
+ *   <li>the lag of the application's consumer group on both topics is sampled every second, then
+ *       followed until it drains.
+ * </ul>
+ *
+ * <p>Reports are written by {@link LoadReport}; the Gradle task compares them with the baseline.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.autoconfigure.exclude=",
+      "spring.mongodb.embedded.storage.repl-set-name=rs0",
+      "spring.cloud.stream.enabled=true",
+      "spring.cloud.function.definition=sampleEventListener;exampleCreatedListener",
+      "spring.cloud.stream.kafka.binder.brokers=${spring.embedded.kafka.brokers}",
+      "spring.security.oauth2.resourceserver.jwt.authorities-claim-name=roles",
+      "spring.security.oauth2.resourceserver.jwt.authority-prefix=ROLE_",
+      "app.outbox.relay.enabled=true",
+      "logging.level.org.wespeak=INFO"
+    })
+@EmbeddedKafka(
+    partitions = 3,
+    topics = {"sample.events", "sample.events.dlq", "example.events", "example.events.dlq"})
+@ActiveProfiles("test")
+class ExamplesLoadTest {
+
+  private static final List<String> CONSUMED_TOPICS = List.of("sample.events", "example.events");
+  private static final int BULK_SIZE = 1000;
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(120);
+
+  private static StubJwkServer jwkServer;
+
+  private final double rate = Double.parseDouble(setting("load.rate", "200"));
+  private final double kafkaRate = Double.parseDouble(setting("load.kafka-rate", "500"));
+  private final Duration warmUp = DurationStyle.detectAndParse(setting("load.warm-up", "10s"));
+  private final Duration duration = DurationStyle.detectAndParse(setting("load.duration", "60s"));
+  private final String mix = setting("load.mix", "read=70,create=10,delete=5,not-found=15");
+  private final int seed = Integer.parseInt(setting("load.seed", "2000"));
+  private final int maxInFlight = Integer.parseInt(setting("load.max-in-flight", "10000"));
+  private final Path reports = Path.of(setting("load.reports", "build/reports/load"));
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final HttpClient http =
+      HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(REQUEST_TIMEOUT)
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .build();
+  private final String run = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong sequence = new AtomicLong();
+  private final Queue<String> deletable = new ConcurrentLinkedQueue<>();
+
+  @LocalServerPort private int port;
+
+  @Autowired private EmbeddedKafkaBroker broker;
+
+  @Value("${spring.application.name}")
+  private String consumerGroup;
+
+  private String token;
+
+  @DynamicPropertySource
+  static void jwkSet(DynamicPropertyRegistry registry) throws Exception {
+    jwkServer = new StubJwkServer();
+    registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", jwkServer::jwkSetUri);
+    registry.add(
+        "spring.security.oauth2.resourceserver.jwt.issuer-uri", () -> StubJwkServer.ISSUER);
+  }
+
+  @AfterAll
+  static void stopJwkServer() {
+    jwkServer.close();
+  }
+
+  @Test
+  void restAndKafkaPathsUnderConstantArrivalRate() throws Exception {
+    token = jwkServer.token("load-test", duration.plus(warmUp).plusMinutes(10), "USER", "ADMIN");
+    Map<String, Integer> weights = weights(mix);
+    List<String> readIds = seed(seed);
+    // Enough seeded examples for every delete of the run, creates only add to them
+    double seconds = (warmUp.toMillis() + duration.toMillis()) / 1000.0;
+    int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+    deletable.addAll(seed((int) Math.ceil(rate * seconds * weights.get("delete") / total) + 10));
+
+    OpenModelLoad httpLoad =
+        new OpenModelLoad(
+            rate,
+            List.of(
+                new Operation("read", weights.get("read"), () -> read(readIds)),
+                new Operation("create", weights.get("create"), this::create),
+                new Operation("delete", weights.get("delete"), this::delete),
+                new Operation("not-found", weights.get("not-found"), this::readUnknown)),
+            maxInFlight);
+    KafkaTemplate<String, String> producer =
+        new KafkaTemplate<>(
+            new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker),
+                new StringSerializer(),
+                new StringSerializer()));
+    OpenModelLoad kafkaLoad =
+        new OpenModelLoad(
+            kafkaRate,
+            List.of(new Operation("kafka.publish", 1, () -> publish(producer))),
+            maxInFlight);
+
+    Map<String, Result> results = new LinkedHashMap<>();
+    ConsumerLag lag;
+    try (Admin admin =
+            Admin.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor()) {
+      AtomicLong maxLag = new AtomicLong();
+      sampler.scheduleAtFixedRate(
+          () -> {
+            try {
+              maxLag.accumulateAndGet(lag(admin), Math::max);
+            } catch (Exception ex) {
+              // Sampled again in a second; an exception would cancel the sampling
+            }
+          },
+          1,
+          1,
+          TimeUnit.SECONDS);
+      CompletableFuture<Map<String, Result>> published =
+          CompletableFuture.supplyAsync(() -> kafkaLoad.run(warmUp, duration));
+      results.putAll(httpLoad.run(warmUp, duration));
+      results.putAll(published.join());
+      sampler.shutdown();
+      lag = drain(admin, maxLag.get());
+    } finally {
+      producer.destroy();
+    }
+
+    new LoadReport(reports).write(rate, kafkaRate, mix, results.values(), lag);
+    assertThat(results.get("read").succeeded()).isPositive();
+  }
+
+  private boolean read(List<String> ids) throws Exception {
+    String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    return send(request("/api/examples/" + id).GET()).statusCode() == 200;
+  }
+
+  private boolean readUnknown() throws Exception {
+    return send(request("/api/examples/" + new ObjectId().toHexString()).GET()).statusCode() == 404;
+  }
+
+  private boolean create() throws Exception {
+    long n = sequence.incrementAndGet();
+    String body =
+        objectMapper.writeValueAsString(
+            Map.of(
+                "code", "LOAD_" + run + "_" + n,
+                "name", "Load example " + n,
+                "description", "Created by the load test"));
+    HttpResponse<String> response =
+        send(
+            request("/api/examples")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    if (response.statusCode() != 201) {
+      return false;
+    }
+    deletable.add(objectMapper.readTree(response.body()).get("id").asText());
+    return true;
+  }
+
+  private boolean delete() throws Exception {
+    String id = deletable.poll();
+    return id != null && send(request("/api/examples/" + id).DELETE()).statusCode() == 204;
+  }
+
+  private boolean publish(KafkaTemplate<String, String> producer) throws Exception {
+    long n = sequence.incrementAndGet();
+    String event =
+        objectMapper.writeValueAsString(
+            Map.of(
+                "id",
+                "load-" + run + "-" + n,
+                "source",
+                "load-test",
+                "type",
+                "sample.created",
+                "time",
+                Instant.now().toString(),
+                "data",
+                Map.of("id", "load-" + n, "message", "load test event")));
+    producer.send("sample.events", "key-" + (n % 64), event).get(10, TimeUnit.SECONDS);
+    return true;
+  }
+
+  /** Creates examples through the bulk endpoint, so caches and filters see them, and their ids. */
+  private List<String> seed(int count) throws Exception {
+    List<String> ids = new ArrayList<>(count);
+    while (ids.size() < count) {
+      List<Map<String, String>> batch = new ArrayList<>();
+      for (int i = 0; i < Math.min(BULK_SIZE, count - ids.size()); i++) {
+        long n = sequence.incrementAndGet();
+        batch.add(Map.of("code", "SEED_" + run + "_" + n, "name", "Seeded example " + n));
+      }
+      String body = objectMapper.writeValueAsString(batch);
+      HttpResponse<String> response =
+          send(
+              request("/api/examples/_bulk")
+                  .header("Content-Type", "application/json")
+                  .POST(HttpRequest.BodyPublishers.ofString(body)));
+      assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+      for (JsonNode item : objectMapper.readTree(response.body()).get("items")) {
+        if (item.has("example")) {
+          ids.add(item.get("example").get("id").asText());
+        }
+      }
+    }
+    return ids;
+  }
+
+  /** Follows the consumer lag after the load until it is back to zero. */
+  private ConsumerLag drain(Admin admin, long maxLag) throws Exception {
+    long start = System.nanoTime();
+    long deadline = start + DRAIN_TIMEOUT.toNanos();
+    long lag = lag(admin);
+    while (lag > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(200);
+      lag = lag(admin);
+    }
+    long atEnd = lag;
+    return new ConsumerLag(
+        Math.max(maxLag, atEnd), atEnd, (System.nanoTime() - start) / 1e9, atEnd == 0);
+  }
+
+  /** Records of the consumed topics not yet committed by the application's consumer group. */
+  private long lag(Admin admin) throws Exception {
+    Map<TopicPartition, OffsetAndMetadata> committed =
+        admin.listConsumerGroupOffsets(consumerGroup).partitionsToOffsetAndMetadata().get();
+    Map<TopicPartition, OffsetSpec> partitions = new HashMap<>();
+    for (String topic : CONSUMED_TOPICS) {
+      for (int partition = 0; partition < broker.getPartitionsPerTopic(); partition++) {
+        partitions.put(new TopicPartition(topic, partition), OffsetSpec.latest());
+      }
+    }
+    long lag = 0;
+    for (var latest : admin.listOffsets(partitions).all().get().entrySet()) {
+      OffsetAndMetadata offset = committed.get(latest.getKey());
+      lag += latest.getValue().offset() - (offset != null ? offset.offset() : 0);
+    }
+    return lag;
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Authorization", "Bearer " + token);
+  }
+
+  private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+    return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static Map<String, Integer> weights(String mix) {
+    Map<String, Integer> weights =
+        new HashMap<>(Map.of("read", 0, "create", 0, "delete", 0, "not-found", 0));
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("=");
+      if (parts.length != 2 || !weights.containsKey(parts[0])) {
+        throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+      }
+      weights.put(parts[0], Integer.parseInt(parts[1]));
+    }
+    return weights;
+  }
+
+  private static String setting(String name, String defaultValue) {
+    String value = System.getProperty(name);
+    return value != null && !value.isBlank() ? value : defaultValue;
+  }
+}
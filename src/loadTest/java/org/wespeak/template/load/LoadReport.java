@@ -0,0 +1,145 @@
+package org.wespeak.template.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import org.HdrHistogram.Histogram;
+import org.wespeak.template.load.OpenModelLoad.Result;
+
+/**
+ * Reports of a load test run in {@code build/reports/load}:
+ *
+ * <ul>
+ *   <li>{@code <operation>.hgrm}: HdrHistogram percentile distribution in milliseconds, readable
+ *       with the HdrHistogram plotter;
+ *   <li>{@code summary.json}: throughput and percentiles per operation plus the consumer lag,
+ *       compared with {@code src/loadTest/baseline.json} by the {@code loadTest} Gradle task.
+ * </ul>
+ */
+final class LoadReport {
+
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  /** Lag of the application's consumer group over the run, in records. */
+  record ConsumerLag(long max, long atEnd, double drainSeconds, boolean drained) {}
+
+  record OperationSummary(
+      String name,
+      long count,
+      double throughput,
+      double p50Ms,
+      double p90Ms,
+      double p99Ms,
+      double p999Ms,
+      double maxMs,
+      long errors,
+      long dropped) {}
+
+  record Summary(
+      double targetRate,
+      double kafkaTargetRate,
+      String mix,
+      List<OperationSummary> operations,
+      ConsumerLag consumerLag) {}
+
+  private final Path directory;
+
+  LoadReport(Path directory) {
+    this.directory = directory;
+  }
+
+  /** Writes the reports and prints the summary table. */
+  Summary write(
+      double targetRate,
+      double kafkaTargetRate,
+      String mix,
+      Collection<Result> results,
+      ConsumerLag consumerLag)
+      throws IOException {
+    Files.createDirectories(directory);
+    List<OperationSummary> operations = new ArrayList<>();
+    for (Result result : results) {
+      Histogram latencies = result.latencies();
+      try (PrintStream out =
+          new PrintStream(Files.newOutputStream(directory.resolve(result.name() + ".hgrm")))) {
+        latencies.outputPercentileDistribution(out, NANOS_PER_MILLI);
+      }
+      operations.add(
+          new OperationSummary(
+              result.name(),
+              latencies.getTotalCount(),
+              result.throughput(),
+              millis(latencies, 50),
+              millis(latencies, 90),
+              millis(latencies, 99),
+              millis(latencies, 99.9),
+              latencies.getMaxValue() / NANOS_PER_MILLI,
+              result.errors(),
+              result.dropped()));
+    }
+    Summary summary = new Summary(targetRate, kafkaTargetRate, mix, operations, consumerLag);
+    new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(directory.resolve("summary.json").toFile(), summary);
+    print(summary);
+    return summary;
+  }
+
+  private static double millis(Histogram latencies, double percentile) {
+    return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+  }
+
+  private void print(Summary summary) {
+    System.out.printf(
+        Locale.ROOT,
+        "%nHTTP %.0f req/s (%s), Kafka %.0f events/s%n",
+        summary.targetRate(),
+        summary.mix(),
+        summary.kafkaTargetRate());
+    System.out.printf(
+        Locale.ROOT,
+        "%-14s %9s %9s %8s %8s %8s %8s %8s %7s %7s%n",
+        "operation",
+        "count",
+        "ops/s",
+        "p50 ms",
+        "p90 ms",
+        "p99 ms",
+        "p99.9 ms",
+        "max ms",
+        "errors",
+        "dropped");
+    for (OperationSummary operation : summary.operations()) {
+      System.out.printf(
+          Locale.ROOT,
+          "%-14s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7d %7d%n",
+          operation.name(),
+          operation.count(),
+          operation.throughput(),
+          operation.p50Ms(),
+          operation.p90Ms(),
+          operation.p99Ms(),
+          operation.p999Ms(),
+          operation.maxMs(),
+          operation.errors(),
+          operation.dropped());
+    }
+    ConsumerLag lag = summary.consumerLag();
+    System.out.printf(
+        Locale.ROOT,
+        "consumer lag: max %d, at end %d, %s%n%n",
+        lag.max(),
+        lag.atEnd(),
+        lag.drained()
+            ? String.format(Locale.ROOT, "drained in %.1f s", lag.drainSeconds())
+            : "not drained");
+    System.out.println("Reports in " + directory.toAbsolutePath());
+  }
+}
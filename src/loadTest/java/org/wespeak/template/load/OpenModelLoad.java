@@ -0,0 +1,142 @@
+package org.wespeak.template.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model load: operations start at a constant arrival rate whatever the response times, each on
+ * its own virtual thread, as independent clients would. Latency is measured from the intended start
+ * time, so a stalled server shows up in the percentiles instead of slowing the load down (no
+ * coordinated omission).
+ *
+ * <p>Operations started during the warm-up are run but not recorded. Past {@code maxInFlight}
+ * pending operations, new arrivals are counted as {@code dropped} rather than started.
+ */
+final class OpenModelLoad {
+
+  /** A kind of operation, picked with a probability proportional to its weight. */
+  record Operation(String name, int weight, Call call) {}
+
+  /** One execution of an operation; {@code false} or an exception counts as an error. */
+  @FunctionalInterface
+  interface Call {
+    boolean run() throws Exception;
+  }
+
+  /** Recorded outcome of an operation, latencies in nanoseconds. */
+  record Result(
+      String name, Histogram latencies, long succeeded, long errors, long dropped, Duration run) {
+
+    double throughput() {
+      return succeeded / (run.toNanos() / 1e9);
+    }
+  }
+
+  private final double ratePerSecond;
+  private final List<Operation> operations;
+  private final int maxInFlight;
+
+  OpenModelLoad(double ratePerSecond, List<Operation> operations, int maxInFlight) {
+    this.ratePerSecond = ratePerSecond;
+    this.operations = List.copyOf(operations);
+    this.maxInFlight = maxInFlight;
+  }
+
+  /** Runs the load for {@code warmUp + run} and returns the results of the measured part. */
+  Map<String, Result> run(Duration warmUp, Duration run) {
+    int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    List<Recorder> recorders = new ArrayList<>();
+    operations.forEach(operation -> recorders.add(new Recorder()));
+    AtomicInteger inFlight = new AtomicInteger();
+    SplittableRandom random = new SplittableRandom(42);
+    double interval = 1e9 / ratePerSecond;
+
+    long start = System.nanoTime();
+    long measuredFrom = start + warmUp.toNanos();
+    long end = measuredFrom + run.toNanos();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long arrival = 0; ; arrival++) {
+        long intended = start + (long) (arrival * interval);
+        if (intended >= end) {
+          break;
+        }
+        LockSupport.parkNanos(intended - System.nanoTime());
+        int index = pick(random.nextInt(totalWeight));
+        Recorder recorder = intended >= measuredFrom ? recorders.get(index) : null;
+        if (inFlight.get() >= maxInFlight) {
+          if (recorder != null) {
+            recorder.dropped.increment();
+          }
+          continue;
+        }
+        inFlight.incrementAndGet();
+        Call call = operations.get(index).call();
+        executor.execute(
+            () -> {
+              boolean succeeded = false;
+              try {
+                succeeded = call.run();
+              } catch (Exception ex) {
+                // Counted as an error below
+              } finally {
+                inFlight.decrementAndGet();
+              }
+              if (recorder != null) {
+                recorder.record(System.nanoTime() - intended, succeeded);
+              }
+            });
+      }
+      // close() waits for the operations started before the end (the calls have timeouts)
+    }
+
+    Map<String, Result> results = new LinkedHashMap<>();
+    for (int i = 0; i < operations.size(); i++) {
+      Recorder recorder = recorders.get(i);
+      String name = operations.get(i).name();
+      results.put(
+          name,
+          new Result(
+              name,
+              recorder.latencies,
+              recorder.succeeded.sum(),
+              recorder.errors.sum(),
+              recorder.dropped.sum(),
+              run));
+    }
+    return results;
+  }
+
+  private int pick(int draw) {
+    for (int i = 0; i < operations.size(); i++) {
+      draw -= operations.get(i).weight();
+      if (draw < 0) {
+        return i;
+      }
+    }
+    return operations.size() - 1;
+  }
+
+  private static final class Recorder {
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+      latencies.recordValue(latencyNanos);
+      (success ? succeeded : errors).increment();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package org.wespeak.template.load;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Stands in for Keycloak: serves the JWK set of a generated RSA key on a local port and signs
+ * tokens with it, so the load test goes through the real JWT decoding and caching.
+ */
+final class StubJwkServer implements AutoCloseable {
+
+  static final String ISSUER = "http://localhost/realms/load-test";
+  private static final String CERTS_PATH = "/certs";
+
+  private final RSAKey key;
+  private final HttpServer server;
+
+  StubJwkServer() throws IOException, JOSEException {
+    key = new RSAKeyGenerator(2048).keyUse(KeyUse.SIGNATURE).keyID("load-test").generate();
+    byte[] jwks = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        CERTS_PATH,
+        exchange -> {
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, jwks.length);
+          try (OutputStream body = exchange.getResponseBody()) {
+            body.write(jwks);
+          }
+        });
+    server.start();
+  }
+
+  String jwkSetUri() {
+    return "http://localhost:" + server.getAddress().getPort() + CERTS_PATH;
+  }
+
+  /** Token valid for the given time, with the roles in the {@code roles} claim. */
+  String token(String subject, Duration validity, String... roles) throws JOSEException {
+    Instant now = Instant.now();
+    JWTClaimsSet claims =
+        new JWTClaimsSet.Builder()
+            .issuer(ISSUER)
+            .subject(subject)
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plus(validity)))
+            .claim("roles", List.of(roles))
+            .build();
+    JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build();
+    SignedJWT jwt = new SignedJWT(header, claims);
+    jwt.sign(new RSASSASigner(key));
+    return jwt.serialize();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+}
@@ -0,0 +1,31 @@
+package org.wespeak.template;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item results of a bulk create request")
+public class BulkCreateResponse {
+
+  @Schema(description = "Number of examples created", example = "98")
+  private int created;
+
+  @Schema(description = "Number of items rejected because the code already exists", example = "1")
+  private int conflicts;
+
+  @Schema(description = "Number of items rejected by validation", example = "1")
+  private int invalid;
+
+  @Schema(description = "Number of items that failed for another reason", example = "0")
+  private int failed;
+
+  @Schema(description = "Results in request order")
+  private List<BulkItemResult> items;
+}
@@ -0,0 +1,36 @@
+package org.wespeak.template;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Result of one item of a bulk create request")
+public class BulkItemResult {
+
+  @Schema(description = "Position of the item in the request", example = "0")
+  private int index;
+
+  @Schema(description = "Outcome of the item", example = "CREATED")
+  private BulkItemStatus status;
+
+  @Schema(description = "Code of the item", example = "EXAMPLE_001")
+  private String code;
+
+  @Schema(description = "Created example, when status is CREATED")
+  private ExampleResponse example;
+
+  @Schema(description = "Reason of the failure, when status is not CREATED")
+  private String message;
+
+  @Schema(description = "Field errors, when status is INVALID")
+  private Map<String, String> validationErrors;
+}
@@ -0,0 +1,9 @@
+package org.wespeak.template;
+
+/** Outcome of one item of a bulk request */
+public enum BulkItemStatus {
+  CREATED,
+  CONFLICT,
+  INVALID,
+  FAILED
+}
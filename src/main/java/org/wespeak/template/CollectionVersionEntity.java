@@ -0,0 +1,28 @@
+package org.wespeak.template;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Change counter of a collection, incremented after every committed write to it. Backs the ETag and
+ * Last-Modified of list endpoints.
+ */
+@Document(collection = "collection_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionVersionEntity {
+
+  /** Name of the versioned collection */
+  @Id private String id;
+
+  private long version;
+
+  private Instant updatedAt;
+}
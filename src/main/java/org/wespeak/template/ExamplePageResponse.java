@@ -0,0 +1,24 @@
+package org.wespeak.template;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of examples ordered by id (keyset pagination)")
+public class ExamplePageResponse {
+
+  @Schema(description = "Examples of this page")
+  private List<ExampleResponse> items;
+
+  @Schema(
+      description = "Opaque cursor for the next page, absent on the last page",
+      example = "NTA3ZjFmNzdiY2Y4NmNkNzk5NDM5MDEx")
+  private String nextCursor;
+}
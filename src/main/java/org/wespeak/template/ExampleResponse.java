@@ -1,5 +1,6 @@
 package org.wespeak.template;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
@@ -7,10 +8,17 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Example as returned by the API. Null fields are omitted from the JSON: every field left out of a
+ * sparse fieldset ({@code fields=}), and in a full response only an unset {@code description},
+ * which was written as {@code null} before sparse fieldsets. {@code active} is a {@link Boolean} to
+ * be left out of a fieldset; a full response always has it.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Example response")
 public class ExampleResponse {
 
@@ -23,11 +31,13 @@ public class ExampleResponse {
   @Schema(description = "Display name", example = "My Example")
   private String name;
 
-  @Schema(description = "Description", example = "This is an example")
+  @Schema(description = "Description, omitted when unset", example = "This is an example")
   private String description;
 
-  @Schema(description = "Active status", example = "true")
-  private boolean active;
+  @Schema(
+      description = "Active status, always present unless left out of a sparse fieldset",
+      example = "true")
+  private Boolean active;
 
   @Schema(description = "Creation timestamp")
   private Instant createdAt;
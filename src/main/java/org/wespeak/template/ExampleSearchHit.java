@@ -0,0 +1,27 @@
+package org.wespeak.template;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Example matching a search")
+public class ExampleSearchHit {
+
+  @Schema(description = "Unique identifier", example = "507f1f77bcf86cd799439011")
+  private String id;
+
+  @Schema(description = "Unique code", example = "EXAMPLE_001")
+  private String code;
+
+  @Schema(description = "Display name", example = "My Example")
+  private String name;
+
+  @Schema(description = "Relevance, higher first", example = "3.0")
+  private float score;
+}
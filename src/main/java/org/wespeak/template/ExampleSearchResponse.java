@@ -0,0 +1,27 @@
+package org.wespeak.template;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Page of examples matching a search, best match first")
+public class ExampleSearchResponse {
+
+  @Schema(description = "Matches of this page")
+  private List<ExampleSearchHit> items;
+
+  @Schema(description = "Number of matching examples", example = "42")
+  private int total;
+
+  @Schema(description = "Offset of the next page, absent on the last one", example = "20")
+  private Integer nextOffset;
+}
@@ -0,0 +1,58 @@
+package org.wespeak.template;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Transactional outbox entry: a CloudEvent written in the same transaction as the entity change and
+ * published to Kafka afterwards by the OutboxRelay. Published entries expire after a week.
+ */
+@Document(collection = "outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventEntity {
+
+  /** ObjectId, so ordering by id follows insertion order */
+  @Id private String id;
+
+  private String eventId;
+
+  private String type;
+
+  /** Kafka record key: events of the same aggregate stay ordered on one partition */
+  private String aggregateId;
+
+  /** Serialized CloudEvent */
+  private String payload;
+
+  private Instant createdAt;
+
+  /**
+   * Set while the entity write it describes is not confirmed yet (bulk create, which cannot share a
+   * transaction with the outbox): the relay skips held entries.
+   */
+  private Boolean held;
+
+  @Indexed private Instant lockedUntil;
+
+  private String lockedBy;
+
+  /** Failed publication attempts; the relay retries after a lease, up to max-attempts */
+  private Integer attempts;
+
+  private String lastError;
+
+  /** Set once max-attempts is reached: the relay no longer claims the entry */
+  private Instant failedAt;
+
+  @Indexed(expireAfter = "7d")
+  private Instant publishedAt;
+}
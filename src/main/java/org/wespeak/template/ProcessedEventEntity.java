@@ -0,0 +1,28 @@
+package org.wespeak.template;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * CloudEvent already processed by a listener, so that redeliveries are skipped. Entries expire
+ * after a day, well beyond the retries and rebalances that cause duplicates.
+ */
+@Document(collection = "processed_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEventEntity {
+
+  /** {@code <listener>/<source>/<id>}: CloudEvents are unique by source and id */
+  @Id private String id;
+
+  @Indexed(expireAfter = "1d")
+  private Instant processedAt;
+}
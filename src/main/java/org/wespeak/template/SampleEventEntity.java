@@ -0,0 +1,24 @@
+package org.wespeak.template;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/** Sample event persisted by SampleService - Replace with your own domain model */
+@Document(collection = "sample_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SampleEventEntity {
+
+  @Id private String id;
+
+  private String message;
+
+  private Instant receivedAt;
+}
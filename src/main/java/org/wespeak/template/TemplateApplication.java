@@ -2,17 +2,25 @@ package org.wespeak.template;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
-@EnableMongoAuditing
 @EnableKafka
+@EnableAsync(proxyTargetClass = true)
+@EnableScheduling
 public class TemplateApplication {
 
+  /** Startup steps kept for {@code /actuator/startup} and {@code StartupReporter}. */
+  private static final int STARTUP_STEPS = 10_000;
+
   public static void main(String[] args) {
-    SpringApplication.run(TemplateApplication.class, args);
+    SpringApplication application = new SpringApplication(TemplateApplication.class);
+    application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+    application.run(args);
   }
 }
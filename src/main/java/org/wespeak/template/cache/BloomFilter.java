@@ -0,0 +1,100 @@
+package org.wespeak.template.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings: {@link #mightContain} never returns {@code false} for a
+ * value that was {@link #put}, and returns {@code true} for an absent value with a probability
+ * close to the false positive rate it was sized for. Values cannot be removed.
+ *
+ * <p>Bit positions use double hashing ({@code h1 + i * h2}) over a 64-bit FNV-1a hash of the UTF-8
+ * bytes, finalized with the MurmurHash3 mixer.
+ */
+public class BloomFilter {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final AtomicLongArray bits;
+  private final long bitSize;
+  private final int hashFunctions;
+
+  /**
+   * @param expectedInsertions number of values the filter is sized for
+   * @param falsePositiveRate target false positive rate at {@code expectedInsertions}, in (0, 1)
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException("expectedInsertions must be positive");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+    }
+    long optimalBits =
+        (long)
+            Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.min(Integer.MAX_VALUE, (optimalBits + 63) / 64);
+    this.bits = new AtomicLongArray(words);
+    this.bitSize = (long) words * 64;
+    this.hashFunctions =
+        Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+  }
+
+  public void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctions; i++) {
+      long index = index(h1 + i * h2);
+      long mask = 1L << index;
+      int word = (int) (index >>> 6);
+      long current;
+      do {
+        current = bits.get(word);
+      } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctions; i++) {
+      long index = index(h1 + i * h2);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** False positive rate expected from the current fill ratio: {@code (set bits / size)^k}. */
+  public double expectedFalsePositiveRate() {
+    long set = 0;
+    for (int i = 0; i < bits.length(); i++) {
+      set += Long.bitCount(bits.get(i));
+    }
+    return Math.pow((double) set / bitSize, hashFunctions);
+  }
+
+  private long index(int combined) {
+    return (combined & Integer.MAX_VALUE) % bitSize;
+  }
+
+  private static long hash(String value) {
+    long hash = FNV_OFFSET;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= FNV_PRIME;
+    }
+    // MurmurHash3 finalizer: spreads FNV's weak high bits, which h2 is taken from
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,19 @@
+package org.wespeak.template.cache;
+
+/**
+ * Invalidation notice broadcast to every node sharing the L2 cache. A {@code null} key means the
+ * whole cache was cleared.
+ *
+ * @param nodeId identifier of the node that performed the write, used to ignore our own messages
+ * @param cacheName name of the affected cache
+ * @param key string form of the evicted key, or {@code null} for a clear
+ * @param deleted whether the key was evicted because what it maps to was deleted, for listeners
+ *     that must drop it rather than reload it; {@code false} in messages from older nodes
+ */
+public record CacheInvalidationMessage(
+    String nodeId, String cacheName, String key, boolean deleted) {
+
+  public CacheInvalidationMessage(String nodeId, String cacheName, String key) {
+    this(nodeId, cacheName, key, false);
+  }
+}
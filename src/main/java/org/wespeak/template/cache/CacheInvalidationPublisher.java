@@ -0,0 +1,8 @@
+package org.wespeak.template.cache;
+
+/** Broadcasts L1 invalidations to the other nodes of the cluster. */
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+
+  void publish(CacheInvalidationMessage message);
+}
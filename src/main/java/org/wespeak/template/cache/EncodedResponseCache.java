@@ -0,0 +1,156 @@
+package org.wespeak.template.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Encoded bytes of response bodies, so that a cached value is serialized (and gzipped) once rather
+ * than on every request. Entries are keyed by the identity of the value and weakly referenced: the
+ * bytes live as long as the value stays in the object cache that returned it, and a value built for
+ * one request (e.g. a projection) is simply encoded again next time.
+ *
+ * <p>Each value has up to one encoding per {@link Format}, plus a gzip variant of the JSON one when
+ * {@code server.compression} would compress it (JSON, at least {@code
+ * server.compression.min-response-size}); Tomcat leaves an already encoded response alone.
+ *
+ * <p>Metrics: the {@code cache.*} meters of the {@code encoded-responses} cache.
+ */
+@Component
+public class EncodedResponseCache {
+
+  public static final MediaType APPLICATION_CBOR = MediaType.parseMediaType("application/cbor");
+  public static final MediaType APPLICATION_SMILE =
+      MediaType.parseMediaType("application/x-jackson-smile");
+
+  /** Representations of a cached response, by order of preference when the client has none. */
+  public enum Format {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(APPLICATION_CBOR),
+    SMILE(APPLICATION_SMILE);
+
+    private final MediaType mediaType;
+
+    Format(MediaType mediaType) {
+      this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+      return mediaType;
+    }
+  }
+
+  /** Body to write as is, with its {@code Content-Type} and {@code Content-Encoding}. */
+  public record Encoded(MediaType contentType, byte[] body, boolean gzipped) {}
+
+  private final Cache<Object, AtomicReferenceArray<byte[]>> encodings;
+  private final ObjectMapper[] mappers;
+  private final boolean compression;
+  private final long minCompressedSize;
+
+  public EncodedResponseCache(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.encoded-responses.maximum-size:10000}") long maximumSize,
+      @Value("${server.compression.enabled:false}") boolean compression,
+      @Value("${server.compression.min-response-size:2KB}") DataSize minCompressedSize) {
+    this.encodings =
+        Caffeine.newBuilder().weakKeys().maximumSize(maximumSize).recordStats().build();
+    // Same modules and features as the JSON mapper, so all formats carry the same fields
+    this.mappers =
+        new ObjectMapper[] {
+          objectMapper,
+          objectMapper.copyWith(new CBORFactory()),
+          objectMapper.copyWith(new SmileFactory())
+        };
+    this.compression = compression;
+    this.minCompressedSize = minCompressedSize.toBytes();
+    CaffeineCacheMetrics.monitor(meterRegistry, encodings, "encoded-responses");
+  }
+
+  /**
+   * The preferred format among the acceptable media types, by quality then order; JSON when the
+   * client accepts anything, empty when it accepts none of them.
+   */
+  public static Optional<Format> negotiate(List<MediaType> accepted) {
+    if (accepted.isEmpty()) {
+      return Optional.of(Format.JSON);
+    }
+    List<MediaType> sorted = new ArrayList<>(accepted);
+    sorted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+    for (MediaType mediaType : sorted) {
+      if (mediaType.getQualityValue() == 0) {
+        continue;
+      }
+      for (Format format : Format.values()) {
+        if (mediaType.includes(format.mediaType())) {
+          return Optional.of(format);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Bytes of {@code value} in {@code format}, gzipped if the client accepts it and the response
+   * would be compressed anyway.
+   */
+  public Encoded encode(Object value, Format format, boolean acceptsGzip) {
+    AtomicReferenceArray<byte[]> slots =
+        encodings.get(value, key -> new AtomicReferenceArray<>(Format.values().length + 1));
+    byte[] plain = slot(slots, format.ordinal(), () -> serialize(value, format));
+    if (acceptsGzip && compression && format == Format.JSON && plain.length >= minCompressedSize) {
+      byte[] gzipped = slot(slots, Format.values().length, () -> gzip(plain));
+      return new Encoded(format.mediaType(), gzipped, true);
+    }
+    return new Encoded(format.mediaType(), plain, false);
+  }
+
+  /** Encodes once; concurrent first requests may both encode, to the same bytes. */
+  private static byte[] slot(
+      AtomicReferenceArray<byte[]> slots, int index, Supplier<byte[]> encoder) {
+    byte[] bytes = slots.get(index);
+    if (bytes == null) {
+      bytes = encoder.get();
+      slots.set(index, bytes);
+    }
+    return bytes;
+  }
+
+  private byte[] serialize(Object value, Format format) {
+    try {
+      return mappers[format.ordinal()].writeValueAsBytes(value);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot encode " + value.getClass().getSimpleName(), ex);
+    }
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+}
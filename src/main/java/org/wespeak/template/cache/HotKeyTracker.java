@@ -0,0 +1,48 @@
+package org.wespeak.template.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Approximate access counts of the most read cache keys, to warm a cold cache with them. At most
+ * {@code maximumSize} keys are tracked; Caffeine's frequency-based eviction drops the rarely read
+ * ones first, so a scan of cold keys does not push the hot ones out.
+ */
+public class HotKeyTracker {
+
+  private final Cache<String, LongAdder> counts;
+
+  public HotKeyTracker(long maximumSize) {
+    this.counts = Caffeine.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  public void record(String key) {
+    counts.get(key, k -> new LongAdder()).increment();
+  }
+
+  /**
+   * Returns up to {@code limit} keys, most read first, then halves every count so that recent reads
+   * outweigh old ones in the next snapshot.
+   */
+  public List<String> snapshot(int limit) {
+    List<Map.Entry<String, Long>> ranked =
+        counts.asMap().entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+            .filter(entry -> entry.getValue() > 0)
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(limit)
+            .toList();
+    counts
+        .asMap()
+        .forEach(
+            (key, count) -> {
+              long current = count.sum();
+              count.add(-(current - current / 2));
+            });
+    return ranked.stream().map(Map.Entry::getKey).toList();
+  }
+}
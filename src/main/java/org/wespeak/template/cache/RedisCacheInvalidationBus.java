@@ -0,0 +1,55 @@
+package org.wespeak.template.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Redis pub/sub transport for {@link CacheInvalidationMessage}s: publishes local writes on the
+ * invalidation channel and forwards messages from other nodes to the {@link TwoTierCacheManager}.
+ */
+@Slf4j
+public class RedisCacheInvalidationBus implements CacheInvalidationPublisher, MessageListener {
+
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final String channel;
+  private TwoTierCacheManager cacheManager;
+
+  public RedisCacheInvalidationBus(
+      StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.channel = channel;
+  }
+
+  public void setCacheManager(TwoTierCacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  @Override
+  public void publish(CacheInvalidationMessage message) {
+    try {
+      redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot serialize cache invalidation message", ex);
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    if (cacheManager == null) {
+      return;
+    }
+    try {
+      cacheManager.onInvalidation(
+          objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class));
+    } catch (IOException ex) {
+      log.warn("Ignoring malformed cache invalidation message: {}", ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,240 @@
+package org.wespeak.template.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Cache layering a local near-cache (L1) in front of a shared cache (L2). Reads try L1, then L2,
+ * and promote L2 hits into L1. Writes and evictions go to both tiers and are broadcast so that the
+ * other nodes drop their now stale L1 entry. L2 failures are logged and degrade to L1 only.
+ *
+ * <p>L1 is an asynchronous Caffeine cache, so that {@link #get(Object, Callable)} is single-flight
+ * without holding a Caffeine lock during the L2 round trip and the load.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+  private final CaffeineCache local;
+  private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight;
+  private final Cache shared;
+  private final String nodeId;
+  private final CacheInvalidationPublisher publisher;
+
+  /**
+   * @param local L1, created with an {@link com.github.benmanes.caffeine.cache.AsyncCache}
+   */
+  public TwoTierCache(
+      CaffeineCache local, Cache shared, String nodeId, CacheInvalidationPublisher publisher) {
+    this.local = local;
+    this.inFlight = local.getAsyncCache().asMap();
+    this.shared = shared;
+    this.nodeId = nodeId;
+    this.publisher = publisher;
+  }
+
+  @Override
+  public String getName() {
+    return local.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return this;
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    ValueWrapper value = local.get(key);
+    if (value != null) {
+      return value;
+    }
+    value = getShared(key);
+    if (value != null) {
+      local.put(key, value.get());
+    }
+    return value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper value = get(key);
+    Object stored = value != null ? value.get() : null;
+    if (stored != null && type != null && !type.isInstance(stored)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + stored);
+    }
+    return (T) stored;
+  }
+
+  /**
+   * Single-flight read-through: the first miss puts a pending future in L1 and, on the calling
+   * thread and without any lock held, tries L2 then {@code valueLoader}; concurrent misses for the
+   * same key on this node wait for that future. Loaded values are written to L2 without a
+   * broadcast: the eviction that emptied L2 already dropped the other nodes' L1 copies. A key
+   * evicted during the load has lost its future; the value, possibly read before the change that
+   * caused the eviction, is then returned to the waiting callers but neither written to L2 nor kept
+   * in L1. A failed load is not cached.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    CompletableFuture<Object> loading = new CompletableFuture<>();
+    CompletableFuture<Object> pending = inFlight.putIfAbsent(key, loading);
+    if (pending == null) {
+      pending = loading;
+      try {
+        loading.complete(toStoreValue(load(key, valueLoader, loading)));
+      } catch (RuntimeException | Error ex) {
+        inFlight.remove(key, loading);
+        loading.completeExceptionally(ex);
+      }
+    }
+    try {
+      return (T) fromStoreValue(pending.join());
+    } catch (CompletionException ex) {
+      throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    putShared(key, value);
+    local.put(key, value);
+    broadcast(key, false);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    ValueWrapper existing = get(key);
+    if (existing != null) {
+      return existing;
+    }
+    put(key, value);
+    return null;
+  }
+
+  @Override
+  public void evict(Object key) {
+    evictBothTiers(key);
+    broadcast(key, false);
+  }
+
+  /**
+   * {@link #evict(Object)} for a key whose value was deleted at the source: the broadcast says so,
+   * so that the other nodes' listeners drop the key instead of treating it as stale.
+   */
+  public void evictDeleted(Object key) {
+    evictBothTiers(key);
+    broadcast(key, true);
+  }
+
+  @Override
+  public void clear() {
+    try {
+      shared.clear();
+    } catch (RuntimeException ex) {
+      log.warn("L2 cache '{}' clear failed: {}", getName(), ex.getMessage());
+    }
+    local.clear();
+    broadcast(null, false);
+  }
+
+  /** The L1 cache, e.g. to bind its statistics to metrics. */
+  public CaffeineCache getLocalCache() {
+    return local;
+  }
+
+  /** Drops a key from L1 only, in response to an invalidation received from another node. */
+  public void evictLocal(Object key) {
+    if (key == null) {
+      local.clear();
+    } else {
+      local.evict(key);
+    }
+  }
+
+  /**
+   * L1 first: a load that still finds its future once it has written L2 wrote it before L2 is
+   * cleared here (see {@link #load}). L1 again after L2, for a miss that read the old L2 value in
+   * between.
+   */
+  private void evictBothTiers(Object key) {
+    local.evict(key);
+    evictShared(key);
+    local.evict(key);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T load(Object key, Callable<T> valueLoader, CompletableFuture<Object> loading) {
+    ValueWrapper value = getShared(key);
+    if (value != null) {
+      return (T) value.get();
+    }
+    T loaded;
+    try {
+      loaded = valueLoader.call();
+    } catch (Exception ex) {
+      throw new ValueRetrievalException(key, valueLoader, ex);
+    }
+    if (inFlight.get(key) == loading) {
+      putShared(key, loaded);
+      // Evicted between the check and the write: the eviction may have cleared L2 before it
+      if (inFlight.get(key) != loading) {
+        evictShared(key);
+      }
+    }
+    return loaded;
+  }
+
+  private static Object toStoreValue(Object value) {
+    return value != null ? value : NullValue.INSTANCE;
+  }
+
+  private static Object fromStoreValue(Object stored) {
+    return stored == NullValue.INSTANCE ? null : stored;
+  }
+
+  private ValueWrapper getShared(Object key) {
+    try {
+      ValueWrapper value = shared.get(key);
+      return value != null ? new SimpleValueWrapper(value.get()) : null;
+    } catch (RuntimeException ex) {
+      log.warn("L2 cache '{}' read failed for key {}: {}", getName(), key, ex.getMessage());
+      return null;
+    }
+  }
+
+  private void putShared(Object key, Object value) {
+    try {
+      shared.put(key, value);
+    } catch (RuntimeException ex) {
+      log.warn("L2 cache '{}' write failed for key {}: {}", getName(), key, ex.getMessage());
+    }
+  }
+
+  private void evictShared(Object key) {
+    try {
+      shared.evict(key);
+    } catch (RuntimeException ex) {
+      log.warn("L2 cache '{}' evict failed for key {}: {}", getName(), key, ex.getMessage());
+    }
+  }
+
+  private void broadcast(Object key, boolean deleted) {
+    try {
+      publisher.publish(
+          new CacheInvalidationMessage(
+              nodeId, getName(), key != null ? key.toString() : null, deleted));
+    } catch (RuntimeException ex) {
+      log.warn("Cache invalidation broadcast failed for '{}': {}", getName(), ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package org.wespeak.template.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * {@link CacheManager} building a {@link TwoTierCache} per cache name: a Caffeine near-cache in
+ * front of the cache of the same name from the shared (L2) manager, usually Redis.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager {
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+  private final String caffeineSpec;
+  private final CacheManager sharedCacheManager;
+  private final CacheInvalidationPublisher publisher;
+  private final List<Consumer<CacheInvalidationMessage>> invalidationListeners =
+      new CopyOnWriteArrayList<>();
+
+  public TwoTierCacheManager(
+      String caffeineSpec, CacheManager sharedCacheManager, CacheInvalidationPublisher publisher) {
+    this.caffeineSpec = caffeineSpec;
+    this.sharedCacheManager = sharedCacheManager;
+    this.publisher = publisher;
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    return caches.computeIfAbsent(name, this::createCache);
+  }
+
+  /**
+   * Creates the given caches up front. Caches are otherwise created on first use, too late for the
+   * cache metrics bound at startup.
+   */
+  public void setCacheNames(Collection<String> cacheNames) {
+    cacheNames.forEach(this::getCache);
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return Collections.unmodifiableSet(caches.keySet());
+  }
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  /**
+   * Registers a callback for invalidations received from other nodes, for in-memory structures
+   * derived from a cache (e.g. filters) that must follow the same updates.
+   */
+  public void addInvalidationListener(Consumer<CacheInvalidationMessage> listener) {
+    invalidationListeners.add(listener);
+  }
+
+  /** Applies an invalidation received from the cluster, ignoring the ones we sent ourselves. */
+  public void onInvalidation(CacheInvalidationMessage message) {
+    if (nodeId.equals(message.nodeId())) {
+      return;
+    }
+    TwoTierCache cache = caches.get(message.cacheName());
+    if (cache != null) {
+      log.debug(
+          "Evicting L1 '{}' key {} from node {}",
+          message.cacheName(),
+          message.key(),
+          message.nodeId());
+      cache.evictLocal(message.key());
+    }
+    invalidationListeners.forEach(listener -> listener.accept(message));
+  }
+
+  private TwoTierCache createCache(String name) {
+    Cache shared = sharedCacheManager.getCache(name);
+    if (shared == null) {
+      throw new IllegalStateException("No L2 cache available for '" + name + "'");
+    }
+    CaffeineCache local = new CaffeineCache(name, Caffeine.from(caffeineSpec).buildAsync(), true);
+    return new TwoTierCache(local, shared, nodeId, publisher);
+  }
+}
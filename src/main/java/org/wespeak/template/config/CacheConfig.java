@@ -0,0 +1,105 @@
+package org.wespeak.template.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.cache.metrics.CacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.wespeak.template.cache.RedisCacheInvalidationBus;
+import org.wespeak.template.cache.TwoTierCache;
+import org.wespeak.template.cache.TwoTierCacheManager;
+import tools.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+
+/**
+ * Two-tier cache: Caffeine near-cache (L1, {@code spring.cache.caffeine.spec}) in front of Redis
+ * (L2). Evictions are broadcast over Redis pub/sub so every node drops its stale L1 entry. Enabled
+ * with {@code app.cache.mode=two-tier}; otherwise Spring Boot's local Caffeine cache is used.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.mode", havingValue = "two-tier")
+public class CacheConfig {
+
+  @Value("${spring.cache.caffeine.spec}")
+  private String caffeineSpec;
+
+  @Value("${spring.cache.cache-names:}")
+  private List<String> cacheNames;
+
+  @Value("${app.cache.redis.ttl:30m}")
+  private Duration redisTtl;
+
+  @Value("${app.cache.invalidation-channel}")
+  private String invalidationChannel;
+
+  @Bean
+  public RedisCacheInvalidationBus cacheInvalidationBus(
+      StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+    return new RedisCacheInvalidationBus(redisTemplate, objectMapper, invalidationChannel);
+  }
+
+  @Bean
+  public CacheManager cacheManager(
+      RedisConnectionFactory connectionFactory, RedisCacheInvalidationBus invalidationBus) {
+    RedisCacheManager redisCacheManager =
+        RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(
+                RedisCacheConfiguration.defaultCacheConfig()
+                    .entryTtl(redisTtl)
+                    .disableCachingNullValues()
+                    .serializeValuesWith(SerializationPair.fromSerializer(redisValueSerializer())))
+            .build();
+    redisCacheManager.afterPropertiesSet();
+
+    TwoTierCacheManager cacheManager =
+        new TwoTierCacheManager(caffeineSpec, redisCacheManager, invalidationBus);
+    cacheManager.setCacheNames(cacheNames);
+    invalidationBus.setCacheManager(cacheManager);
+    return cacheManager;
+  }
+
+  /**
+   * Binds the Caffeine statistics of each L1 ({@code recordStats} in the spec) as {@code cache.*}
+   * metrics, as Spring Boot does for its own Caffeine cache manager.
+   */
+  @Bean
+  public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+    return (cache, tags) ->
+        new CaffeineCacheMetrics<>(cache.getLocalCache().getNativeCache(), cache.getName(), tags);
+  }
+
+  /**
+   * JSON values of the L2 entries, typed with their class name ({@code @class}) so that they read
+   * back as cached; only application and JDK classes are accepted on read.
+   */
+  static GenericJacksonJsonRedisSerializer redisValueSerializer() {
+    return GenericJacksonJsonRedisSerializer.builder()
+        .enableDefaultTyping(
+            BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("org.wespeak.template.")
+                .allowIfSubType("java.")
+                .build())
+        .build();
+  }
+
+  @Bean
+  public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+      RedisConnectionFactory connectionFactory, RedisCacheInvalidationBus invalidationBus) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(invalidationBus, new ChannelTopic(invalidationChannel));
+    return container;
+  }
+}
@@ -0,0 +1,42 @@
+package org.wespeak.template.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.wespeak.template.limiter.AdaptiveConcurrencyLimiter;
+import org.wespeak.template.limiter.ConcurrencyLimitInterceptor;
+import org.wespeak.template.limiter.ConcurrencyLimitProperties;
+
+/**
+ * Adaptive concurrency limit in front of {@code /api/examples/**} ({@code app.limiter.*}). Health,
+ * info and actuator endpoints are not limited, so probes keep answering under overload. Servlet
+ * stack only.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(
+    prefix = "app.limiter",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+  private final ConcurrencyLimitInterceptor interceptor;
+
+  public ConcurrencyLimitConfig(
+      ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+    this.interceptor =
+        new ConcurrencyLimitInterceptor(
+            new AdaptiveConcurrencyLimiter(properties), properties.retryAfter(), meterRegistry);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(interceptor).addPathPatterns("/api/examples", "/api/examples/**");
+  }
+}
@@ -0,0 +1,76 @@
+package org.wespeak.template.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.wespeak.template.security.CachingJwtDecoder;
+
+/** JWT decoding shared by the servlet ({@link SecurityConfig}) and reactive security chains. */
+@Configuration
+public class JwtDecoderConfig {
+
+  @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+  private String jwkSetUri;
+
+  @Value("${app.security.jwk-set.cache-ttl:15m}")
+  private Duration jwkSetCacheTtl;
+
+  @Value("${app.security.jwk-set.refresh-ahead:1m}")
+  private Duration jwkSetRefreshAhead;
+
+  @Value("${app.security.jwk-set.refresh-timeout:15s}")
+  private Duration jwkSetRefreshTimeout;
+
+  @Value("${app.security.jwk-set.rate-limit:30s}")
+  private Duration jwkSetRateLimit;
+
+  @Value("${app.security.jwt-cache.enabled:true}")
+  private boolean jwtCacheEnabled;
+
+  @Value("${app.security.jwt-cache.maximum-size:10000}")
+  private long jwtCacheMaximumSize;
+
+  @Value("${app.security.jwt-cache.ttl:5m}")
+  private Duration jwtCacheTtl;
+
+  /**
+   * JWK set cached for {@code app.security.jwk-set.cache-ttl} and refreshed in the background
+   * {@code app.security.jwk-set.refresh-ahead} plus {@code refresh-timeout} before it expires, so
+   * key rotation is picked up without a request thread waiting on Keycloak. Keycloak is asked at
+   * most once per {@code rate-limit}, which must stay below the TTL.
+   */
+  @Bean
+  public JWKSource<SecurityContext> jwkSource() throws MalformedURLException {
+    return JWKSourceBuilder.create(URI.create(jwkSetUri).toURL())
+        .cache(jwkSetCacheTtl.toMillis(), jwkSetRefreshTimeout.toMillis())
+        .refreshAheadCache(jwkSetRefreshAhead.toMillis(), true)
+        .rateLimited(jwkSetRateLimit.toMillis())
+        .build();
+  }
+
+  @Bean
+  public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, MeterRegistry meterRegistry) {
+    DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+    jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+    // Claims are validated by Spring Security's validators (exp/nbf), as in the default builder
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+    NimbusJwtDecoder nimbusDecoder = new NimbusJwtDecoder(jwtProcessor);
+
+    if (!jwtCacheEnabled) {
+      return nimbusDecoder;
+    }
+    return new CachingJwtDecoder(nimbusDecoder, jwtCacheMaximumSize, jwtCacheTtl, meterRegistry);
+  }
+}
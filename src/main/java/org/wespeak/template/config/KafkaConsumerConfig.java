@@ -0,0 +1,99 @@
+package org.wespeak.template.config;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * Error handling for the batch-mode bindings. The binder's own retry/DLQ only works per record, so
+ * batch listeners report the failing record index ({@code BatchListenerFailedException}) and this
+ * error handler retries it, then publishes only that record to {@code <destination>.dlq}. Records
+ * before it are committed and records after it are redelivered, never the whole batch.
+ *
+ * <p>With {@code spring.threads.virtual.enabled=true}, the binder's listener containers also run
+ * their consumer loops on virtual threads.
+ */
+@Configuration
+@Slf4j
+public class KafkaConsumerConfig {
+
+  @Value("${spring.cloud.stream.kafka.binder.brokers}")
+  private String brokers;
+
+  @Value("${app.kafka.consumer.dlq-suffix:.dlq}")
+  private String dlqSuffix;
+
+  @Value("${app.kafka.consumer.max-attempts:3}")
+  private int maxAttempts;
+
+  @Value("${app.kafka.consumer.back-off-initial-interval:1000}")
+  private long backOffInitialInterval;
+
+  @Value("${app.kafka.consumer.back-off-multiplier:2.0}")
+  private double backOffMultiplier;
+
+  @Value("${app.kafka.consumer.back-off-max-interval:10000}")
+  private long backOffMaxInterval;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  /** Raw producer used to forward failed records to the DLQ unchanged. */
+  @Bean
+  public KafkaTemplate<byte[], byte[]> deadLetterKafkaTemplate() {
+    return new KafkaTemplate<>(
+        new DefaultKafkaProducerFactory<>(
+            Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)));
+  }
+
+  @Bean
+  public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>>
+      listenerContainerCustomizer(KafkaTemplate<byte[], byte[]> deadLetterKafkaTemplate) {
+    return (container, destinationName, group) -> {
+      String dlq = destinationName + dlqSuffix;
+      DeadLetterPublishingRecoverer recoverer =
+          new DeadLetterPublishingRecoverer(
+              deadLetterKafkaTemplate,
+              (record, ex) -> {
+                log.warn(
+                    "Sending record {}-{}@{} to {}: {}",
+                    record.topic(),
+                    record.partition(),
+                    record.offset(),
+                    dlq,
+                    ex.getMessage());
+                return new TopicPartition(dlq, -1);
+              });
+
+      ExponentialBackOffWithMaxRetries backOff =
+          new ExponentialBackOffWithMaxRetries(Math.max(maxAttempts - 1, 0));
+      backOff.setInitialInterval(backOffInitialInterval);
+      backOff.setMultiplier(backOffMultiplier);
+      backOff.setMaxInterval(backOffMaxInterval);
+
+      container.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+
+      if (virtualThreads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(destinationName + "-");
+        executor.setVirtualThreads(true);
+        container.getContainerProperties().setListenerTaskExecutor(executor);
+      }
+    };
+  }
+}
@@ -0,0 +1,47 @@
+package org.wespeak.template.config;
+
+import java.util.List;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Defers the creation of non-critical beans, e.g. springdoc and {@link OpenApiConfig}, to their
+ * first use instead of the startup path. Beans are matched on the class name of the bean, or of the
+ * configuration declaring it, against the prefixes of {@code app.startup.lazy-beans} (empty by
+ * default, set in the {@code prod} profile).
+ *
+ * <p>Unlike {@code spring.main.lazy-initialization}, the Mongo, Redis, Kafka and security beans
+ * keep failing fast at startup, and the first request does not pay for them.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyBeansConfig {
+
+  @Bean
+  static BeanFactoryPostProcessor lazyBeansPostProcessor(Environment environment) {
+    List<String> prefixes =
+        Binder.get(environment)
+            .bind("app.startup.lazy-beans", Bindable.listOf(String.class))
+            .orElse(List.of());
+    return beanFactory -> {
+      if (prefixes.isEmpty()) {
+        return;
+      }
+      for (String name : beanFactory.getBeanDefinitionNames()) {
+        BeanDefinition definition = beanFactory.getBeanDefinition(name);
+        String type = definition.getBeanClassName();
+        String factory = definition.getFactoryBeanName();
+        if (type == null && factory != null && beanFactory.containsBeanDefinition(factory)) {
+          type = beanFactory.getBeanDefinition(factory).getBeanClassName();
+        }
+        if (type != null && prefixes.stream().anyMatch(type::startsWith)) {
+          definition.setLazyInit(true);
+        }
+      }
+    };
+  }
+}
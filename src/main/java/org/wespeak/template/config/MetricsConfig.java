@@ -0,0 +1,78 @@
+package org.wespeak.template.config;
+
+import com.mongodb.event.CommandEvent;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics tuning on top of Spring Boot's defaults. Histograms and global SLO buckets are set with
+ * {@code management.metrics.distribution.*}; this adds per-endpoint SLO buckets and keeps the Mongo
+ * command tags low-cardinality.
+ */
+@Configuration
+@EnableConfigurationProperties(MetricsConfig.HttpMetricsProperties.class)
+public class MetricsConfig {
+
+  private static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+  private static final Set<String> MONGO_COMMAND_TAGS = Set.of("command", "collection", "status");
+
+  /**
+   * @param slo SLO buckets of {@code http.server.requests} by {@code uri} template, e.g. {@code
+   *     app.metrics.http.slo[/api/examples/{id}]=5ms,25ms,100ms}
+   */
+  @ConfigurationProperties("app.metrics.http")
+  public record HttpMetricsProperties(Map<String, List<Duration>> slo) {}
+
+  /**
+   * Overrides the SLO buckets of the endpoints listed in {@code app.metrics.http.slo}. Registered
+   * after Spring Boot's properties filter, so it wins over the global buckets.
+   */
+  @Bean
+  public MeterFilter endpointSloMeterFilter(HttpMetricsProperties properties) {
+    Map<String, List<Duration>> slo = properties.slo() != null ? properties.slo() : Map.of();
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(
+          Meter.Id id, DistributionStatisticConfig config) {
+        List<Duration> buckets =
+            HTTP_SERVER_REQUESTS.equals(id.getName()) ? slo.get(id.getTag("uri")) : null;
+        if (buckets == null) {
+          return config;
+        }
+        return DistributionStatisticConfig.builder()
+            .serviceLevelObjectives(buckets.stream().mapToDouble(Duration::toNanos).toArray())
+            .build()
+            .merge(config);
+      }
+    };
+  }
+
+  /**
+   * Tags {@code mongodb.driver.commands} (Spring Boot's Mongo {@code CommandListener}) with the
+   * command, collection and status only, dropping the per-server and per-cluster tags.
+   */
+  @Bean
+  public MongoCommandTagsProvider mongoCommandTagsProvider() {
+    return new DefaultMongoCommandTagsProvider() {
+      @Override
+      public Iterable<Tag> commandTags(CommandEvent event) {
+        return Tags.of(super.commandTags(event)).stream()
+            .filter(tag -> MONGO_COMMAND_TAGS.contains(tag.getKey()))
+            .toList();
+      }
+    };
+  }
+}
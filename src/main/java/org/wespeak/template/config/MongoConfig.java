@@ -0,0 +1,13 @@
+package org.wespeak.template.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * Auditing ({@code createdAt}, {@code updatedAt}) of the Mongo entities. Kept off {@code
+ * TemplateApplication} so that test slices without Mongo, e.g. {@code @WebFluxTest}, do not need a
+ * mapping context.
+ */
+@Configuration
+@EnableMongoAuditing
+public class MongoConfig {}
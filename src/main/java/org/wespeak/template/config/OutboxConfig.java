@@ -0,0 +1,92 @@
+package org.wespeak.template.config;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Transactional outbox: Mongo transactions so an entity change and its outbox entry commit together
+ * (requires a replica set), and the producer used by the OutboxRelay. The producer is idempotent
+ * and batches/compresses records, since the relay sends hundreds of events at once.
+ *
+ * <p>On a standalone mongod every transactional write fails; with {@code
+ * app.outbox.require-replica-set} (default) the application refuses to start instead.
+ */
+@Configuration
+@Slf4j
+public class OutboxConfig {
+
+  @Value("${spring.cloud.stream.kafka.binder.brokers}")
+  private String brokers;
+
+  @Value("${app.outbox.producer.compression-type:lz4}")
+  private String compressionType;
+
+  @Value("${app.outbox.producer.linger-ms:20}")
+  private int lingerMs;
+
+  @Value("${app.outbox.producer.batch-size:131072}")
+  private int batchSize;
+
+  @Bean
+  public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+    return new MongoTransactionManager(databaseFactory);
+  }
+
+  /** Checks once started, so that builds exiting on refresh (AOT, AppCDS) need no Mongo. */
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.outbox.require-replica-set",
+      havingValue = "true",
+      matchIfMissing = true)
+  public ApplicationListener<ApplicationReadyEvent> replicaSetCheck(MongoTemplate mongoTemplate) {
+    return event -> {
+      Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+      if (hello.get("setName") == null && !"isdbgrid".equals(hello.get("msg"))) {
+        throw new IllegalStateException(
+            "MongoDB is not a replica set, so outbox transactions would fail: start mongod with"
+                + " --replSet (see docker/docker-compose.yml)");
+      }
+      log.info("MongoDB replica set: {}", hello.get("setName", "sharded cluster"));
+    };
+  }
+
+  @Bean
+  public KafkaTemplate<String, byte[]> outboxKafkaTemplate() {
+    return new KafkaTemplate<>(
+        new DefaultKafkaProducerFactory<>(
+            Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+                brokers,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
+                StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                ByteArraySerializer.class,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG,
+                true,
+                ProducerConfig.ACKS_CONFIG,
+                "all",
+                ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                compressionType,
+                ProducerConfig.LINGER_MS_CONFIG,
+                lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG,
+                batchSize,
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+                5)));
+  }
+}
@@ -0,0 +1,30 @@
+package org.wespeak.template.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Reactive Mongo access of the {@code reactive} profile: auditing ({@code createdAt}, {@code
+ * updatedAt}) for the reactive repositories, and transactions for the outbox.
+ */
+@Configuration
+@Profile("reactive")
+@EnableReactiveMongoAuditing
+public class ReactiveMongoConfig {
+
+  /**
+   * The reactive transaction manager is kept out of the context: next to the {@code
+   * MongoTransactionManager} of {@link OutboxConfig}, {@code @Transactional} could no longer pick a
+   * default one.
+   */
+  @Bean
+  public TransactionalOperator reactiveTransactionalOperator(
+      ReactiveMongoDatabaseFactory databaseFactory) {
+    return TransactionalOperator.create(new ReactiveMongoTransactionManager(databaseFactory));
+  }
+}
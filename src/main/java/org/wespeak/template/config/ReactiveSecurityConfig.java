@@ -0,0 +1,71 @@
+package org.wespeak.template.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/** Security chain of the {@code reactive} profile, same rules as {@link SecurityConfig}. */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+  @Value("${app.cors.allowed-origins}")
+  private String[] allowedOrigins;
+
+  @Bean
+  public SecurityWebFilterChain securityWebFilterChain(
+      ServerHttpSecurity http, ReactiveJwtDecoder reactiveJwtDecoder) {
+    return http.cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource()))
+        .csrf(ServerHttpSecurity.CsrfSpec::disable)
+        .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+        .authorizeExchange(
+            exchanges ->
+                exchanges
+                    // Public endpoints
+                    .pathMatchers("/actuator/health", "/actuator/health/**")
+                    .permitAll()
+                    .pathMatchers("/actuator/info")
+                    .permitAll()
+                    .pathMatchers("/swagger-ui/**", "/swagger-ui.html")
+                    .permitAll()
+                    .pathMatchers("/v3/api-docs/**")
+                    .permitAll()
+                    // Protected endpoints
+                    .anyExchange()
+                    .authenticated())
+        .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtDecoder(reactiveJwtDecoder)))
+        .build();
+  }
+
+  /**
+   * Adapts the shared {@link JwtDecoder}, so both stacks keep the JWK set refresh-ahead and the
+   * decoded token cache. Decoding runs on the bounded elastic scheduler: a cache miss verifies a
+   * signature and, on a cold JWK set, waits on Keycloak, which must not happen on the event loop.
+   */
+  @Bean
+  public ReactiveJwtDecoder reactiveJwtDecoder(JwtDecoder jwtDecoder) {
+    return token ->
+        Mono.fromCallable(() -> jwtDecoder.decode(token)).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  @Bean
+  public CorsConfigurationSource reactiveCorsConfigurationSource() {
+    UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+    source.registerCorsConfiguration("/**", SecurityConfig.corsConfiguration(allowedOrigins));
+    return source;
+  }
+}
@@ -1,45 +1,164 @@
 package org.wespeak.template.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.wespeak.template.BulkCreateResponse;
 import org.wespeak.template.CreateExampleRequest;
+import org.wespeak.template.ExamplePageResponse;
 import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.ExampleSearchResponse;
+import org.wespeak.template.cache.EncodedResponseCache;
+import org.wespeak.template.cache.EncodedResponseCache.Format;
+import org.wespeak.template.limiter.Priority;
+import org.wespeak.template.limiter.RequestPriority;
+import org.wespeak.template.service.CollectionVersionService.CollectionVersion;
 import org.wespeak.template.service.ExampleService;
 
+/** Servlet Example API; {@link ReactiveExampleController} serves the same routes when reactive. */
 @RestController
 @RequestMapping("/api/examples")
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Tag(name = "Examples", description = "Example resource management (Replace with your domain)")
 public class ExampleController {
 
+  public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+  private static final String FIELDS_DESCRIPTION =
+      "Comma-separated fields to return besides the id, e.g. code,name (default: all)";
+
   private final ExampleService service;
+  private final ObjectMapper objectMapper;
+  private final EncodedResponseCache encodedResponses;
 
-  @GetMapping
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
   @PreAuthorize("hasRole('USER')")
-  @Operation(summary = "Get all examples", description = "Retrieve list of all examples")
-  @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
-  public ResponseEntity<List<ExampleResponse>> findAll() {
-    return ResponseEntity.ok(service.findAll());
+  @RequestPriority(Priority.SHEDDABLE)
+  @Operation(
+      summary = "Get all examples",
+      description =
+          "Stream all examples directly from a database cursor, as a JSON array or as NDJSON"
+              + " (Accept: application/x-ndjson)")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Successfully retrieved list",
+      content =
+          @Content(array = @ArraySchema(schema = @Schema(implementation = ExampleResponse.class))))
+  @ApiResponse(responseCode = "304", description = "List unchanged since the given ETag or date")
+  @ApiResponse(responseCode = "400", description = "Unknown field")
+  public ResponseEntity<StreamingResponseBody> findAll(
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @Parameter(description = "Only the active (true) or inactive (false) examples")
+          @RequestParam(required = false)
+          Boolean active,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+      WebRequest request) {
+    Set<String> selected = ExampleService.parseFields(fields);
+    boolean ndjson = accept != null && accept.contains(APPLICATION_NDJSON_VALUE);
+    if (isCollectionNotModified(request, ndjson ? "-ndjson" : "")) {
+      return null;
+    }
+    StreamingResponseBody body =
+        out -> {
+          try (Stream<ExampleResponse> examples = service.streamAll(active, selected)) {
+            if (ndjson) {
+              writeNdjson(examples, out);
+            } else {
+              writeJsonArray(examples, out);
+            }
+          }
+        };
+    MediaType contentType =
+        ndjson ? MediaType.parseMediaType(APPLICATION_NDJSON_VALUE) : MediaType.APPLICATION_JSON;
+    return ResponseEntity.ok().contentType(contentType).varyBy(HttpHeaders.ACCEPT).body(body);
+  }
+
+  @GetMapping("/page")
+  @PreAuthorize("hasRole('USER')")
+  @Operation(
+      summary = "Get a page of examples",
+      description = "Keyset pagination ordered by id; pass nextCursor to fetch the following page")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+    @ApiResponse(responseCode = "304", description = "List unchanged since the given ETag or date"),
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or unknown field")
+  })
+  public ResponseEntity<ExamplePageResponse> findPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + ExampleService.DEFAULT_PAGE_SIZE) int size,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+      WebRequest request) {
+    Set<String> selected = ExampleService.parseFields(fields);
+    if (isCollectionNotModified(request, "")) {
+      return null;
+    }
+    return ResponseEntity.ok(service.findPage(cursor, size, selected));
+  }
+
+  @GetMapping("/search")
+  @PreAuthorize("hasRole('USER')")
+  @Operation(
+      summary = "Search examples",
+      description =
+          "Type-ahead search over code, name and description, best match first. Every term must"
+              + " match; the last one also matches as a prefix unless followed by a space")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Successfully searched"),
+    @ApiResponse(responseCode = "400", description = "Blank query or page too far"),
+    @ApiResponse(responseCode = "503", description = "Search index still loading")
+  })
+  public ExampleSearchResponse search(
+      @Parameter(description = "Search terms", example = "exam") @RequestParam String q,
+      @RequestParam(defaultValue = "0") int offset,
+      @RequestParam(defaultValue = "" + ExampleService.DEFAULT_SEARCH_LIMIT) int limit) {
+    return service.search(q, offset, limit);
   }
 
   @GetMapping("/{id}")
   @PreAuthorize("hasRole('USER')")
   @Operation(summary = "Get example by ID", description = "Retrieve a specific example by its ID")
   @ApiResponses({
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+    @ApiResponse(
+        responseCode = "200",
+        description = "Successfully retrieved, as JSON, CBOR or Smile",
+        content = @Content(schema = @Schema(implementation = ExampleResponse.class))),
+    @ApiResponse(responseCode = "304", description = "Example unchanged since the given ETag"),
+    @ApiResponse(responseCode = "400", description = "Unknown field"),
     @ApiResponse(responseCode = "404", description = "Example not found")
   })
-  public ResponseEntity<ExampleResponse> getById(@PathVariable String id) {
-    return ResponseEntity.ok(service.getById(id));
+  public ResponseEntity<?> getById(
+      @PathVariable String id,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+      @RequestHeader HttpHeaders headers) {
+    Set<String> selected = ExampleService.parseFields(fields);
+    return encoded(service.getById(id, selected), selected, headers);
   }
 
   @GetMapping("/code/{code}")
@@ -48,11 +167,20 @@ public class ExampleController {
       summary = "Get example by code",
       description = "Retrieve a specific example by its unique code")
   @ApiResponses({
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+    @ApiResponse(
+        responseCode = "200",
+        description = "Successfully retrieved, as JSON, CBOR or Smile",
+        content = @Content(schema = @Schema(implementation = ExampleResponse.class))),
+    @ApiResponse(responseCode = "304", description = "Example unchanged since the given ETag"),
+    @ApiResponse(responseCode = "400", description = "Unknown field"),
     @ApiResponse(responseCode = "404", description = "Example not found")
   })
-  public ResponseEntity<ExampleResponse> getByCode(@PathVariable String code) {
-    return ResponseEntity.ok(service.getByCode(code));
+  public ResponseEntity<?> getByCode(
+      @PathVariable String code,
+      @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+      @RequestHeader HttpHeaders headers) {
+    Set<String> selected = ExampleService.parseFields(fields);
+    return encoded(service.getByCode(code, selected), selected, headers);
   }
 
   @PostMapping
@@ -68,8 +196,26 @@ public class ExampleController {
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
+  @PostMapping("/_bulk")
+  @PreAuthorize("hasRole('USER')")
+  @RequestPriority(Priority.SHEDDABLE)
+  @Operation(
+      summary = "Create examples in bulk",
+      description =
+          "Create a batch of examples in one database round trip; each item is reported as"
+              + " CREATED, CONFLICT (code already exists), INVALID or FAILED")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+    @ApiResponse(responseCode = "400", description = "Batch too large")
+  })
+  public ResponseEntity<BulkCreateResponse> createBulk(
+      @RequestBody List<CreateExampleRequest> requests) {
+    return ResponseEntity.ok(service.createBulk(requests));
+  }
+
   @DeleteMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
+  @RequestPriority(Priority.CRITICAL)
   @Operation(
       summary = "Delete example",
       description = "Delete an example by ID (requires ADMIN role)")
@@ -82,4 +228,95 @@ public class ExampleController {
     service.delete(id);
     return ResponseEntity.noContent().build();
   }
+
+  /**
+   * Writes a complete example as the bytes cached by {@link EncodedResponseCache}, in the format
+   * negotiated from {@code Accept} and gzipped when {@code Accept-Encoding} allows it. Partial
+   * examples ({@code fields}) are built per request and go through the message converters.
+   */
+  private ResponseEntity<?> encoded(
+      ExampleResponse example, Set<String> selected, HttpHeaders requestHeaders) {
+    if (selected != null) {
+      return withValidators(example);
+    }
+    Format format = EncodedResponseCache.negotiate(requestHeaders.getAccept()).orElse(null);
+    if (format == null) {
+      // Let the message converters negotiate, and reject, as for any other endpoint
+      return withValidators(example);
+    }
+    String acceptEncoding = requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING);
+    boolean acceptsGzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+    EncodedResponseCache.Encoded encoded = encodedResponses.encode(example, format, acceptsGzip);
+    String variant =
+        "-" + format.name().toLowerCase(Locale.ROOT) + (encoded.gzipped() ? "-gzip" : "");
+    ResponseEntity.BodyBuilder builder =
+        validators(example, variant)
+            .contentType(encoded.contentType())
+            .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    if (encoded.gzipped()) {
+      builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return builder.body(encoded.body());
+  }
+
+  /**
+   * Strong ETag from the id and {@code updatedAt}, both part of the (usually cached) response, so
+   * the check needs no database read. Spring MVC answers a matching {@code If-None-Match} or {@code
+   * If-Modified-Since} with a 304 before serializing the body.
+   */
+  static ResponseEntity<ExampleResponse> withValidators(ExampleResponse example) {
+    return validators(example, "").body(example);
+  }
+
+  /**
+   * @param variant distinguishes the pre-encoded representations of the example (format, gzip),
+   *     which a strong ETag must not share
+   */
+  private static ResponseEntity.BodyBuilder validators(ExampleResponse example, String variant) {
+    if (example.getUpdatedAt() == null) {
+      return ResponseEntity.ok();
+    }
+    String version = Long.toHexString(example.getUpdatedAt().toEpochMilli());
+    return ResponseEntity.ok()
+        .eTag(example.getId() + "-" + version + variant)
+        .lastModified(example.getUpdatedAt());
+  }
+
+  /**
+   * Checks the request validators against the collection version, before running the query. Sets
+   * the ETag and Last-Modified headers, and the 304 status when they match; none of them while the
+   * version is unknown.
+   *
+   * @param variant distinguishes representations of the same URL (JSON array vs NDJSON)
+   */
+  private boolean isCollectionNotModified(WebRequest request, String variant) {
+    CollectionVersion version = service.collectionVersion();
+    if (!version.known()) {
+      return false;
+    }
+    long lastModified = version.updatedAt() != null ? version.updatedAt().toEpochMilli() : -1;
+    return request.checkNotModified("examples-" + version.version() + variant, lastModified);
+  }
+
+  private void writeJsonArray(Stream<ExampleResponse> examples, OutputStream out)
+      throws IOException {
+    try (SequenceWriter writer = streamWriter().writeValuesAsArray(out)) {
+      writer.writeAll((Iterable<ExampleResponse>) examples::iterator);
+    }
+  }
+
+  private void writeNdjson(Stream<ExampleResponse> examples, OutputStream out) throws IOException {
+    try (SequenceWriter writer = streamWriter().withRootValueSeparator("\n").writeValues(out)) {
+      writer.writeAll((Iterable<ExampleResponse>) examples::iterator);
+    }
+    out.write('\n');
+  }
+
+  /** Writer that leaves the response stream open and lets the container decide when to flush. */
+  private ObjectWriter streamWriter() {
+    return objectMapper
+        .writerFor(ExampleResponse.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
 }
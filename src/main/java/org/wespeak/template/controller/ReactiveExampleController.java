@@ -0,0 +1,123 @@
+package org.wespeak.template.controller;
+
+import static org.wespeak.template.controller.ExampleController.APPLICATION_NDJSON_VALUE;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.wespeak.template.BulkCreateResponse;
+import org.wespeak.template.CreateExampleRequest;
+import org.wespeak.template.ExamplePageResponse;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.service.CollectionVersionService.CollectionVersion;
+import org.wespeak.template.service.ExampleService;
+import org.wespeak.template.service.ReactiveExampleService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux Example API of the {@code reactive} profile: same routes, parameters, validation, roles
+ * and conditional GETs as {@link ExampleController}, which documents them in OpenAPI.
+ *
+ * <p>Lists return their body as a publisher inside the {@link ResponseEntity}: WebFlux checks the
+ * ETag first and only subscribes, i.e. queries Mongo, when the client's copy is stale.
+ */
+@RestController
+@RequestMapping("/api/examples")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveExampleController {
+
+  private final ReactiveExampleService service;
+
+  /** JSON array, or NDJSON with {@code Accept: application/x-ndjson}, encoded as Mongo emits. */
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+  @PreAuthorize("hasRole('USER')")
+  public Mono<ResponseEntity<Flux<ExampleResponse>>> findAll(
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestParam(required = false) String fields) {
+    Set<String> selected = ExampleService.parseFields(fields);
+    boolean ndjson = accept != null && accept.contains(APPLICATION_NDJSON_VALUE);
+    return service
+        .collectionVersion()
+        .map(
+            version ->
+                withCollectionValidators(version, ndjson ? "-ndjson" : "")
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(service.findAll(selected)));
+  }
+
+  @GetMapping("/page")
+  @PreAuthorize("hasRole('USER')")
+  public Mono<ResponseEntity<Mono<ExamplePageResponse>>> findPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + ExampleService.DEFAULT_PAGE_SIZE) int size,
+      @RequestParam(required = false) String fields) {
+    Set<String> selected = ExampleService.parseFields(fields);
+    return service
+        .collectionVersion()
+        .map(
+            version ->
+                withCollectionValidators(version, "")
+                    .body(service.findPage(cursor, size, selected)));
+  }
+
+  @GetMapping("/{id}")
+  @PreAuthorize("hasRole('USER')")
+  public Mono<ResponseEntity<ExampleResponse>> getById(
+      @PathVariable String id, @RequestParam(required = false) String fields) {
+    return service
+        .getById(id, ExampleService.parseFields(fields))
+        .map(ExampleController::withValidators);
+  }
+
+  @GetMapping("/code/{code}")
+  @PreAuthorize("hasRole('USER')")
+  public Mono<ResponseEntity<ExampleResponse>> getByCode(
+      @PathVariable String code, @RequestParam(required = false) String fields) {
+    return service
+        .getByCode(code, ExampleService.parseFields(fields))
+        .map(ExampleController::withValidators);
+  }
+
+  @PostMapping
+  @PreAuthorize("hasRole('USER')")
+  public Mono<ResponseEntity<ExampleResponse>> create(
+      @Valid @RequestBody CreateExampleRequest request) {
+    return service
+        .create(request)
+        .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+  }
+
+  @PostMapping("/_bulk")
+  @PreAuthorize("hasRole('USER')")
+  public Mono<ResponseEntity<BulkCreateResponse>> createBulk(
+      @RequestBody List<CreateExampleRequest> requests) {
+    return service.createBulk(requests).map(ResponseEntity::ok);
+  }
+
+  @DeleteMapping("/{id}")
+  @PreAuthorize("hasRole('ADMIN')")
+  public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+    return service.delete(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+  }
+
+  /** ETag and Last-Modified from the collection version, as in {@link ExampleController}. */
+  private static ResponseEntity.BodyBuilder withCollectionValidators(
+      CollectionVersion version, String variant) {
+    if (!version.known()) {
+      return ResponseEntity.ok();
+    }
+    ResponseEntity.BodyBuilder builder =
+        ResponseEntity.ok().eTag("examples-" + version.version() + variant);
+    return version.updatedAt() != null ? builder.lastModified(version.updatedAt()) : builder;
+  }
+}
@@ -0,0 +1,24 @@
+package org.wespeak.template.exception;
+
+/**
+ * Thrown when one record of a batch cannot be processed. Records before {@link #getFailedIndex()}
+ * have been processed; the failed record and the ones after it have not.
+ */
+public class BatchProcessingException extends RuntimeException {
+
+  private final int failedIndex;
+
+  public BatchProcessingException(int failedIndex, String message) {
+    super(message);
+    this.failedIndex = failedIndex;
+  }
+
+  public BatchProcessingException(int failedIndex, String message, Throwable cause) {
+    super(message, cause);
+    this.failedIndex = failedIndex;
+  }
+
+  public int getFailedIndex() {
+    return failedIndex;
+  }
+}
@@ -0,0 +1,119 @@
+package org.wespeak.template.exception;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Error responses of the {@code reactive} profile, with the same shapes, statuses and log levels as
+ * {@link GlobalExceptionHandler}. WebFlux reports validation errors as {@link
+ * WebExchangeBindException} and its own request errors (unreadable body, unsupported media type) as
+ * {@link ResponseStatusException}, which keep their status.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+@Slf4j
+public class ReactiveExceptionHandler {
+
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity<ErrorResponse> handleValidationExceptions(
+      WebExchangeBindException ex, ServerWebExchange exchange) {
+    Map<String, String> errors = new HashMap<>();
+    ex.getBindingResult()
+        .getAllErrors()
+        .forEach(
+            error -> {
+              String fieldName = ((FieldError) error).getField();
+              String errorMessage = error.getDefaultMessage();
+              errors.put(fieldName, errorMessage);
+            });
+
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(Instant.now())
+            .status(HttpStatus.BAD_REQUEST.value())
+            .error("Validation Failed")
+            .message("Invalid request parameters")
+            .path(path(exchange))
+            .validationErrors(errors)
+            .build();
+
+    log.warn("Validation error: {}", errors);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+  }
+
+  @ExceptionHandler(ResourceNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
+      ResourceNotFoundException ex, ServerWebExchange exchange) {
+    log.debug("Resource not found: {}", ex.getMessage());
+    return error(HttpStatus.NOT_FOUND, "Resource Not Found", ex.getMessage(), exchange);
+  }
+
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<ErrorResponse> handleBadRequestException(
+      BadRequestException ex, ServerWebExchange exchange) {
+    log.warn("Bad request: {}", ex.getMessage());
+    return error(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), exchange);
+  }
+
+  @ExceptionHandler(AccessDeniedException.class)
+  public ResponseEntity<ErrorResponse> handleAccessDeniedException(
+      AccessDeniedException ex, ServerWebExchange exchange) {
+    log.warn("Access denied: {}", ex.getMessage());
+    return error(
+        HttpStatus.FORBIDDEN,
+        "Access Denied",
+        "You don't have permission to access this resource",
+        exchange);
+  }
+
+  @ExceptionHandler(ResponseStatusException.class)
+  public ResponseEntity<ErrorResponse> handleResponseStatusException(
+      ResponseStatusException ex, ServerWebExchange exchange) {
+    HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+    if (status == null) {
+      status = HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+    log.warn("Request failed with {}: {}", status.value(), ex.getReason());
+    return error(status, status.getReasonPhrase(), ex.getReason(), exchange);
+  }
+
+  @ExceptionHandler(Exception.class)
+  public ResponseEntity<ErrorResponse> handleGlobalException(
+      Exception ex, ServerWebExchange exchange) {
+    log.error("Unexpected error", ex);
+    return error(
+        HttpStatus.INTERNAL_SERVER_ERROR,
+        "Internal Server Error",
+        "An unexpected error occurred",
+        exchange);
+  }
+
+  private static ResponseEntity<ErrorResponse> error(
+      HttpStatus status, String error, String message, ServerWebExchange exchange) {
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(Instant.now())
+            .status(status.value())
+            .error(error)
+            .message(message)
+            .path(path(exchange))
+            .build();
+    return ResponseEntity.status(status).body(errorResponse);
+  }
+
+  private static String path(ServerWebExchange exchange) {
+    return exchange.getRequest().getPath().value();
+  }
+}
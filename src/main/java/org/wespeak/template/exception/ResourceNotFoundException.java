@@ -1,11 +1,15 @@
 package org.wespeak.template.exception;
 
+/**
+ * Thrown for a lookup that matched nothing. It is an expected outcome mapped to a 404, so no stack
+ * trace is captured.
+ */
 public class ResourceNotFoundException extends RuntimeException {
   public ResourceNotFoundException(String message) {
-    super(message);
+    super(message, null, false, false);
   }
 
   public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-    super(String.format("%s not found with %s: '%s'", resourceName, fieldName, fieldValue));
+    this(String.format("%s not found with %s: '%s'", resourceName, fieldName, fieldValue));
   }
 }
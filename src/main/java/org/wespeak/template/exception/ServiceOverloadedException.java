@@ -0,0 +1,22 @@
+package org.wespeak.template.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is rejected to protect the service under load. It is mapped to a 503 with
+ * {@code Retry-After} and may be thrown thousands of times per second, so no stack trace is
+ * captured.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+  private final Duration retryAfter;
+
+  public ServiceOverloadedException(String message, Duration retryAfter) {
+    super(message, null, false, false);
+    this.retryAfter = retryAfter;
+  }
+
+  /** Delay for {@code Retry-After}, in whole seconds, at least 1 */
+  public long getRetryAfterSeconds() {
+    return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+  }
+}
@@ -0,0 +1,187 @@
+package org.wespeak.template.limiter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts to the latency of the requests it admits, in the style of the
+ * Gradient2 algorithm: latencies are averaged over a short sample window, the no-load latency is
+ * their long-term average, and each window moves the limit by the ratio between the two.
+ *
+ * <pre>
+ * gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)
+ * limit    = (1 - smoothing) * limit + smoothing * (limit * gradient + queueSize)
+ * </pre>
+ *
+ * While latency stays within {@code tolerance} of the long-term average the limit grows by up to
+ * {@code queueSize} per window; once requests queue (Tomcat threads, Mongo pool) the gradient drops
+ * below 1 and the limit shrinks, by at most half per window. Comparing averages rather than each
+ * sample to the fastest one keeps a mix of cache hits and Mongo reads from passing for queueing. A
+ * window in which less than half of the limit was in use cannot raise it, so an idle pod does not
+ * drift to the maximum. The long-term average follows a lasting change of the backend latency over
+ * about {@code baselineWindows} windows, and drops quickly once latency returns to normal after a
+ * prolonged overload.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  // A window is closed once it holds enough samples for its average to mean something
+  private static final int MIN_WINDOW_SAMPLES = 10;
+  // Windows plainly averaged into the long-term latency before it becomes a moving average
+  private static final int WARM_UP_WINDOWS = 10;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double smoothing;
+  private final int queueSize;
+  private final double sheddableShare;
+  private final long sampleWindowNanos;
+  private final double baselineSmoothing;
+  private final LongSupplier clock;
+
+  private final AtomicInteger inflight = new AtomicInteger();
+  // Guards the estimate; a lock rather than synchronized, not to pin virtual threads
+  private final ReentrantLock lock = new ReentrantLock();
+  private double estimatedLimit;
+  private long windowStart;
+  private long windowRttSum;
+  private int windowSamples;
+  private int windowMaxInflight;
+  private int windows;
+  private double longRtt;
+  private volatile int limit;
+
+  public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier clock) {
+    this.minLimit = properties.minLimit();
+    this.maxLimit = properties.maxLimit();
+    this.tolerance = properties.tolerance();
+    this.smoothing = properties.smoothing();
+    this.queueSize = properties.queueSize();
+    this.sheddableShare = properties.sheddableShare();
+    this.sampleWindowNanos = properties.sampleWindow().toNanos();
+    this.baselineSmoothing = 2.0 / (properties.baselineWindows() + 1);
+    this.clock = clock;
+    this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.initialLimit()));
+    this.limit = (int) estimatedLimit;
+    this.windowStart = clock.getAsLong();
+  }
+
+  /**
+   * Admits a request of the given priority.
+   *
+   * @return the permit to release when the request completes, or {@code null} when rejected
+   */
+  public Permit tryAcquire(Priority priority) {
+    int current = inflight.incrementAndGet();
+    if (current > admitted(priority)) {
+      inflight.decrementAndGet();
+      return null;
+    }
+    return new Permit(clock.getAsLong(), current, priority != Priority.SHEDDABLE);
+  }
+
+  /** Current concurrency limit */
+  public int getLimit() {
+    return limit;
+  }
+
+  /** Requests admitted and not yet released */
+  public int getInflight() {
+    return inflight.get();
+  }
+
+  private int admitted(Priority priority) {
+    return switch (priority) {
+      case CRITICAL -> Integer.MAX_VALUE;
+      case NORMAL -> limit;
+      case SHEDDABLE -> Math.max(1, (int) (limit * sheddableShare));
+    };
+  }
+
+  private void onSample(long rtt, int inflightAtStart) {
+    lock.lock();
+    try {
+      windowRttSum += rtt;
+      windowSamples++;
+      windowMaxInflight = Math.max(windowMaxInflight, inflightAtStart);
+      long now = clock.getAsLong();
+      if (windowSamples < MIN_WINDOW_SAMPLES || now - windowStart < sampleWindowNanos) {
+        return;
+      }
+      double shortRtt = (double) windowRttSum / windowSamples;
+      int maxInflight = windowMaxInflight;
+      windowStart = now;
+      windowRttSum = 0;
+      windowSamples = 0;
+      windowMaxInflight = 0;
+      onWindow(shortRtt, maxInflight);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void onWindow(double shortRtt, int maxInflight) {
+    if (windows < WARM_UP_WINDOWS) {
+      windows++;
+      longRtt += (shortRtt - longRtt) / windows;
+    } else {
+      longRtt += (shortRtt - longRtt) * baselineSmoothing;
+    }
+    // Latency back to normal after a long overload: do not wait for the average to catch up
+    if (longRtt > 2 * shortRtt) {
+      longRtt *= 0.95;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+    if (gradient >= 1.0 && maxInflight * 2 < estimatedLimit) {
+      return;
+    }
+    double next = estimatedLimit * gradient + queueSize;
+    next = estimatedLimit * (1 - smoothing) + next * smoothing;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+    limit = (int) estimatedLimit;
+  }
+
+  /** An admitted request, released once. */
+  public final class Permit {
+    private final long start;
+    private final int inflightAtStart;
+    private final boolean sampled;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(long start, int inflightAtStart, boolean sampled) {
+      this.start = start;
+      this.inflightAtStart = inflightAtStart;
+      this.sampled = sampled;
+    }
+
+    /**
+     * Releases a completed request, its latency feeding the limit. {@link Priority#SHEDDABLE}
+     * requests (streams, bulk writes) take as long as their payload and are never sampled.
+     */
+    public void release() {
+      if (released.compareAndSet(false, true)) {
+        inflight.decrementAndGet();
+        if (sampled) {
+          onSample(Math.max(1, clock.getAsLong() - start), inflightAtStart);
+        }
+      }
+    }
+
+    /**
+     * Releases a request whose latency says nothing of the load (failure, error response, answer
+     * given without reaching the backend).
+     */
+    public void releaseWithoutSample() {
+      if (released.compareAndSet(false, true)) {
+        inflight.decrementAndGet();
+      }
+    }
+  }
+}
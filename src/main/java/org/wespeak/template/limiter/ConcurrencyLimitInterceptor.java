@@ -0,0 +1,103 @@
+package org.wespeak.template.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.wespeak.template.exception.ServiceOverloadedException;
+import org.wespeak.template.limiter.AdaptiveConcurrencyLimiter.Permit;
+
+/**
+ * Admits controller requests through an {@link AdaptiveConcurrencyLimiter}. A rejected request
+ * fails in {@code preHandle}, before any work, with a {@link ServiceOverloadedException} that
+ * {@code GlobalExceptionHandler} turns into a 503.
+ *
+ * <p>The permit is kept in a request attribute: an async request (streamed body) is dispatched
+ * again once its result is ready, and only that last dispatch completes it.
+ *
+ * <p>Metrics: {@code http.server.concurrency.limit}, {@code http.server.concurrency.inflight} and
+ * {@code http.server.concurrency.rejected{priority}}.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+  private static final String PERMIT_ATTRIBUTE =
+      ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final Duration retryAfter;
+  private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+  public ConcurrencyLimitInterceptor(
+      AdaptiveConcurrencyLimiter limiter, Duration retryAfter, MeterRegistry meterRegistry) {
+    this.limiter = limiter;
+    this.retryAfter = retryAfter;
+    Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+        .description("Adaptive concurrency limit of the example endpoints")
+        .register(meterRegistry);
+    Gauge.builder(
+            "http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+        .description("Example requests admitted and not yet completed")
+        .register(meterRegistry);
+    for (Priority priority : Priority.values()) {
+      rejections.put(
+          priority,
+          Counter.builder("http.server.concurrency.rejected")
+              .description("Example requests rejected with a 503 by the concurrency limit")
+              .tag("priority", priority.name().toLowerCase())
+              .register(meterRegistry));
+    }
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod method)
+        || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+      return true;
+    }
+    Priority priority = priority(method);
+    Permit permit = limiter.tryAcquire(priority);
+    if (permit == null) {
+      rejections.get(priority).increment();
+      throw new ServiceOverloadedException(
+          "Too many concurrent requests, limit is " + limiter.getLimit(), retryAfter);
+    }
+    request.setAttribute(PERMIT_ATTRIBUTE, permit);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+      request.removeAttribute(PERMIT_ATTRIBUTE);
+      if (ex == null && reachedBackend(response.getStatus())) {
+        permit.release();
+      } else {
+        permit.releaseWithoutSample();
+      }
+    }
+  }
+
+  /**
+   * Whether the latency of a response reflects the load of the backend. Errors, 304s answered from
+   * the ETag and 4xx rejected before or without a query would only drag the average down.
+   */
+  private static boolean reachedBackend(int status) {
+    return status < 300;
+  }
+
+  private static Priority priority(HandlerMethod method) {
+    RequestPriority annotation = method.getMethodAnnotation(RequestPriority.class);
+    if (annotation == null) {
+      annotation = method.getBeanType().getAnnotation(RequestPriority.class);
+    }
+    return annotation != null ? annotation.value() : Priority.NORMAL;
+  }
+}
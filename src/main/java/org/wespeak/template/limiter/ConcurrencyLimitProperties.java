@@ -0,0 +1,32 @@
+package org.wespeak.template.limiter;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the adaptive concurrency limit in front of the example endpoints.
+ *
+ * @param initialLimit limit before the first samples
+ * @param minLimit lower bound of the limit
+ * @param maxLimit upper bound of the limit, at most the Mongo pool size ({@code maxPoolSize})
+ * @param tolerance latency increase over the long-term average tolerated before shrinking
+ * @param smoothing weight of each new estimate in the limit, between 0 and 1
+ * @param queueSize growth of the limit per window while latency stays within tolerance
+ * @param sheddableShare share of the limit open to {@link Priority#SHEDDABLE} requests
+ * @param sampleWindow shortest window whose latencies, of 10 requests at least, make one sample
+ * @param baselineWindows number of sample windows the long-term average latency spans
+ * @param retryAfter {@code Retry-After} sent with the 503 of a rejected request
+ */
+@ConfigurationProperties("app.limiter")
+public record ConcurrencyLimitProperties(
+    @DefaultValue("50") int initialLimit,
+    @DefaultValue("10") int minLimit,
+    @DefaultValue("100") int maxLimit,
+    @DefaultValue("1.5") double tolerance,
+    @DefaultValue("0.2") double smoothing,
+    @DefaultValue("4") int queueSize,
+    @DefaultValue("0.5") double sheddableShare,
+    @DefaultValue("1s") Duration sampleWindow,
+    @DefaultValue("600") int baselineWindows,
+    @DefaultValue("1s") Duration retryAfter) {}
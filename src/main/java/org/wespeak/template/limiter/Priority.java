@@ -0,0 +1,11 @@
+package org.wespeak.template.limiter;
+
+/** Admission lane of a request under the adaptive concurrency limit. */
+public enum Priority {
+  /** Always admitted (admin operations), but counted in flight. */
+  CRITICAL,
+  /** Admitted up to the limit. */
+  NORMAL,
+  /** Long or heavy requests, admitted up to {@code app.limiter.sheddable-share} of the limit. */
+  SHEDDABLE
+}
@@ -0,0 +1,18 @@
+package org.wespeak.template.limiter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Admission lane of a controller method (or of every method of a controller) under the adaptive
+ * concurrency limit. Unannotated handlers are {@link Priority#NORMAL}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequestPriority {
+  Priority value();
+}
@@ -0,0 +1,255 @@
+package org.wespeak.template.listener;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.avro.ExampleCreatedData;
+import org.wespeak.template.avro.ExampleDeletedData;
+import org.wespeak.template.avro.SampleEventData;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleCreatedPayload;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleDeletedPayload;
+import org.wespeak.template.service.SampleService.SampleEventPayload;
+
+/**
+ * Encodes and decodes {@link CloudEvent}s on Kafka records, in either CloudEvents mode:
+ *
+ * <ul>
+ *   <li>binary: envelope in {@code ce_*} headers, data encoded as Avro ({@code content-type:
+ *       application/avro}, schema registry) or JSON;
+ *   <li>structured: the whole CloudEvent as a JSON document (legacy producers, JSON fallback).
+ * </ul>
+ *
+ * The mode is negotiated per record from its headers, so producers can migrate independently.
+ */
+@Component
+@Slf4j
+public class CloudEventCodec {
+
+  public static final String CE_ID = "ce_id";
+  public static final String CE_SOURCE = "ce_source";
+  public static final String CE_TYPE = "ce_type";
+  public static final String CE_TIME = "ce_time";
+  public static final String CE_SPECVERSION = "ce_specversion";
+  public static final String CONTENT_TYPE = "content-type";
+  public static final String AVRO_CONTENT_TYPE = "application/avro";
+  public static final String JSON_CONTENT_TYPE = "application/json";
+
+  /** Wire encoding used when producing events */
+  public enum Encoding {
+    AVRO,
+    JSON
+  }
+
+  /** Encoded record value with its headers */
+  public record EncodedEvent(byte[] value, Map<String, byte[]> headers) {}
+
+  private record AvroMapping(
+      Class<? extends SpecificRecord> avroType,
+      Function<Object, SpecificRecord> toAvro,
+      Function<SpecificRecord, Object> fromAvro) {}
+
+  private static final Map<Class<?>, AvroMapping> AVRO_MAPPINGS =
+      Map.of(
+          SampleEventPayload.class,
+          new AvroMapping(
+              SampleEventData.class,
+              payload -> {
+                SampleEventPayload p = (SampleEventPayload) payload;
+                return SampleEventData.newBuilder().setId(p.id()).setMessage(p.message()).build();
+              },
+              avro -> {
+                SampleEventData d = (SampleEventData) avro;
+                return new SampleEventPayload(d.getId(), d.getMessage());
+              }),
+          ExampleCreatedPayload.class,
+          new AvroMapping(
+              ExampleCreatedData.class,
+              payload -> {
+                ExampleCreatedPayload p = (ExampleCreatedPayload) payload;
+                return ExampleCreatedData.newBuilder()
+                    .setId(p.id())
+                    .setCode(p.code())
+                    .setName(p.name())
+                    .build();
+              },
+              avro -> {
+                ExampleCreatedData d = (ExampleCreatedData) avro;
+                return new ExampleCreatedPayload(d.getId(), d.getCode(), d.getName());
+              }),
+          ExampleDeletedPayload.class,
+          new AvroMapping(
+              ExampleDeletedData.class,
+              payload -> {
+                ExampleDeletedPayload p = (ExampleDeletedPayload) payload;
+                return ExampleDeletedData.newBuilder().setId(p.id()).setCode(p.code()).build();
+              },
+              avro -> {
+                ExampleDeletedData d = (ExampleDeletedData) avro;
+                return new ExampleDeletedPayload(d.getId(), d.getCode());
+              }));
+
+  /** Payload type of the events this service produces, by CloudEvent type */
+  private static final Map<String, Class<?>> PRODUCED_TYPES =
+      Map.of(
+          "example.created", ExampleCreatedPayload.class,
+          "example.deleted", ExampleDeletedPayload.class);
+
+  private final ObjectMapper objectMapper;
+  private final KafkaAvroSerializer avroSerializer;
+  private final KafkaAvroDeserializer avroDeserializer;
+
+  public CloudEventCodec(
+      ObjectMapper objectMapper,
+      @Value("${spring.cloud.stream.kafka.binder.configuration.schema.registry.url}")
+          String schemaRegistryUrl) {
+    this.objectMapper = objectMapper;
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryUrl);
+    config.put(AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, true);
+    config.put(KafkaAvroDeserializerConfig.SPECIFIC_AVRO_READER_CONFIG, true);
+    this.avroSerializer = new KafkaAvroSerializer();
+    this.avroSerializer.configure(config, false);
+    this.avroDeserializer = new KafkaAvroDeserializer();
+    this.avroDeserializer.configure(config, false);
+  }
+
+  /**
+   * Decodes every record of a batch-mode message.
+   *
+   * @return one event per record, in order, with {@code null} for records that cannot be decoded
+   */
+  @SuppressWarnings("unchecked")
+  public <T> List<CloudEvent<T>> decodeBatch(Message<List<byte[]>> batch, Class<T> dataType) {
+    List<byte[]> values = batch.getPayload();
+    List<Map<String, Object>> headers =
+        (List<Map<String, Object>>)
+            batch.getHeaders().getOrDefault(KafkaHeaders.BATCH_CONVERTED_HEADERS, List.of());
+    List<CloudEvent<T>> events = new ArrayList<>(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      events.add(decode(values.get(i), i < headers.size() ? headers.get(i) : Map.of(), dataType));
+    }
+    return events;
+  }
+
+  /**
+   * Decodes one record.
+   *
+   * @return the event, or {@code null} when the record cannot be decoded
+   */
+  public <T> CloudEvent<T> decode(byte[] value, Map<String, Object> headers, Class<T> dataType) {
+    try {
+      String id = header(headers, CE_ID);
+      if (id == null) {
+        JavaType eventType =
+            objectMapper.getTypeFactory().constructParametricType(CloudEvent.class, dataType);
+        return objectMapper.readValue(value, eventType);
+      }
+
+      String time = header(headers, CE_TIME);
+      return new CloudEvent<>(
+          id,
+          header(headers, CE_SOURCE),
+          header(headers, CE_TYPE),
+          time != null ? Instant.parse(time) : null,
+          decodeData(value, contentType(headers), dataType));
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Undecodable CloudEvent record: {}", ex.getMessage());
+      return null;
+    }
+  }
+
+  /** Encodes an event in binary mode, falling back to JSON data when Avro is not available. */
+  public EncodedEvent encode(String topic, CloudEvent<?> event, Encoding encoding)
+      throws IOException {
+    Map<String, byte[]> headers = new LinkedHashMap<>();
+    headers.put(CE_SPECVERSION, bytes("1.0"));
+    headers.put(CE_ID, bytes(event.id()));
+    headers.put(CE_SOURCE, bytes(event.source()));
+    headers.put(CE_TYPE, bytes(event.type()));
+    if (event.time() != null) {
+      headers.put(CE_TIME, bytes(event.time().toString()));
+    }
+
+    AvroMapping mapping = event.data() != null ? AVRO_MAPPINGS.get(event.data().getClass()) : null;
+    if (encoding == Encoding.AVRO && mapping != null) {
+      headers.put(CONTENT_TYPE, bytes(AVRO_CONTENT_TYPE));
+      return new EncodedEvent(
+          avroSerializer.serialize(topic, mapping.toAvro().apply(event.data())), headers);
+    }
+    headers.put(CONTENT_TYPE, bytes(JSON_CONTENT_TYPE));
+    return new EncodedEvent(objectMapper.writeValueAsBytes(event.data()), headers);
+  }
+
+  /**
+   * Encodes a CloudEvent stored as a structured JSON document (e.g. in the outbox). With JSON
+   * encoding it is sent unchanged, in structured mode, as before binary mode existed.
+   */
+  public EncodedEvent encodeStructured(String topic, String json, Encoding encoding)
+      throws IOException {
+    if (encoding == Encoding.JSON) {
+      return new EncodedEvent(bytes(json), Map.of("contentType", bytes(JSON_CONTENT_TYPE)));
+    }
+    JsonNode node = objectMapper.readTree(json);
+    String type = node.path("type").asText(null);
+    Class<?> dataType = PRODUCED_TYPES.getOrDefault(type, Object.class);
+    CloudEvent<?> event =
+        new CloudEvent<>(
+            node.path("id").asText(null),
+            node.path("source").asText(null),
+            type,
+            node.hasNonNull("time") ? Instant.parse(node.get("time").asText()) : null,
+            objectMapper.treeToValue(node.get("data"), dataType));
+    return encode(topic, event, encoding);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T decodeData(byte[] value, String contentType, Class<T> dataType) throws IOException {
+    if (contentType != null && contentType.startsWith(AVRO_CONTENT_TYPE)) {
+      AvroMapping mapping = AVRO_MAPPINGS.get(dataType);
+      if (mapping == null) {
+        throw new IOException("No Avro mapping for " + dataType.getName());
+      }
+      Object record = avroDeserializer.deserialize("", value);
+      // Another event type of the same topic (e.g. example.deleted for a created listener)
+      return mapping.avroType().isInstance(record)
+          ? (T) mapping.fromAvro().apply((SpecificRecord) record)
+          : null;
+    }
+    return objectMapper.readValue(value, dataType);
+  }
+
+  private static String contentType(Map<String, Object> headers) {
+    String contentType = header(headers, CONTENT_TYPE);
+    return contentType != null ? contentType : header(headers, "contentType");
+  }
+
+  private static String header(Map<String, Object> headers, String name) {
+    Object value = headers.get(name);
+    if (value == null) {
+      return null;
+    }
+    return value instanceof byte[] raw ? new String(raw, StandardCharsets.UTF_8) : value.toString();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
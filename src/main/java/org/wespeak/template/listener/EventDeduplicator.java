@@ -0,0 +1,276 @@
+package org.wespeak.template.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.binder.kafka.KafkaBindingRebalanceListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.ProcessedEventEntity;
+import org.wespeak.template.cache.BloomFilter;
+
+/**
+ * Skips CloudEvents a listener already processed, e.g. redelivered after a retry or a rebalance.
+ * Events are identified by listener, source and id in the {@code processed_events} collection,
+ * whose entries expire after a day.
+ *
+ * <p>A batch is checked against a Bloom filter of the processed events first: events it has never
+ * seen are new without a store lookup, the others are looked up with one {@code $in} query. The
+ * filter is rebuilt from Mongo every {@code app.kafka.consumer.dedup.rebuild-interval}, and catches
+ * up with the events processed by the other pods every {@code
+ * app.kafka.consumer.dedup.refresh-interval} and whenever partitions are assigned to this pod,
+ * before their records are consumed. Until the first rebuild, every check goes to Mongo.
+ *
+ * <p>Store failures never block consumption: a failed lookup treats the batch as new and a failed
+ * write only costs a reprocessing if the events are redelivered.
+ *
+ * <p>Metrics: {@code events.dedup.checks{listener,result,by}} ({@code result} {@code duplicate} or
+ * {@code new}, decided {@code by} the {@code filter} or the {@code store}) and {@code
+ * events.dedup.store{operation}} ({@code lookup}, {@code mark}).
+ */
+@Component
+@Slf4j
+public class EventDeduplicator implements KafkaBindingRebalanceListener {
+
+  private static final int REBUILD_BATCH_SIZE = 1000;
+
+  private final MongoTemplate mongoTemplate;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final long expectedInsertions;
+  private final double falsePositiveRate;
+  private final Duration clockSkew;
+  private final Timer lookupTimer;
+  private final Timer markTimer;
+
+  private volatile BloomFilter processed;
+  private volatile BloomFilter rebuilding;
+  private volatile boolean ready;
+  private Instant caughtUpTo = Instant.EPOCH;
+
+  public EventDeduplicator(
+      MongoTemplate mongoTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.kafka.consumer.dedup.enabled:true}") boolean enabled,
+      @Value("${app.kafka.consumer.dedup.expected-insertions:1000000}") long expectedInsertions,
+      @Value("${app.kafka.consumer.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+      @Value("${app.kafka.consumer.dedup.clock-skew:1m}") Duration clockSkew) {
+    this.mongoTemplate = mongoTemplate;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveRate = falsePositiveRate;
+    this.clockSkew = clockSkew;
+    this.processed = new BloomFilter(expectedInsertions, falsePositiveRate);
+    this.lookupTimer = storeTimer(meterRegistry, "lookup");
+    this.markTimer = storeTimer(meterRegistry, "mark");
+  }
+
+  /**
+   * Indices of the events of the batch that the listener already processed. Undecodable events are
+   * never duplicates.
+   */
+  public BitSet duplicates(String listener, List<? extends CloudEvent<?>> events) {
+    BitSet duplicates = new BitSet(events.size());
+    if (!enabled) {
+      return duplicates;
+    }
+    List<String> candidates = new ArrayList<>();
+    int newByFilter = 0;
+    for (CloudEvent<?> event : events) {
+      if (event == null) {
+        continue;
+      }
+      String key = key(listener, event);
+      if (ready && !processed.mightContain(key)) {
+        newByFilter++;
+      } else {
+        candidates.add(key);
+      }
+    }
+    count(listener, "new", "filter", newByFilter);
+    if (candidates.isEmpty()) {
+      return duplicates;
+    }
+
+    Set<String> found;
+    try {
+      found = lookupTimer.record(() -> lookup(candidates));
+    } catch (RuntimeException ex) {
+      log.warn("Processed events lookup failed, treating the batch as new: {}", ex.getMessage());
+      return duplicates;
+    }
+    for (int i = 0; i < events.size(); i++) {
+      CloudEvent<?> event = events.get(i);
+      if (event != null && found.contains(key(listener, event))) {
+        duplicates.set(i);
+      }
+    }
+    count(listener, "duplicate", "store", found.size());
+    count(listener, "new", "store", candidates.size() - found.size());
+    return duplicates;
+  }
+
+  /**
+   * Records the first {@code handled} events of the batch as processed, except the undecodable ones
+   * and the known duplicates.
+   */
+  public void markProcessed(
+      String listener, List<? extends CloudEvent<?>> events, int handled, BitSet duplicates) {
+    if (!enabled) {
+      return;
+    }
+    List<String> keys = new ArrayList<>(handled);
+    for (int i = 0; i < handled && i < events.size(); i++) {
+      if (events.get(i) != null && !duplicates.get(i)) {
+        keys.add(key(listener, events.get(i)));
+      }
+    }
+    if (keys.isEmpty()) {
+      return;
+    }
+    keys.forEach(this::addToFilter);
+    Instant now = Instant.now();
+    try {
+      markTimer.record(() -> insert(keys, now));
+    } catch (RuntimeException ex) {
+      log.warn("Cannot record {} processed events: {}", keys.size(), ex.getMessage());
+    }
+  }
+
+  /** Rebuilds the filter from Mongo; events marked meanwhile go to both filters. */
+  @Scheduled(initialDelay = 0, fixedDelayString = "${app.kafka.consumer.dedup.rebuild-interval:1h}")
+  public void rebuild() {
+    if (!enabled) {
+      return;
+    }
+    Instant start = Instant.now();
+    BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+    rebuilding = next;
+    try {
+      long count = load(new Query(), next);
+      processed = next;
+      synchronized (this) {
+        caughtUpTo = start;
+      }
+      ready = true;
+      log.info("Processed events filter rebuilt with {} events", count);
+    } catch (RuntimeException ex) {
+      log.warn("Processed events filter rebuild failed, keeping the old one: {}", ex.getMessage());
+    } finally {
+      rebuilding = null;
+    }
+  }
+
+  /** Adds the events processed by the other pods since the last catch-up to the filter. */
+  @Scheduled(fixedDelayString = "${app.kafka.consumer.dedup.refresh-interval:30s}")
+  public synchronized void catchUp() {
+    if (!enabled || !ready) {
+      return;
+    }
+    Instant start = Instant.now();
+    try {
+      load(Query.query(Criteria.where("processedAt").gte(caughtUpTo.minus(clockSkew))), processed);
+      caughtUpTo = start;
+    } catch (RuntimeException ex) {
+      log.warn("Processed events filter catch-up failed: {}", ex.getMessage());
+    }
+  }
+
+  /** Catches up before consuming newly assigned partitions, which may start with duplicates. */
+  @Override
+  public void onPartitionsAssigned(
+      String bindingName,
+      Consumer<?, ?> consumer,
+      Collection<TopicPartition> partitions,
+      boolean initial) {
+    catchUp();
+  }
+
+  private Set<String> lookup(List<String> keys) {
+    Query query = Query.query(Criteria.where("_id").in(keys));
+    query.fields().include("_id");
+    Set<String> found = new HashSet<>();
+    mongoTemplate
+        .find(query, ProcessedEventEntity.class)
+        .forEach(entity -> found.add(entity.getId()));
+    return found;
+  }
+
+  private void insert(List<String> keys, Instant now) {
+    BulkOperations bulk =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProcessedEventEntity.class);
+    keys.forEach(key -> bulk.insert(new ProcessedEventEntity(key, now)));
+    try {
+      bulk.execute();
+    } catch (BulkOperationException ex) {
+      // Events already recorded, e.g. by another pod before a rebalance, are expected
+      if (ex.getErrors().stream().anyMatch(error -> error.getCode() != 11000)) {
+        throw ex;
+      }
+    }
+  }
+
+  private long load(Query query, BloomFilter filter) {
+    query.fields().include("_id");
+    query.cursorBatchSize(REBUILD_BATCH_SIZE);
+    long count = 0;
+    try (Stream<ProcessedEventEntity> entities =
+        mongoTemplate.stream(query, ProcessedEventEntity.class)) {
+      for (ProcessedEventEntity entity : (Iterable<ProcessedEventEntity>) entities::iterator) {
+        filter.put(entity.getId());
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void addToFilter(String key) {
+    processed.put(key);
+    BloomFilter next = rebuilding;
+    if (next != null) {
+      next.put(key);
+    }
+  }
+
+  private void count(String listener, String result, String by, long amount) {
+    if (amount > 0) {
+      Counter.builder("events.dedup.checks")
+          .description("Consumed events checked for duplicates")
+          .tag("listener", listener)
+          .tag("result", result)
+          .tag("by", by)
+          .register(meterRegistry)
+          .increment(amount);
+    }
+  }
+
+  private static Timer storeTimer(MeterRegistry meterRegistry, String operation) {
+    return Timer.builder("events.dedup.store")
+        .description("Latency of the processed events store")
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+
+  private static String key(String listener, CloudEvent<?> event) {
+    return listener + "/" + event.source() + "/" + event.id();
+  }
+}
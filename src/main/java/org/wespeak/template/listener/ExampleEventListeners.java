@@ -1,10 +1,16 @@
 package org.wespeak.template.listener;
 
+import java.util.BitSet;
+import java.util.List;
 import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.Message;
+import org.wespeak.template.exception.BatchProcessingException;
+import org.wespeak.template.metrics.EventMetrics;
 import org.wespeak.template.service.ExampleService;
 
 @Configuration
@@ -12,30 +18,81 @@ import org.wespeak.template.service.ExampleService;
 @Slf4j
 public class ExampleEventListeners {
 
+  private static final String CREATED_LISTENER = "exampleCreatedListener";
+
   private final ExampleService exampleService;
+  private final CloudEventCodec cloudEventCodec;
+  private final EventMetrics eventMetrics;
+  private final KeyOrderedBatchProcessor batchProcessor;
+  private final EventDeduplicator deduplicator;
 
   /** Payload for ExampleCreated event */
   public record ExampleCreatedPayload(String id, String code, String name) {}
 
+  /** Payload for ExampleDeleted event */
+  public record ExampleDeletedPayload(String id, String code) {}
+
   /**
-   * Example listener for "example.created" events Configuration in application.properties: -
+   * Example batch listener for "example.created" events Configuration in application.properties: -
    * spring.cloud.stream.bindings.exampleCreatedListener-in-0.destination=example.events -
-   * spring.cloud.stream.bindings.exampleCreatedListener-in-0.group=template-service
+   * spring.cloud.stream.bindings.exampleCreatedListener-in-0.group=template-service -
+   * spring.cloud.stream.bindings.exampleCreatedListener-in-0.consumer.batch-mode=true
+   *
+   * <p>Records are handled in parallel lanes, in order per key (see {@link
+   * KeyOrderedBatchProcessor}); events already processed are skipped (see {@link
+   * EventDeduplicator}). Any exception while handling a record (undecodable event, missing data,
+   * service failure) is reported at that record, so only this record goes to the DLQ.
    */
   @Bean
-  public Consumer<CloudEvent<ExampleCreatedPayload>> exampleCreatedListener() {
-    return event -> {
-      log.info(
-          "Received ExampleCreated event: id={}, type={}, source={}",
-          event.id(),
-          event.type(),
-          event.source());
-
-      ExampleCreatedPayload payload = event.data();
-      log.info("Processing example: code={}, name={}", payload.code(), payload.name());
-
-      // Delegate to service layer
-      // exampleService.handleExampleCreated(payload);
+  public Consumer<Message<List<byte[]>>> exampleCreatedListener() {
+    return batch -> {
+      List<CloudEvent<ExampleCreatedPayload>> events =
+          cloudEventCodec.decodeBatch(batch, ExampleCreatedPayload.class);
+      log.info("Received ExampleCreated event batch: size={}", events.size());
+      EventMetrics.Batch metrics = eventMetrics.start(CREATED_LISTENER, events);
+      BitSet duplicates = deduplicator.duplicates(CREATED_LISTENER, events);
+      duplicates.stream().forEach(metrics::skipped);
+      try {
+        batchProcessor.process(
+            CREATED_LISTENER,
+            KeyOrderedBatchProcessor.orderingKeys(batch, events),
+            duplicates,
+            lane ->
+                KeyOrderedBatchProcessor.forEachRecord(
+                    lane, index -> handleExampleCreated(events, index, metrics)));
+        deduplicator.markProcessed(CREATED_LISTENER, events, events.size(), duplicates);
+        metrics.processed();
+      } catch (BatchProcessingException ex) {
+        // Only this record goes to the DLQ, the rest of the batch is redelivered
+        deduplicator.markProcessed(CREATED_LISTENER, events, ex.getFailedIndex(), duplicates);
+        metrics.failed(ex.getFailedIndex());
+        throw new BatchListenerFailedException(ex.getMessage(), ex, ex.getFailedIndex());
+      }
     };
   }
+
+  private void handleExampleCreated(
+      List<CloudEvent<ExampleCreatedPayload>> events, int index, EventMetrics.Batch metrics) {
+    CloudEvent<ExampleCreatedPayload> event = events.get(index);
+    if (event == null) {
+      throw new IllegalArgumentException("Undecodable ExampleCreated event");
+    }
+    if (!ExampleService.EXAMPLE_CREATED.equals(event.type())) {
+      // example.events also carries other lifecycle events (e.g. example.deleted)
+      metrics.skipped(index);
+      return;
+    }
+    ExampleCreatedPayload payload = event.data();
+    if (payload == null) {
+      throw new IllegalArgumentException("ExampleCreated event without data");
+    }
+    log.debug(
+        "Processing example: id={}, type={}, code={}, name={}",
+        event.id(),
+        event.type(),
+        payload.code(),
+        payload.name());
+
+    exampleService.handleExampleCreated(payload);
+  }
 }
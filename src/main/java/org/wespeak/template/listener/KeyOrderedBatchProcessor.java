@@ -0,0 +1,202 @@
+package org.wespeak.template.listener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.exception.BatchProcessingException;
+
+/**
+ * Processes the records of a polled batch in parallel while keeping their order per key.
+ *
+ * <p>Records are spread over {@code app.kafka.consumer.parallel.lanes} lanes by ordering key (Kafka
+ * record key, else CloudEvent source, else partition): the records of a key always land in the same
+ * lane, which handles them in consumption order, one lane per virtual thread. The listener returns,
+ * and the container commits the batch, once every lane is done.
+ *
+ * <p>If lanes fail, the lowest failed index is reported as a {@link BatchProcessingException}, so
+ * the container commits the records before it and redelivers the rest. Records after it that other
+ * lanes already handled are processed again: lane handlers must be idempotent.
+ *
+ * <p>At most {@code app.kafka.consumer.parallel.max-in-flight-lanes} lanes run at once, across
+ * listeners. When they are all busy, the listener thread waits, so its consumer stops polling until
+ * a lane frees up. Records being processed are exposed as {@code events.inflight{listener}}.
+ */
+@Component
+public class KeyOrderedBatchProcessor {
+
+  private final MeterRegistry meterRegistry;
+  private final int lanes;
+  private final Semaphore laneSlots;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+  public KeyOrderedBatchProcessor(
+      MeterRegistry meterRegistry,
+      @Value("${app.kafka.consumer.parallel.lanes:8}") int lanes,
+      @Value("${app.kafka.consumer.parallel.max-in-flight-lanes:32}") int maxInFlightLanes) {
+    this.meterRegistry = meterRegistry;
+    this.lanes = Math.max(lanes, 1);
+    this.laneSlots = new Semaphore(Math.max(maxInFlightLanes, 1));
+  }
+
+  /**
+   * Ordering key of each record of the batch: its Kafka key when set, else the source of its
+   * CloudEvent, else its partition.
+   */
+  public static List<Object> orderingKeys(
+      Message<List<byte[]>> batch, List<? extends CloudEvent<?>> events) {
+    List<?> keys = header(batch, KafkaHeaders.RECEIVED_KEY);
+    List<?> partitions = header(batch, KafkaHeaders.RECEIVED_PARTITION);
+    List<Object> orderingKeys = new ArrayList<>(events.size());
+    for (int i = 0; i < events.size(); i++) {
+      Object key = i < keys.size() ? keys.get(i) : null;
+      if (key == null && events.get(i) != null) {
+        key = events.get(i).source();
+      }
+      if (key == null && i < partitions.size()) {
+        key = partitions.get(i);
+      }
+      orderingKeys.add(key);
+    }
+    return orderingKeys;
+  }
+
+  /**
+   * Runs {@code lane} on the indices of each lane, in consumption order, and waits for all lanes.
+   *
+   * @see #process(String, List, BitSet, Consumer)
+   */
+  public void process(String listener, List<?> keys, Consumer<List<Integer>> lane) {
+    process(listener, keys, new BitSet(), lane);
+  }
+
+  /**
+   * Runs {@code lane} on the indices of each lane, in consumption order, and waits for all lanes.
+   *
+   * @param listener listener name, for the {@code events.inflight} gauge
+   * @param keys ordering key of each record of the batch
+   * @param skipped indices of the records not to process, e.g. duplicates
+   * @param lane handles the batch indices of one lane; a {@link BatchProcessingException} gives the
+   *     position of the failed index in that list, any other exception fails the whole lane
+   * @throws BatchProcessingException with the lowest failed batch index
+   */
+  public void process(String listener, List<?> keys, BitSet skipped, Consumer<List<Integer>> lane) {
+    List<List<Integer>> byLane = new ArrayList<>(lanes);
+    for (int i = 0; i < lanes; i++) {
+      byLane.add(new ArrayList<>());
+    }
+    for (int i = skipped.nextClearBit(0); i < keys.size(); i = skipped.nextClearBit(i + 1)) {
+      byLane.get(Math.floorMod(hash(keys.get(i)), lanes)).add(i);
+    }
+
+    AtomicInteger depth = inFlight(listener);
+    List<Future<BatchProcessingException>> results = new ArrayList<>(lanes);
+    try {
+      for (List<Integer> indices : byLane) {
+        if (indices.isEmpty()) {
+          continue;
+        }
+        laneSlots.acquire();
+        depth.addAndGet(indices.size());
+        results.add(executor.submit(() -> runLane(lane, indices, depth)));
+      }
+      BatchProcessingException first = null;
+      for (Future<BatchProcessingException> result : results) {
+        BatchProcessingException failure = result.get();
+        if (failure != null
+            && (first == null || failure.getFailedIndex() < first.getFailedIndex())) {
+          first = failure;
+        }
+      }
+      if (first != null) {
+        throw first;
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      results.forEach(result -> result.cancel(true));
+      throw new IllegalStateException("Interrupted while processing a batch of " + listener, ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Lane of " + listener + " failed", ex.getCause());
+    }
+  }
+
+  /**
+   * Handles the records of a lane one by one, in order. A record whose handler throws is reported
+   * at its own position, so that only this record goes to the DLQ, not the first one of the lane.
+   *
+   * @param lane batch indices of the lane
+   * @param handler handles one batch index
+   * @throws BatchProcessingException with the position of the failed record in {@code lane}
+   */
+  public static void forEachRecord(List<Integer> lane, IntConsumer handler) {
+    for (int position = 0; position < lane.size(); position++) {
+      try {
+        handler.accept(lane.get(position));
+      } catch (RuntimeException ex) {
+        throw new BatchProcessingException(position, ex.getMessage(), ex);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /** Runs one lane and returns its failure, translated to a batch index, or {@code null}. */
+  private BatchProcessingException runLane(
+      Consumer<List<Integer>> lane, List<Integer> indices, AtomicInteger depth) {
+    try {
+      lane.accept(indices);
+      return null;
+    } catch (BatchProcessingException ex) {
+      int position = Math.max(0, Math.min(ex.getFailedIndex(), indices.size() - 1));
+      return new BatchProcessingException(indices.get(position), ex.getMessage(), ex);
+    } catch (RuntimeException ex) {
+      return new BatchProcessingException(indices.get(0), ex.getMessage(), ex);
+    } finally {
+      depth.addAndGet(-indices.size());
+      laneSlots.release();
+    }
+  }
+
+  private AtomicInteger inFlight(String listener) {
+    return inFlight.computeIfAbsent(
+        listener,
+        name -> {
+          AtomicInteger depth = new AtomicInteger();
+          Gauge.builder("events.inflight", depth, AtomicInteger::get)
+              .description("Records of consumed batches being processed")
+              .tag("listener", name)
+              .register(meterRegistry);
+          return depth;
+        });
+  }
+
+  private static int hash(Object key) {
+    return key instanceof byte[] bytes ? Arrays.hashCode(bytes) : Objects.hashCode(key);
+  }
+
+  private static List<?> header(Message<?> batch, String name) {
+    return batch.getHeaders().get(name) instanceof List<?> values ? values : List.of();
+  }
+}
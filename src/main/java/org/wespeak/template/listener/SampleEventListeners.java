@@ -1,10 +1,17 @@
 package org.wespeak.template.listener;
 
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.Message;
+import org.wespeak.template.exception.BatchProcessingException;
+import org.wespeak.template.metrics.EventMetrics;
 import org.wespeak.template.service.SampleService;
 import org.wespeak.template.service.SampleService.SampleEventPayload;
 
@@ -13,24 +20,68 @@ import org.wespeak.template.service.SampleService.SampleEventPayload;
 @Slf4j
 public class SampleEventListeners {
 
+  private static final String LISTENER = "sampleEventListener";
+
   private final SampleService sampleService;
+  private final CloudEventCodec cloudEventCodec;
+  private final EventMetrics eventMetrics;
+  private final KeyOrderedBatchProcessor batchProcessor;
+  private final EventDeduplicator deduplicator;
 
   /**
-   * Sample listener for "sample.event" topic Configuration in application.properties: -
+   * Sample batch listener for "sample.event" topic Configuration in application.properties: -
    * spring.cloud.stream.bindings.sampleEventListener-in-0.destination=sample.events -
-   * spring.cloud.stream.bindings.sampleEventListener-in-0.group=template-service
+   * spring.cloud.stream.bindings.sampleEventListener-in-0.group=template-service -
+   * spring.cloud.stream.bindings.sampleEventListener-in-0.consumer.batch-mode=true
+   *
+   * <p>Records are decoded by {@link CloudEventCodec} (Avro or JSON, binary or structured mode). A
+   * failing or undecodable record is reported by index so that only this record goes to the DLQ
+   * (see KafkaConsumerConfig); the records after it are redelivered, not the whole batch.
+   *
+   * <p>The batch is written in parallel lanes, one bulk upsert per lane, keeping the order of the
+   * records of a key (see {@link KeyOrderedBatchProcessor}); upserts are idempotent, so records
+   * redelivered after a failure can be written twice.
+   *
+   * <p>Events this listener already processed (same CloudEvent source and id) are skipped before
+   * reaching {@link SampleService} (see {@link EventDeduplicator}).
    */
   @Bean
-  public Consumer<CloudEvent<SampleEventPayload>> sampleEventListener() {
-    return event -> {
-      log.info(
-          "Received Sample event: id={}, type={}, source={}",
-          event.id(),
-          event.type(),
-          event.source());
+  public Consumer<Message<List<byte[]>>> sampleEventListener() {
+    return batch -> {
+      List<CloudEvent<SampleEventPayload>> events =
+          cloudEventCodec.decodeBatch(batch, SampleEventPayload.class);
+      log.info("Received Sample event batch: size={}", events.size());
+      if (log.isDebugEnabled()) {
+        events.stream()
+            .filter(Objects::nonNull)
+            .forEach(
+                event ->
+                    log.debug(
+                        "Sample event: id={}, type={}, source={}",
+                        event.id(),
+                        event.type(),
+                        event.source()));
+      }
 
       // Delegate to service layer (no business logic here)
-      sampleService.handleSampleEvent(event.data());
+      EventMetrics.Batch metrics = eventMetrics.start(LISTENER, events);
+      BitSet duplicates = deduplicator.duplicates(LISTENER, events);
+      duplicates.stream().forEach(metrics::skipped);
+      List<SampleEventPayload> payloads =
+          events.stream().map(event -> event != null ? event.data() : null).toList();
+      try {
+        batchProcessor.process(
+            LISTENER,
+            KeyOrderedBatchProcessor.orderingKeys(batch, events),
+            duplicates,
+            lane -> sampleService.handleSampleEvents(lane.stream().map(payloads::get).toList()));
+        deduplicator.markProcessed(LISTENER, events, events.size(), duplicates);
+        metrics.processed();
+      } catch (BatchProcessingException ex) {
+        deduplicator.markProcessed(LISTENER, events, ex.getFailedIndex(), duplicates);
+        metrics.failed(ex.getFailedIndex());
+        throw new BatchListenerFailedException(ex.getMessage(), ex, ex.getFailedIndex());
+      }
     };
   }
 }
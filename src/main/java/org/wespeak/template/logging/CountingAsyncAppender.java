@@ -0,0 +1,50 @@
+package org.wespeak.template.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback {@link AsyncAppender} that counts what it drops, configured in {@code logback-spring.xml}
+ * with {@code neverBlock}: the calling thread only enqueues, and gives up rather than wait when the
+ * queue is full.
+ *
+ * <ul>
+ *   <li>{@code discarded}: {@code TRACE} to {@code INFO} events dropped on purpose once the queue
+ *       has less than {@code discardingThreshold} free slots, to keep room for warnings and errors;
+ *   <li>{@code overflowed}: events of any level dropped because the queue was full. Counted when
+ *       the queue looks full before enqueuing, so the count may be off by the events racing with
+ *       the worker.
+ * </ul>
+ *
+ * <p>Exposed as {@code logging.events.dropped{reason}} by {@link
+ * org.wespeak.template.metrics.LoggingMetrics}.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+  private static final LongAdder DISCARDED = new LongAdder();
+  private static final LongAdder OVERFLOWED = new LongAdder();
+
+  /** Events discarded under the threshold so far, across all the instances of the appender. */
+  public static long discarded() {
+    return DISCARDED.sum();
+  }
+
+  /** Events dropped on a full queue so far, across all the instances of the appender. */
+  public static long overflowed() {
+    return OVERFLOWED.sum();
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    int remaining = getRemainingCapacity();
+    if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+      DISCARDED.increment();
+      return;
+    }
+    if (remaining == 0 && isNeverBlock()) {
+      OVERFLOWED.increment();
+    }
+    super.append(event);
+  }
+}
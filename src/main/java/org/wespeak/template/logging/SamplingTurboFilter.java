@@ -0,0 +1,134 @@
+package org.wespeak.template.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Marker;
+
+/**
+ * Rate limit per call site, configured in {@code logback-spring.xml}: each message format (the call
+ * site, e.g. {@code "Creating example with code: {}"}) is logged at most {@code eventsPerSecond}
+ * times per second, the excess is denied before any formatting or queuing.
+ *
+ * <p>Only events up to {@code maxLevel} ({@code INFO} by default) and enabled for their logger are
+ * sampled: warnings and errors always go through. Past {@code maxSites} distinct formats, new ones
+ * are not limited. Denied events are counted by level, exposed as {@code logging.events.sampled} by
+ * {@link org.wespeak.template.metrics.LoggingMetrics}.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+  private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN};
+  private static final LongAdder[] SAMPLED = new LongAdder[LEVELS.length];
+
+  static {
+    for (int i = 0; i < SAMPLED.length; i++) {
+      SAMPLED[i] = new LongAdder();
+    }
+  }
+
+  private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<>();
+  private final LongSupplier clock;
+  private int eventsPerSecond = 10;
+  private Level maxLevel = Level.INFO;
+  private int maxSites = 1024;
+
+  public SamplingTurboFilter() {
+    this(() -> TimeUnit.NANOSECONDS.toSeconds(System.nanoTime()));
+  }
+
+  /**
+   * @param clock the current second, settable by tests
+   */
+  SamplingTurboFilter(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  /** Levels that can be sampled, lowest first. */
+  public static Level[] levels() {
+    return LEVELS.clone();
+  }
+
+  /** Events denied so far at the given level, across all the instances of the filter. */
+  public static long sampled(Level level) {
+    int index = index(level);
+    return index >= 0 ? SAMPLED[index].sum() : 0;
+  }
+
+  public void setEventsPerSecond(int eventsPerSecond) {
+    this.eventsPerSecond = eventsPerSecond;
+  }
+
+  public void setMaxLevel(String maxLevel) {
+    this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+  }
+
+  public void setMaxSites(int maxSites) {
+    this.maxSites = maxSites;
+  }
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    // No format: an isXxxEnabled() check, which must not consume the budget
+    if (!isStarted()
+        || format == null
+        || level.toInt() > maxLevel.toInt()
+        || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    Site site = sites.get(format);
+    if (site == null) {
+      if (sites.size() >= maxSites) {
+        return FilterReply.NEUTRAL;
+      }
+      site = sites.computeIfAbsent(format, key -> new Site());
+    }
+    if (site.tryAcquire(clock.getAsLong(), eventsPerSecond)) {
+      return FilterReply.NEUTRAL;
+    }
+    int index = index(level);
+    if (index >= 0) {
+      SAMPLED[index].increment();
+    }
+    return FilterReply.DENY;
+  }
+
+  @Override
+  public void stop() {
+    sites.clear();
+    super.stop();
+  }
+
+  private static int index(Level level) {
+    for (int i = 0; i < LEVELS.length; i++) {
+      if (LEVELS[i].equals(level)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Events of the current one-second window of a call site. */
+  private static final class Site {
+
+    private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger events = new AtomicInteger();
+
+    boolean tryAcquire(long now, int limit) {
+      long current = second.get();
+      if (current != now && second.compareAndSet(current, now)) {
+        // A few events racing with the reset may be counted in either window
+        events.set(0);
+      }
+      return events.incrementAndGet() <= limit;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.wespeak.template.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.listener.CloudEvent;
+
+/**
+ * Metrics of the batch Kafka listeners:
+ *
+ * <ul>
+ *   <li>{@code events.batch.processing{listener,outcome}}: time to process a batch;
+ *   <li>{@code events.batch.size{listener}}: records per batch;
+ *   <li>{@code events.consumed{listener,type,outcome}}: records {@code processed}, {@code skipped}
+ *       or {@code failed}, by CloudEvent type.
+ * </ul>
+ *
+ * <p>Types outside {@code app.metrics.events.known-types} are tagged {@code other} and records that
+ * could not be decoded {@code undecodable}, so producers cannot blow up tag cardinality. Records
+ * after a failed one are redelivered and counted when they are processed again.
+ */
+@Component
+public class EventMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final Set<String> knownTypes;
+
+  public EventMetrics(
+      MeterRegistry meterRegistry,
+      @Value("${app.metrics.events.known-types:}") Set<String> knownTypes) {
+    this.meterRegistry = meterRegistry;
+    this.knownTypes = knownTypes;
+  }
+
+  /** Starts timing a batch; finish it with {@link Batch#processed()} or {@link Batch#failed}. */
+  public Batch start(String listener, List<? extends CloudEvent<?>> events) {
+    return new Batch(listener, events, Timer.start(meterRegistry));
+  }
+
+  /** A batch being processed. Only {@link #skipped} may be called from several threads. */
+  public final class Batch {
+
+    private final String listener;
+    private final List<? extends CloudEvent<?>> events;
+    private final Timer.Sample sample;
+    private final BitSet skipped = new BitSet();
+
+    private Batch(String listener, List<? extends CloudEvent<?>> events, Timer.Sample sample) {
+      this.listener = listener;
+      this.events = events;
+      this.sample = sample;
+    }
+
+    /** Marks a record deliberately ignored (e.g. another event type of the topic). */
+    public synchronized void skipped(int index) {
+      skipped.set(index);
+    }
+
+    /** Every record was handled. */
+    public void processed() {
+      finish(events.size(), "success");
+    }
+
+    /** Records before {@code failedIndex} were handled, the one at {@code failedIndex} failed. */
+    public void failed(int failedIndex) {
+      if (failedIndex >= 0 && failedIndex < events.size()) {
+        count(events.get(failedIndex), "failed");
+      }
+      finish(Math.max(0, Math.min(failedIndex, events.size())), "failure");
+    }
+
+    private synchronized void finish(int handled, String outcome) {
+      for (int i = 0; i < handled; i++) {
+        count(events.get(i), skipped.get(i) ? "skipped" : "processed");
+      }
+      sample.stop(
+          Timer.builder("events.batch.processing")
+              .description("Time to process a batch of consumed events")
+              .tag("listener", listener)
+              .tag("outcome", outcome)
+              .register(meterRegistry));
+      DistributionSummary.builder("events.batch.size")
+          .description("Records per consumed batch")
+          .baseUnit("records")
+          .tag("listener", listener)
+          .register(meterRegistry)
+          .record(events.size());
+    }
+
+    private void count(CloudEvent<?> event, String outcome) {
+      Counter.builder("events.consumed")
+          .description("Consumed events, by CloudEvent type and outcome")
+          .tag("listener", listener)
+          .tag("type", type(event))
+          .tag("outcome", outcome)
+          .register(meterRegistry)
+          .increment();
+    }
+  }
+
+  private String type(CloudEvent<?> event) {
+    if (event == null) {
+      return "undecodable";
+    }
+    return knownTypes.contains(event.type()) ? event.type() : "other";
+  }
+}
@@ -0,0 +1,69 @@
+package org.wespeak.template.metrics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import java.util.Locale;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.logging.CountingAsyncAppender;
+import org.wespeak.template.logging.SamplingTurboFilter;
+
+/**
+ * Metrics of the logging pipeline set up in {@code logback-spring.xml}, next to Spring Boot's
+ * {@code logback.events}:
+ *
+ * <ul>
+ *   <li>{@code logging.events.sampled{level}}: events denied by the per call site rate limit;
+ *   <li>{@code logging.events.dropped{reason}}: events the async appender dropped, {@code
+ *       discarded} (low levels, queue nearly full) or {@code overflowed} (queue full);
+ *   <li>{@code logging.queue.size}: events waiting in the async appender's queue.
+ * </ul>
+ *
+ * <p>The counters are static in the Logback classes, so they survive Spring Boot reinitializing
+ * Logback; the queue is looked up on the root logger at each read.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (Level level : SamplingTurboFilter.levels()) {
+      FunctionCounter.builder("logging.events.sampled", level, SamplingTurboFilter::sampled)
+          .description("Log events denied by the per call site rate limit")
+          .tag("level", level.levelStr.toLowerCase(Locale.ROOT))
+          .register(registry);
+    }
+    FunctionCounter.builder(
+            "logging.events.dropped", this, metrics -> CountingAsyncAppender.discarded())
+        .description("Log events dropped by the async appender")
+        .tag("reason", "discarded")
+        .register(registry);
+    FunctionCounter.builder(
+            "logging.events.dropped", this, metrics -> CountingAsyncAppender.overflowed())
+        .description("Log events dropped by the async appender")
+        .tag("reason", "overflowed")
+        .register(registry);
+    Gauge.builder("logging.queue.size", this, LoggingMetrics::queueSize)
+        .description("Log events waiting in the async appender's queue")
+        .register(registry);
+  }
+
+  private double queueSize() {
+    if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+      return Double.NaN;
+    }
+    Iterator<?> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+    while (appenders.hasNext()) {
+      if (appenders.next() instanceof CountingAsyncAppender async) {
+        return async.getNumberOfElementsInQueue();
+      }
+    }
+    return Double.NaN;
+  }
+}
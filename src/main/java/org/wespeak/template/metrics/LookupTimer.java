@@ -0,0 +1,47 @@
+package org.wespeak.template.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.exception.ResourceNotFoundException;
+
+/**
+ * Times cache-backed lookups in {@code examples.lookup}, so cache hits and database reads show up
+ * as separate latency distributions. Tags: {@code operation} and {@code result} ({@code hit},
+ * {@code miss}, {@code not_found} or {@code error}). Histogram and SLO buckets come from {@code
+ * management.metrics.distribution.*.examples.lookup}.
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupTimer {
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Runs and times a lookup.
+   *
+   * @param lookup the lookup; it runs the given callback when it has to go past the cache
+   */
+  public <T> T record(String operation, Function<Runnable, T> lookup) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    boolean[] missed = {false};
+    String result = "error";
+    try {
+      T value = lookup.apply(() -> missed[0] = true);
+      result = missed[0] ? "miss" : "hit";
+      return value;
+    } catch (ResourceNotFoundException ex) {
+      result = "not_found";
+      throw ex;
+    } finally {
+      sample.stop(
+          Timer.builder("examples.lookup")
+              .description("Example lookups, by operation and cache result")
+              .tag("operation", operation)
+              .tag("result", result)
+              .register(meterRegistry));
+    }
+  }
+}
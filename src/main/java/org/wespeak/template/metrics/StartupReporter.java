@@ -0,0 +1,67 @@
+package org.wespeak.template.metrics;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the time to ready and the slowest bean instantiations recorded by the {@link
+ * BufferingApplicationStartup} of {@code TemplateApplication}, and warns when the startup exceeds
+ * {@code app.startup.ready-budget}. The full timeline is served by {@code /actuator/startup}; the
+ * time to ready is the {@code application.ready.time} gauge.
+ */
+@Component
+@Slf4j
+public class StartupReporter {
+
+  private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+  @Value("${app.startup.ready-budget:20s}")
+  private Duration readyBudget;
+
+  @Value("${app.startup.slowest-beans:10}")
+  private int slowestBeans;
+
+  @EventListener
+  public void onReady(ApplicationReadyEvent event) {
+    Duration timeTaken = event.getTimeTaken();
+    if (timeTaken == null) {
+      return;
+    }
+    if (timeTaken.compareTo(readyBudget) > 0) {
+      log.warn(
+          "Application ready in {} ms, over the {} ms budget",
+          timeTaken.toMillis(),
+          readyBudget.toMillis());
+    } else {
+      log.info("Application ready in {} ms", timeTaken.toMillis());
+    }
+    ApplicationStartup applicationStartup = event.getApplicationContext().getApplicationStartup();
+    if (applicationStartup instanceof BufferingApplicationStartup startup) {
+      startup.getBufferedTimeline().getEvents().stream()
+          .filter(step -> BEAN_INSTANTIATION.equals(step.getStartupStep().getName()))
+          .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+          .limit(slowestBeans)
+          .forEach(
+              step ->
+                  log.info("Slow bean {}: {} ms", beanName(step), step.getDuration().toMillis()));
+    }
+  }
+
+  private static String beanName(TimelineEvent step) {
+    return StreamSupport.stream(step.getStartupStep().getTags().spliterator(), false)
+        .filter(tag -> "beanName".equals(tag.getKey()))
+        .map(StartupStep.Tag::getValue)
+        .findFirst()
+        .orElse("?");
+  }
+}
@@ -0,0 +1,89 @@
+package org.wespeak.template.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Surfaces virtual-thread pinning (a virtual thread blocking while holding a monitor, e.g. inside a
+ * {@code synchronized} block of the JWT decoder or Mongo driver) as metrics. Streams the JFR {@code
+ * jdk.VirtualThreadPinned} event and tags it with the first non-JDK class on the stack, so hotspots
+ * show up per location in {@code jvm.threads.virtual.pinned}.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final MeterRegistry meterRegistry;
+
+  @Value("${app.virtual-threads.pinning-threshold:20ms}")
+  private Duration threshold;
+
+  private RecordingStream recordingStream;
+
+  @Override
+  public void start() {
+    recordingStream = new RecordingStream();
+    recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recordingStream.onEvent(PINNED_EVENT, this::record);
+    recordingStream.startAsync();
+    log.info("Virtual thread pinning monitor started (threshold={})", threshold);
+  }
+
+  @Override
+  public void stop() {
+    if (recordingStream != null) {
+      recordingStream.close();
+      recordingStream = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return recordingStream != null;
+  }
+
+  private void record(RecordedEvent event) {
+    String location = location(event.getStackTrace());
+    Counter.builder("jvm.threads.virtual.pinned")
+        .description("Virtual threads pinned to their carrier longer than the threshold")
+        .tag("location", location)
+        .register(meterRegistry)
+        .increment();
+    Timer.builder("jvm.threads.virtual.pinned.duration")
+        .description("Time virtual threads stayed pinned to their carrier")
+        .tag("location", location)
+        .register(meterRegistry)
+        .record(event.getDuration());
+    log.debug("Virtual thread pinned for {} at {}", event.getDuration(), location);
+  }
+
+  /** First application or library frame, skipping the JDK frames that perform the blocking. */
+  private static String location(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "unknown";
+    }
+    for (RecordedFrame frame : stackTrace.getFrames()) {
+      String type = frame.getMethod().getType().getName();
+      if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+        return type;
+      }
+    }
+    return "jdk";
+  }
+}
@@ -0,0 +1,215 @@
+package org.wespeak.template.publisher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.OutboxEventEntity;
+import org.wespeak.template.listener.CloudEventCodec;
+import org.wespeak.template.listener.CloudEventCodec.EncodedEvent;
+import org.wespeak.template.listener.CloudEventCodec.Encoding;
+
+/**
+ * Polls the outbox and publishes pending events to Kafka with the batched, compressed, idempotent
+ * {@code outboxKafkaTemplate}, encoded by {@link CloudEventCodec} ({@code app.events.encoding}:
+ * Avro in CloudEvents binary mode, or the structured JSON document). Each pod leases a batch before
+ * sending it so concurrent relays do not publish the same entries; a lease left by a crashed pod
+ * expires and the batch is retried. Delivery is at-least-once: consumers must be idempotent on the
+ * CloudEvent id.
+ *
+ * <p>An entry that cannot be encoded is retried once its lease expires. After {@code
+ * app.outbox.max-attempts} it is marked failed and no longer claimed; it stays in the outbox, with
+ * its last error, for inspection. Failures are counted in {@code outbox.events.failed{outcome}}.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.outbox.relay.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+  private final MongoTemplate mongoTemplate;
+  private final KafkaTemplate<String, byte[]> outboxKafkaTemplate;
+  private final CloudEventCodec cloudEventCodec;
+  private final MeterRegistry meterRegistry;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  @Value("${app.outbox.topic:example.events}")
+  private String topic;
+
+  @Value("${app.events.encoding:AVRO}")
+  private Encoding encoding;
+
+  @Value("${app.outbox.batch-size:500}")
+  private int batchSize;
+
+  @Value("${app.outbox.lease:30s}")
+  private Duration lease;
+
+  @Value("${app.outbox.send-timeout:10s}")
+  private Duration sendTimeout;
+
+  @Value("${app.outbox.max-attempts:5}")
+  private int maxAttempts;
+
+  @Scheduled(
+      fixedDelayString = "${app.outbox.poll-interval:500}",
+      initialDelayString = "${app.outbox.initial-delay:5000}")
+  public void relay() {
+    int published;
+    do {
+      published = publishPending();
+    } while (published == batchSize);
+  }
+
+  /**
+   * Publishes one batch of pending events.
+   *
+   * @return the number of events claimed by this call
+   */
+  public int publishPending() {
+    List<OutboxEventEntity> batch = claim();
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+    for (OutboxEventEntity entry : batch) {
+      try {
+        sends.add(send(entry));
+      } catch (IOException | RuntimeException ex) {
+        sends.add(null);
+        encodingFailed(entry, ex);
+      }
+    }
+    outboxKafkaTemplate.flush();
+
+    List<String> published = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      if (sends.get(i) == null) {
+        continue;
+      }
+      try {
+        sends.get(i).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        published.add(batch.get(i).getId());
+      } catch (ExecutionException | TimeoutException ex) {
+        log.warn(
+            "Outbox event {} not published, will retry: {}",
+            batch.get(i).getEventId(),
+            ex.getMessage());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    if (!published.isEmpty()) {
+      mongoTemplate.updateMulti(
+          Query.query(Criteria.where("_id").in(published)),
+          new Update().set("publishedAt", Instant.now()).unset("lockedBy").unset("lockedUntil"),
+          OutboxEventEntity.class);
+    }
+    log.debug("Outbox relay published {}/{} events", published.size(), batch.size());
+    return batch.size();
+  }
+
+  private CompletableFuture<SendResult<String, byte[]>> send(OutboxEventEntity entry)
+      throws IOException {
+    EncodedEvent encoded = cloudEventCodec.encodeStructured(topic, entry.getPayload(), encoding);
+    ProducerRecord<String, byte[]> record =
+        new ProducerRecord<>(topic, entry.getAggregateId(), encoded.value());
+    encoded.headers().forEach((name, value) -> record.headers().add(name, value));
+    return outboxKafkaTemplate.send(record);
+  }
+
+  /**
+   * Records a failed attempt. The entry keeps its lease, so it is retried once the lease expires,
+   * until max-attempts marks it failed.
+   */
+  private void encodingFailed(OutboxEventEntity entry, Exception ex) {
+    int attempts = (entry.getAttempts() != null ? entry.getAttempts() : 0) + 1;
+    boolean exhausted = attempts >= maxAttempts;
+    Update update =
+        new Update()
+            .set("attempts", attempts)
+            .set("lastError", String.valueOf(ex.getMessage()))
+            .unset("lockedBy");
+    if (exhausted) {
+      update.set("failedAt", Instant.now()).unset("lockedUntil");
+    }
+    mongoTemplate.updateFirst(
+        Query.query(Criteria.where("_id").is(entry.getId())), update, OutboxEventEntity.class);
+    log.error(
+        "Outbox event {} cannot be encoded (attempt {}/{}{}): {}",
+        entry.getEventId(),
+        attempts,
+        maxAttempts,
+        exhausted ? ", marked failed" : "",
+        ex.getMessage());
+    Counter.builder("outbox.events.failed")
+        .description("Outbox events that could not be encoded")
+        .tag("outcome", exhausted ? "failed" : "retried")
+        .register(meterRegistry)
+        .increment();
+  }
+
+  /** Leases the oldest pending entries to this node and returns the ones it actually got. */
+  private List<OutboxEventEntity> claim() {
+    Instant now = Instant.now();
+    Criteria claimable =
+        Criteria.where("publishedAt")
+            .is(null)
+            .and("held")
+            .ne(true)
+            .and("failedAt")
+            .is(null)
+            .orOperator(
+                Criteria.where("lockedUntil").is(null), Criteria.where("lockedUntil").lt(now));
+
+    Query candidates = Query.query(claimable).with(Sort.by("_id")).limit(batchSize);
+    candidates.fields().include("_id");
+    List<String> ids =
+        mongoTemplate.find(candidates, OutboxEventEntity.class).stream()
+            .map(OutboxEventEntity::getId)
+            .toList();
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    Instant lockedUntil = now.plus(lease).truncatedTo(ChronoUnit.MILLIS);
+    mongoTemplate.updateMulti(
+        Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), claimable)),
+        new Update().set("lockedBy", nodeId).set("lockedUntil", lockedUntil),
+        OutboxEventEntity.class);
+
+    return mongoTemplate.find(
+        Query.query(Criteria.where("lockedBy").is(nodeId).and("lockedUntil").is(lockedUntil))
+            .with(Sort.by("_id")),
+        OutboxEventEntity.class);
+  }
+}
@@ -0,0 +1,15 @@
+package org.wespeak.template.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import org.wespeak.template.ExampleEntity;
+import reactor.core.publisher.Mono;
+
+/** Non-blocking counterpart of {@link ExampleRepository}, used by the {@code reactive} profile. */
+@Repository
+public interface ReactiveExampleRepository extends ReactiveMongoRepository<ExampleEntity, String> {
+
+  Mono<ExampleEntity> findByCode(String code);
+
+  Mono<Boolean> existsByCode(String code);
+}
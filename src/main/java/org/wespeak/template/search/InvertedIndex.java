@@ -0,0 +1,548 @@
+package org.wespeak.template.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted index over the code, name and description of examples, for type-ahead search.
+ *
+ * <p>Text is split on anything but letters and digits, lower-cased and stripped of accents. Each
+ * term maps to the documents containing it, in document order, with the fields it was found in.
+ * Terms are kept sorted, so the terms starting with a prefix are one contiguous range of the
+ * dictionary, as under a node of a prefix trie.
+ *
+ * <p>A query matches the documents containing all of its terms, the last one as a prefix while it
+ * is being typed (no trailing space). A term found in the code scores {@value #CODE_WEIGHT}, in the
+ * name {@value #NAME_WEIGHT}, in the description {@value #DESCRIPTION_WEIGHT}; a prefix match
+ * scores in proportion of the typed length. Ties keep document order.
+ *
+ * <p>Documents are added with increasing numbers, so postings only ever grow at their end. A
+ * removed or replaced document is only marked deleted and skipped by queries; {@link #deleted()}
+ * tells when a rebuild is worth it. Thread-safe: queries share a read lock, updates take the write
+ * lock.
+ */
+public class InvertedIndex {
+
+  static final int CODE = 1;
+  static final int NAME = 2;
+  static final int DESCRIPTION = 4;
+  static final float CODE_WEIGHT = 3;
+  static final float NAME_WEIGHT = 2;
+  static final float DESCRIPTION_WEIGHT = 1;
+  private static final int MAX_TERM_LENGTH = 64;
+  private static final int SEGMENT_SIZE = 10_000;
+  private static final int DENSE_UNION_RATIO = 32;
+
+  /** Text of an example to index. */
+  public record ExampleText(String id, String code, String name, String description) {}
+
+  /** Postings of a dictionary term matched by a query term, scored by the typed share of it. */
+  private record Expansion(Postings postings, float coverage) {}
+
+  /** A matching document. */
+  public record Hit(String id, String code, String name, float score) {}
+
+  /** One window of the ranked matches, and how many documents match in total. */
+  public record Result(List<Hit> hits, int total) {}
+
+  private final int maxExpansions;
+  private final int minPrefixLength;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final TreeMap<String, Postings> terms;
+  private final Map<String, Integer> documents;
+  private String[] ids;
+  private String[] codes;
+  private String[] names;
+  private int size;
+  private int deleted;
+
+  /**
+   * @param maxExpansions most dictionary terms a prefix expands to, the most frequent ones
+   * @param minPrefixLength shorter last terms only match whole terms
+   */
+  public InvertedIndex(int maxExpansions, int minPrefixLength) {
+    this(maxExpansions, minPrefixLength, new TreeMap<>(), 16);
+  }
+
+  private InvertedIndex(
+      int maxExpansions, int minPrefixLength, TreeMap<String, Postings> terms, int capacity) {
+    this.maxExpansions = maxExpansions;
+    this.minPrefixLength = minPrefixLength;
+    this.terms = terms;
+    this.documents = HashMap.newHashMap(capacity);
+    this.ids = new String[capacity];
+    this.codes = new String[capacity];
+    this.names = new String[capacity];
+  }
+
+  /**
+   * Builds an index over the examples, tokenizing segments of {@value #SEGMENT_SIZE} examples in
+   * parallel on the common pool before merging their postings in order.
+   */
+  public static InvertedIndex build(
+      List<ExampleText> examples, int maxExpansions, int minPrefixLength) {
+    int segments = (examples.size() + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+    List<TreeMap<String, Postings>> built =
+        IntStream.range(0, segments)
+            .parallel()
+            .mapToObj(
+                segment -> {
+                  TreeMap<String, Postings> segmentTerms = new TreeMap<>();
+                  int from = segment * SEGMENT_SIZE;
+                  int to = Math.min(from + SEGMENT_SIZE, examples.size());
+                  for (int doc = from; doc < to; doc++) {
+                    addTerms(segmentTerms, doc, examples.get(doc));
+                  }
+                  return segmentTerms;
+                })
+            .toList();
+
+    TreeMap<String, Postings> merged = new TreeMap<>();
+    for (TreeMap<String, Postings> segmentTerms : built) {
+      segmentTerms.forEach((term, postings) -> merged.merge(term, postings, Postings::append));
+    }
+    InvertedIndex index =
+        new InvertedIndex(maxExpansions, minPrefixLength, merged, Math.max(16, examples.size()));
+    for (ExampleText example : examples) {
+      int doc = index.size++;
+      index.store(doc, example);
+      Integer previous = index.documents.put(example.id(), doc);
+      if (previous != null) {
+        index.delete(previous);
+      }
+    }
+    return index;
+  }
+
+  /** Indexes an example, replacing the one with the same id. */
+  public void add(ExampleText example) {
+    lock.writeLock().lock();
+    try {
+      Integer previous = documents.get(example.id());
+      if (previous != null) {
+        delete(previous);
+      }
+      int doc = size++;
+      if (doc == ids.length) {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        codes = Arrays.copyOf(codes, capacity);
+        names = Arrays.copyOf(names, capacity);
+      }
+      store(doc, example);
+      documents.put(example.id(), doc);
+      addTerms(terms, doc, example);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Whether an example with this id is indexed. */
+  public boolean contains(String id) {
+    lock.readLock().lock();
+    try {
+      return documents.containsKey(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public void remove(String id) {
+    lock.writeLock().lock();
+    try {
+      Integer doc = documents.remove(id);
+      if (doc != null) {
+        delete(doc);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Ranks the examples matching the query and returns {@code limit} of them from {@code offset}.
+   */
+  public Result search(String query, int offset, int limit) {
+    List<String> queryTerms = tokens(query);
+    if (queryTerms.isEmpty()) {
+      return new Result(List.of(), 0);
+    }
+    boolean typing = !Character.isWhitespace(query.charAt(query.length() - 1));
+    lock.readLock().lock();
+    try {
+      List<List<Expansion>> sources = new ArrayList<>(queryTerms.size());
+      for (int i = 0; i < queryTerms.size(); i++) {
+        String term = queryTerms.get(i);
+        boolean prefix = typing && i == queryTerms.size() - 1 && term.length() >= minPrefixLength;
+        List<Expansion> expansions = expansions(term, prefix);
+        if (expansions.isEmpty()) {
+          return new Result(List.of(), 0);
+        }
+        sources.add(expansions);
+      }
+      // The rarest term gives the candidates, the others only filter them
+      sources.sort(Comparator.comparingLong(InvertedIndex::postings));
+      Matches matches = union(sources.get(0));
+      for (int i = 1; i < sources.size() && matches.size > 0; i++) {
+        matches = retain(matches, sources.get(i));
+      }
+      return top(matches, offset, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Documents indexed, deleted ones included. */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Documents removed or replaced since the index was built. */
+  public int deleted() {
+    lock.readLock().lock();
+    try {
+      return deleted;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Distinct terms in the dictionary. */
+  public int terms() {
+    lock.readLock().lock();
+    try {
+      return terms.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Terms of a text: letters and digits, lower-cased, without accents. */
+  static List<String> tokens(String text) {
+    List<String> tokens = new ArrayList<>();
+    if (text == null || text.isEmpty()) {
+      return tokens;
+    }
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+    StringBuilder token = new StringBuilder();
+    for (int i = 0; i < normalized.length(); i++) {
+      char c = normalized.charAt(i);
+      if (Character.getType(c) == Character.NON_SPACING_MARK) {
+        continue;
+      }
+      if (Character.isLetterOrDigit(c)) {
+        if (token.length() < MAX_TERM_LENGTH) {
+          token.append(c);
+        }
+      } else if (!token.isEmpty()) {
+        tokens.add(token.toString().toLowerCase(Locale.ROOT));
+        token.setLength(0);
+      }
+    }
+    if (!token.isEmpty()) {
+      tokens.add(token.toString().toLowerCase(Locale.ROOT));
+    }
+    return tokens;
+  }
+
+  private static void addTerms(Map<String, Postings> terms, int doc, ExampleText example) {
+    addTerms(terms, doc, example.code(), CODE);
+    addTerms(terms, doc, example.name(), NAME);
+    addTerms(terms, doc, example.description(), DESCRIPTION);
+  }
+
+  private static void addTerms(Map<String, Postings> terms, int doc, String text, int field) {
+    for (String term : tokens(text)) {
+      terms.computeIfAbsent(term, key -> new Postings()).add(doc, field);
+    }
+  }
+
+  private void store(int doc, ExampleText example) {
+    ids[doc] = example.id();
+    codes[doc] = example.code();
+    names[doc] = example.name();
+  }
+
+  private void delete(int doc) {
+    if (ids[doc] != null) {
+      ids[doc] = null;
+      codes[doc] = null;
+      names[doc] = null;
+      deleted++;
+    }
+  }
+
+  /**
+   * Postings of the term, or of the {@code maxExpansions} terms starting with it found in the most
+   * documents, kept in a bounded heap while the range is scanned; ties keep term order.
+   */
+  private List<Expansion> expansions(String term, boolean prefix) {
+    if (!prefix) {
+      Postings postings = terms.get(term);
+      return postings == null ? List.of() : List.of(new Expansion(postings, 1));
+    }
+    // Least frequent first, the later term first on ties, so the head is the one to drop
+    Comparator<Map.Entry<String, Postings>> frequency =
+        Comparator.<Map.Entry<String, Postings>>comparingInt(entry -> entry.getValue().size)
+            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+    PriorityQueue<Map.Entry<String, Postings>> frequent =
+        new PriorityQueue<>(maxExpansions + 1, frequency);
+    for (Map.Entry<String, Postings> entry :
+        terms.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+      frequent.add(entry);
+      if (frequent.size() > maxExpansions) {
+        frequent.poll();
+      }
+    }
+    List<Expansion> expansions = new ArrayList<>(frequent.size());
+    for (Map.Entry<String, Postings> entry : frequent) {
+      expansions.add(
+          new Expansion(entry.getValue(), (float) term.length() / entry.getKey().length()));
+    }
+    return expansions;
+  }
+
+  /** Documents of any of the expansions, with the best score of each. */
+  private Matches union(List<Expansion> expansions) {
+    long total = postings(expansions);
+    if (expansions.size() == 1) {
+      Expansion expansion = expansions.get(0);
+      Postings postings = expansion.postings();
+      Matches matches = new Matches(postings.size);
+      for (int i = 0; i < postings.size; i++) {
+        matches.add(postings.docs[i], score(postings.fields[i], expansion.coverage()));
+      }
+      return matches;
+    }
+    if (total > size / DENSE_UNION_RATIO) {
+      // Scattered over a good part of the index: one score slot per document beats a merge
+      float[] dense = new float[size];
+      int count = 0;
+      for (Expansion expansion : expansions) {
+        Postings postings = expansion.postings();
+        for (int i = 0; i < postings.size; i++) {
+          int doc = postings.docs[i];
+          float score = score(postings.fields[i], expansion.coverage());
+          if (dense[doc] == 0) {
+            count++;
+          }
+          dense[doc] = Math.max(dense[doc], score);
+        }
+      }
+      Matches matches = new Matches(count);
+      for (int doc = 0; doc < dense.length; doc++) {
+        if (dense[doc] > 0) {
+          matches.add(doc, dense[doc]);
+        }
+      }
+      return matches;
+    }
+    PriorityQueue<Cursor> cursors = new PriorityQueue<>(expansions.size());
+    expansions.forEach(expansion -> cursors.add(new Cursor(expansion)));
+    Matches matches = new Matches((int) total);
+    while (!cursors.isEmpty()) {
+      Cursor cursor = cursors.poll();
+      int doc = cursor.doc();
+      float score = score(cursor.postings.fields[cursor.position], cursor.coverage);
+      if (matches.size > 0 && matches.docs[matches.size - 1] == doc) {
+        matches.scores[matches.size - 1] = Math.max(matches.scores[matches.size - 1], score);
+      } else {
+        matches.add(doc, score);
+      }
+      if (++cursor.position < cursor.postings.size) {
+        cursors.add(cursor);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * The matches also in one of the expansions, adding the best score among them. Each candidate is
+   * looked up in the postings by galloping forward, so a selective query never reads the long
+   * postings of common terms in full.
+   */
+  private static Matches retain(Matches matches, List<Expansion> expansions) {
+    Matches kept = new Matches(matches.size);
+    Postings[] postings = new Postings[expansions.size()];
+    float[] coverages = new float[expansions.size()];
+    for (int e = 0; e < postings.length; e++) {
+      postings[e] = expansions.get(e).postings();
+      coverages[e] = expansions.get(e).coverage();
+    }
+    int[] positions = new int[postings.length];
+    for (int k = 0; k < matches.size; k++) {
+      int doc = matches.docs[k];
+      float best = 0;
+      for (int e = 0; e < postings.length; e++) {
+        int position = postings[e].seek(positions[e], doc);
+        positions[e] = position;
+        if (position < postings[e].size && postings[e].docs[position] == doc) {
+          best = Math.max(best, score(postings[e].fields[position], coverages[e]));
+        }
+      }
+      if (best > 0) {
+        kept.add(doc, matches.scores[k] + best);
+      }
+    }
+    return kept;
+  }
+
+  private static long postings(List<Expansion> expansions) {
+    long total = 0;
+    for (Expansion expansion : expansions) {
+      total += expansion.postings().size;
+    }
+    return total;
+  }
+
+  /** The window of the best matches, by score then document order, skipping deleted documents. */
+  private Result top(Matches matches, int offset, int limit) {
+    int window = offset + limit;
+    // Worst of the kept matches at the head
+    PriorityQueue<Integer> best =
+        new PriorityQueue<>(
+            window + 1,
+            (a, b) -> {
+              int byScore = Float.compare(matches.scores[a], matches.scores[b]);
+              return byScore != 0 ? byScore : Integer.compare(matches.docs[b], matches.docs[a]);
+            });
+    int total = 0;
+    for (int i = 0; i < matches.size; i++) {
+      if (ids[matches.docs[i]] == null) {
+        continue;
+      }
+      total++;
+      if (window == 0) {
+        continue;
+      }
+      if (best.size() < window) {
+        best.add(i);
+      } else if (matches.scores[i] > matches.scores[best.peek()]) {
+        best.poll();
+        best.add(i);
+      }
+    }
+    Hit[] ranked = new Hit[best.size()];
+    for (int i = ranked.length - 1; i >= 0; i--) {
+      int match = best.poll();
+      int doc = matches.docs[match];
+      ranked[i] = new Hit(ids[doc], codes[doc], names[doc], matches.scores[match]);
+    }
+    List<Hit> hits =
+        offset >= ranked.length
+            ? List.of()
+            : List.of(Arrays.copyOfRange(ranked, offset, ranked.length));
+    return new Result(hits, total);
+  }
+
+  private static float score(int fields, float coverage) {
+    float weight =
+        (fields & CODE) != 0
+            ? CODE_WEIGHT
+            : (fields & NAME) != 0 ? NAME_WEIGHT : DESCRIPTION_WEIGHT;
+    return weight * coverage;
+  }
+
+  /** Documents of a term, in increasing order, with the fields the term appears in. */
+  static final class Postings {
+    private int[] docs = new int[2];
+    private byte[] fields = new byte[2];
+    private int size;
+
+    void add(int doc, int field) {
+      if (size > 0 && docs[size - 1] == doc) {
+        fields[size - 1] |= (byte) field;
+        return;
+      }
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        fields = Arrays.copyOf(fields, size * 2);
+      }
+      docs[size] = doc;
+      fields[size] = (byte) field;
+      size++;
+    }
+
+    /** Index of the first document at or after {@code doc}, from {@code from} on. */
+    int seek(int from, int doc) {
+      if (from >= size || docs[from] >= doc) {
+        return from;
+      }
+      int step = 1;
+      while (from + step < size && docs[from + step] < doc) {
+        step *= 2;
+      }
+      // docs[from + step / 2] < doc <= docs[from + step], or the end
+      int found =
+          Arrays.binarySearch(docs, from + step / 2 + 1, Math.min(from + step, size - 1) + 1, doc);
+      return found >= 0 ? found : -found - 1;
+    }
+
+    /** Appends postings of later documents. */
+    Postings append(Postings later) {
+      if (size + later.size > docs.length) {
+        docs = Arrays.copyOf(docs, size + later.size);
+        fields = Arrays.copyOf(fields, size + later.size);
+      }
+      System.arraycopy(later.docs, 0, docs, size, later.size);
+      System.arraycopy(later.fields, 0, fields, size, later.size);
+      size += later.size;
+      return this;
+    }
+  }
+
+  /** Position in the postings of one prefix expansion, ordered by current document. */
+  private static final class Cursor implements Comparable<Cursor> {
+    private final Postings postings;
+    private final float coverage;
+    private int position;
+
+    Cursor(Expansion expansion) {
+      this.postings = expansion.postings();
+      this.coverage = expansion.coverage();
+    }
+
+    int doc() {
+      return postings.docs[position];
+    }
+
+    @Override
+    public int compareTo(Cursor other) {
+      return Integer.compare(doc(), other.doc());
+    }
+  }
+
+  /** Matching documents in increasing order with their accumulated score. */
+  private static final class Matches {
+    private final int[] docs;
+    private final float[] scores;
+    private int size;
+
+    Matches(int capacity) {
+      this.docs = new int[capacity];
+      this.scores = new float[capacity];
+    }
+
+    void add(int doc, float score) {
+      docs[size] = doc;
+      scores[size] = score;
+      size++;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.wespeak.template.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} that remembers successfully decoded tokens, so a bearer token sent again and
+ * again is parsed and signature-verified only once. Entries are keyed by a SHA-256 hash of the
+ * token (the raw token is never kept as a key) and expire at {@code min(exp, ttl)}. Failed decodes
+ * are never cached.
+ *
+ * <p>Metrics: {@code cache.gets{cache=jwt,result=hit|miss}} and friends for the hit rate, and
+ * {@code security.jwt.verification} timing the delegate (parsing + signature + claims checks).
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+  private final Cache<String, Jwt> cache;
+  private final Timer verificationTimer;
+
+  public CachingJwtDecoder(
+      JwtDecoder delegate, long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry(ttl))
+            .recordStats()
+            .build();
+    this.verificationTimer =
+        Timer.builder("security.jwt.verification")
+            .description("Time spent decoding and verifying JWTs on cache misses")
+            .register(meterRegistry);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt");
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    String key = hash(token);
+    Jwt cached = cache.getIfPresent(key);
+    if (cached != null && !isExpired(cached)) {
+      return cached;
+    }
+
+    Jwt jwt = verificationTimer.record(() -> delegate.decode(token));
+    cache.put(key, jwt);
+    return jwt;
+  }
+
+  long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  private static boolean isExpired(Jwt jwt) {
+    return jwt.getExpiresAt() != null && !jwt.getExpiresAt().isAfter(Instant.now());
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
+  /** Keeps an entry until the token expires or the TTL elapses, whichever comes first. */
+  private record TokenExpiry(Duration ttl) implements Expiry<String, Jwt> {
+
+    @Override
+    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+      long ttlNanos = ttl.toNanos();
+      if (jwt.getExpiresAt() == null) {
+        return ttlNanos;
+      }
+      long untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos();
+      return Math.max(0, Math.min(ttlNanos, untilExpiry));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, jwt, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.wespeak.template.service;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.wespeak.template.CollectionVersionEntity;
+
+/**
+ * Collection-level versions for conditional GETs on lists. Increment the version after the write
+ * has committed, outside of its transaction: every create would otherwise conflict on the same
+ * counter document. If an increment is lost (crash in between), lists keep their previous ETag
+ * until the next write.
+ *
+ * <p>A failed increment is retried on the next read of the version and every {@code
+ * app.collection-version.retry-interval}. Until one succeeds, this node reports the version as
+ * {@link CollectionVersion#UNKNOWN}, so that lists are served without validators rather than
+ * answered 304 with stale data.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CollectionVersionService {
+
+  private final MongoTemplate mongoTemplate;
+
+  private final Set<String> pendingIncrements = ConcurrentHashMap.newKeySet();
+
+  /** Version of a collection; version 0 with no date before its first increment. */
+  public record CollectionVersion(long version, Instant updatedAt) {
+
+    /** Version that cannot be trusted: serve without ETag or Last-Modified. */
+    public static final CollectionVersion UNKNOWN = new CollectionVersion(-1, null);
+
+    public boolean known() {
+      return version >= 0;
+    }
+  }
+
+  public CollectionVersion current(String collection) {
+    if (isPending(collection) && !tryIncrement(collection)) {
+      return CollectionVersion.UNKNOWN;
+    }
+    CollectionVersionEntity entity =
+        mongoTemplate.findById(collection, CollectionVersionEntity.class);
+    return entity != null
+        ? new CollectionVersion(entity.getVersion(), entity.getUpdatedAt())
+        : new CollectionVersion(0, null);
+  }
+
+  public void increment(String collection) {
+    if (!tryIncrement(collection)) {
+      markPending(collection);
+    }
+  }
+
+  /** Records an increment that failed elsewhere (e.g. reactively), to be retried. */
+  public void markPending(String collection) {
+    pendingIncrements.add(collection);
+  }
+
+  /** Records that an increment made elsewhere succeeded, covering the pending one. */
+  public void clearPending(String collection) {
+    pendingIncrements.remove(collection);
+  }
+
+  /** Whether an increment of the collection failed and has not been retried successfully yet. */
+  public boolean isPending(String collection) {
+    return pendingIncrements.contains(collection);
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.collection-version.retry-interval:5s}",
+      fixedDelayString = "${app.collection-version.retry-interval:5s}")
+  public void retryPendingIncrements() {
+    pendingIncrements.forEach(this::tryIncrement);
+  }
+
+  /** Increments the version; on success, clears a pending increment (both count as one). */
+  private boolean tryIncrement(String collection) {
+    try {
+      mongoTemplate.upsert(
+          Query.query(Criteria.where("_id").is(collection)),
+          new Update().inc("version", 1).set("updatedAt", Instant.now()),
+          CollectionVersionEntity.class);
+      clearPending(collection);
+      return true;
+    } catch (RuntimeException ex) {
+      log.warn("Version increment of '{}' failed: {}", collection, ex.getMessage());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package org.wespeak.template.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.ExampleEntity;
+
+/**
+ * Warms the {@code examples} cache of a starting pod with the hottest examples, so the first
+ * minutes after a deploy or a scale-out are not served from Mongo.
+ *
+ * <ul>
+ *   <li>Every {@code app.cache.warm-up.snapshot-interval}, and at shutdown, the most read ids are
+ *       written to {@code app.cache.warm-up.snapshot-path}, one per line. Mount a volume there for
+ *       the snapshot to survive the pod.
+ *   <li>Once the application is ready, up to {@code app.cache.warm-up.keys} ids are loaded from the
+ *       snapshot or, without one, the most recently updated examples from Mongo (reads are not
+ *       tracked in Mongo).
+ * </ul>
+ *
+ * <p>As a health indicator in the readiness group, it keeps the pod out of service until the
+ * warm-up is over or has run for {@code app.cache.warm-up.budget}, whichever comes first.
+ *
+ * <p>Metrics: {@code cache.warmup.duration{cache,source}} and {@code cache.warmup.keys{cache,
+ * source}}, {@code source} being {@code snapshot} or {@code mongo}.
+ *
+ * <p>Not used by the {@code reactive} profile, whose reads do not go through the cache.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class ExampleCacheWarmer implements HealthIndicator {
+
+  private static final int BATCH_SIZE = 500;
+
+  enum State {
+    PENDING,
+    WARMING,
+    DONE,
+    FAILED
+  }
+
+  private final ExampleService exampleService;
+  private final MongoTemplate mongoTemplate;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final int maxKeys;
+  private final Path snapshotPath;
+  private final Duration budget;
+
+  private volatile State state = State.PENDING;
+  private volatile String source;
+  private volatile int keysLoaded;
+  private volatile long startedAt;
+  private volatile Duration duration;
+
+  public ExampleCacheWarmer(
+      ExampleService exampleService,
+      MongoTemplate mongoTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.warm-up.enabled:true}") boolean enabled,
+      @Value("${app.cache.warm-up.keys:5000}") int maxKeys,
+      @Value("${app.cache.warm-up.snapshot-path}") Path snapshotPath,
+      @Value("${app.cache.warm-up.budget:30s}") Duration budget) {
+    this.exampleService = exampleService;
+    this.mongoTemplate = mongoTemplate;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.maxKeys = maxKeys;
+    this.snapshotPath = snapshotPath;
+    this.budget = budget;
+  }
+
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!enabled) {
+      return;
+    }
+    startedAt = System.nanoTime();
+    state = State.WARMING;
+    try {
+      List<String> ids = readSnapshot();
+      source = ids.isEmpty() ? "mongo" : "snapshot";
+      if (ids.isEmpty()) {
+        ids = recentlyUpdatedIds();
+      }
+      for (int from = 0; from < ids.size() && !overBudget(); from += BATCH_SIZE) {
+        keysLoaded +=
+            exampleService.warmUp(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+      }
+      state = State.DONE;
+    } catch (RuntimeException ex) {
+      log.warn("Examples cache warm-up failed: {}", ex.getMessage());
+      state = State.FAILED;
+    }
+    duration = Duration.ofNanos(System.nanoTime() - startedAt);
+    Timer.builder("cache.warmup.duration")
+        .description("Time spent loading hot keys into the cache at startup")
+        .tags("cache", ExampleService.EXAMPLES_CACHE, "source", source != null ? source : "none")
+        .register(meterRegistry)
+        .record(duration);
+    Counter.builder("cache.warmup.keys")
+        .description("Keys loaded into the cache at startup")
+        .tags("cache", ExampleService.EXAMPLES_CACHE, "source", source != null ? source : "none")
+        .register(meterRegistry)
+        .increment(keysLoaded);
+    log.info(
+        "Examples cache warm-up {} with {} keys from {} in {} ms{}",
+        state == State.DONE ? "done" : "failed",
+        keysLoaded,
+        source,
+        duration.toMillis(),
+        overBudget() ? " (budget exceeded)" : "");
+  }
+
+  /** Persists the hottest ids for the next start; an empty snapshot never replaces the last one. */
+  @Scheduled(
+      initialDelayString = "${app.cache.warm-up.snapshot-interval:5m}",
+      fixedDelayString = "${app.cache.warm-up.snapshot-interval:5m}")
+  public void writeSnapshot() {
+    if (!enabled) {
+      return;
+    }
+    List<String> ids = exampleService.hottestIds(maxKeys);
+    if (ids.isEmpty()) {
+      return;
+    }
+    try {
+      Path directory = snapshotPath.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, "hot-keys", ".tmp");
+      Files.write(temp, ids, StandardCharsets.UTF_8);
+      Files.move(
+          temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.debug("Wrote {} hot example ids to {}", ids.size(), snapshotPath);
+    } catch (IOException ex) {
+      log.warn("Cannot write the hot keys snapshot {}: {}", snapshotPath, ex.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void snapshotOnShutdown() {
+    writeSnapshot();
+  }
+
+  @Override
+  public Health health() {
+    if (!enabled) {
+      return Health.up().withDetail("state", "disabled").build();
+    }
+    State current = state;
+    boolean warming = current == State.PENDING || current == State.WARMING;
+    Health.Builder health = warming && !overBudget() ? Health.outOfService() : Health.up();
+    health.withDetail("state", current).withDetail("keysLoaded", keysLoaded);
+    if (source != null) {
+      health.withDetail("source", source);
+    }
+    if (duration != null) {
+      health.withDetail("durationMs", duration.toMillis());
+    }
+    return health.build();
+  }
+
+  private boolean overBudget() {
+    return startedAt != 0 && System.nanoTime() - startedAt > budget.toNanos();
+  }
+
+  private List<String> readSnapshot() {
+    if (!Files.isReadable(snapshotPath)) {
+      return List.of();
+    }
+    try (Stream<String> lines = Files.lines(snapshotPath, StandardCharsets.UTF_8)) {
+      return lines.map(String::trim).filter(line -> !line.isEmpty()).limit(maxKeys).toList();
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Cannot read the hot keys snapshot {}: {}", snapshotPath, ex.getMessage());
+      return List.of();
+    }
+  }
+
+  private List<String> recentlyUpdatedIds() {
+    Query query = new Query().with(Sort.by(Sort.Direction.DESC, "updatedAt")).limit(maxKeys);
+    query.fields().include("_id");
+    return mongoTemplate.find(query, ExampleEntity.class).stream()
+        .map(ExampleEntity::getId)
+        .toList();
+  }
+}
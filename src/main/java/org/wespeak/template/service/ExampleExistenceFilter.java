@@ -0,0 +1,274 @@
+package org.wespeak.template.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.cache.BloomFilter;
+import org.wespeak.template.cache.CacheInvalidationMessage;
+import org.wespeak.template.cache.TwoTierCacheManager;
+
+/**
+ * Answers lookups of examples that do not exist without querying Mongo:
+ *
+ * <ul>
+ *   <li>ids that are not valid ObjectIds can never match;
+ *   <li>ids and codes recently found missing are kept in a short-TTL negative cache ({@code
+ *       app.examples.negative-cache.*});
+ *   <li>codes absent from a Bloom filter over every existing code are missing. The filter is
+ *       rebuilt from Mongo at startup and every {@code app.examples.bloom.rebuild-interval}, which
+ *       also drops the codes of deleted examples, and is updated on create.
+ * </ul>
+ *
+ * <p>With the two-tier cache, creates on other nodes reach this node through the {@code
+ * example-codes} invalidations. Since those can be lost, and do not exist in local mode, the filter
+ * also adds the codes of the examples created since its last catch-up every {@code
+ * app.examples.bloom.catch-up-interval}: a code created on another node is reported missing for at
+ * most that long, as negative cache entries are.
+ *
+ * <p>Metrics: {@code examples.lookup.short_circuit{reason}}, {@code examples.bloom.positives} and
+ * {@code examples.bloom.false_positives} (codes the filter let through that Mongo did not find),
+ * their ratio {@code examples.bloom.false_positive_rate}, and {@code
+ * examples.bloom.expected_false_positive_rate} from the filter's fill ratio.
+ */
+@Component
+@Slf4j
+public class ExampleExistenceFilter {
+
+  private static final int REBUILD_BATCH_SIZE = 1000;
+
+  /**
+   * Catch-ups also read the examples created this long before the previous one: clock skew between
+   * nodes, which generate the ObjectIds, and transactions committed after their insert.
+   */
+  private static final Duration CATCH_UP_OVERLAP = Duration.ofSeconds(10);
+
+  private final MongoTemplate mongoTemplate;
+  private final Cache<String, Boolean> missingIds;
+  private final Cache<String, Boolean> missingCodes;
+  private final long expectedInsertions;
+  private final double falsePositiveRate;
+  private final Counter invalidIdShortCircuits;
+  private final Counter negativeCacheShortCircuits;
+  private final Counter bloomShortCircuits;
+  private final Counter bloomPositives;
+  private final Counter bloomFalsePositives;
+
+  private volatile BloomFilter codes;
+  private volatile BloomFilter rebuilding;
+  private volatile boolean ready;
+  private volatile Instant caughtUpTo;
+
+  public ExampleExistenceFilter(
+      MongoTemplate mongoTemplate,
+      CacheManager cacheManager,
+      MeterRegistry meterRegistry,
+      @Value("${app.examples.negative-cache.ttl:30s}") Duration negativeTtl,
+      @Value("${app.examples.negative-cache.maximum-size:100000}") long negativeMaximumSize,
+      @Value("${app.examples.bloom.expected-insertions:1000000}") long expectedInsertions,
+      @Value("${app.examples.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.mongoTemplate = mongoTemplate;
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveRate = falsePositiveRate;
+    this.codes = new BloomFilter(expectedInsertions, falsePositiveRate);
+    this.missingIds = negativeCache(negativeTtl, negativeMaximumSize);
+    this.missingCodes = negativeCache(negativeTtl, negativeMaximumSize);
+    CaffeineCacheMetrics.monitor(meterRegistry, missingIds, "examples-missing-ids");
+    CaffeineCacheMetrics.monitor(meterRegistry, missingCodes, "examples-missing-codes");
+
+    this.invalidIdShortCircuits = shortCircuitCounter(meterRegistry, "invalid_id");
+    this.negativeCacheShortCircuits = shortCircuitCounter(meterRegistry, "negative_cache");
+    this.bloomShortCircuits = shortCircuitCounter(meterRegistry, "bloom_filter");
+    this.bloomPositives =
+        Counter.builder("examples.bloom.positives")
+            .description("Code lookups the Bloom filter let through to Mongo")
+            .register(meterRegistry);
+    this.bloomFalsePositives =
+        Counter.builder("examples.bloom.false_positives")
+            .description("Code lookups let through by the Bloom filter that Mongo did not find")
+            .register(meterRegistry);
+    Gauge.builder("examples.bloom.false_positive_rate", this, ExampleExistenceFilter::observedRate)
+        .description("Observed false positives over positives of the code Bloom filter")
+        .register(meterRegistry);
+    Gauge.builder(
+            "examples.bloom.expected_false_positive_rate",
+            this,
+            filter -> filter.codes.expectedFalsePositiveRate())
+        .description("False positive rate expected from the code Bloom filter fill ratio")
+        .register(meterRegistry);
+
+    if (cacheManager instanceof TwoTierCacheManager twoTier) {
+      twoTier.addInvalidationListener(this::onRemoteInvalidation);
+    }
+  }
+
+  /** Whether the id is known not to exist; counted as a short circuit when it is. */
+  public boolean isKnownMissingId(String id) {
+    if (!ObjectId.isValid(id)) {
+      invalidIdShortCircuits.increment();
+      return true;
+    }
+    if (missingIds.getIfPresent(id) != null) {
+      negativeCacheShortCircuits.increment();
+      return true;
+    }
+    return false;
+  }
+
+  /** Whether the code is known not to exist; counted as a short circuit when it is. */
+  public boolean isKnownMissingCode(String code) {
+    if (missingCodes.getIfPresent(code) != null) {
+      negativeCacheShortCircuits.increment();
+      return true;
+    }
+    if (ready && !codes.mightContain(code)) {
+      bloomShortCircuits.increment();
+      return true;
+    }
+    if (ready) {
+      bloomPositives.increment();
+    }
+    return false;
+  }
+
+  /** Records an id that Mongo did not find. */
+  public void idMissing(String id) {
+    missingIds.put(id, Boolean.TRUE);
+  }
+
+  /** Records a code that Mongo did not find, after {@link #isKnownMissingCode} let it through. */
+  public void codeMissing(String code) {
+    if (ready) {
+      bloomFalsePositives.increment();
+    }
+    missingCodes.put(code, Boolean.TRUE);
+  }
+
+  /**
+   * Records a created example. Call it before the write becomes visible, so this node never reports
+   * the code missing once it exists, and again after, to drop a negative entry cached by a
+   * concurrent lookup in between.
+   */
+  public void codeAdded(String code) {
+    codes.put(code);
+    BloomFilter next = rebuilding;
+    if (next != null) {
+      next.put(code);
+    }
+    missingCodes.invalidate(code);
+  }
+
+  /** Records a deleted example. Its code stays in the Bloom filter until the next rebuild. */
+  public void removed(String id, String code) {
+    missingIds.put(id, Boolean.TRUE);
+    missingCodes.put(code, Boolean.TRUE);
+  }
+
+  /** Rebuilds the code filter from Mongo; codes added meanwhile go to both filters. */
+  @Scheduled(initialDelay = 0, fixedDelayString = "${app.examples.bloom.rebuild-interval:1h}")
+  public synchronized void rebuild() {
+    long start = System.nanoTime();
+    Instant startedAt = Instant.now();
+    BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+    rebuilding = next;
+    long count = 0;
+    Query query = new Query();
+    query.fields().include("code");
+    query.cursorBatchSize(REBUILD_BATCH_SIZE);
+    try (Stream<ExampleEntity> entities = mongoTemplate.stream(query, ExampleEntity.class)) {
+      for (ExampleEntity entity : (Iterable<ExampleEntity>) entities::iterator) {
+        next.put(entity.getCode());
+        count++;
+      }
+      codes = next;
+      caughtUpTo = startedAt;
+      ready = true;
+    } catch (RuntimeException ex) {
+      log.warn("Example code filter rebuild failed, keeping the previous one: {}", ex.getMessage());
+      return;
+    } finally {
+      rebuilding = null;
+    }
+    if (count > expectedInsertions) {
+      log.warn(
+          "{} example codes exceed app.examples.bloom.expected-insertions={}, false positives"
+              + " will rise",
+          count,
+          expectedInsertions);
+    }
+    log.info(
+        "Example code filter rebuilt with {} codes in {} ms",
+        count,
+        Duration.ofNanos(System.nanoTime() - start).toMillis());
+  }
+
+  /** Adds the codes of the examples created since the previous catch-up or rebuild, on any node. */
+  @Scheduled(
+      initialDelayString = "${app.examples.bloom.catch-up-interval:5s}",
+      fixedDelayString = "${app.examples.bloom.catch-up-interval:5s}")
+  public synchronized void catchUp() {
+    if (!ready) {
+      return;
+    }
+    Instant startedAt = Instant.now();
+    Query query =
+        Query.query(Criteria.where("_id").gte(firstObjectIdAt(caughtUpTo.minus(CATCH_UP_OVERLAP))));
+    query.fields().include("code");
+    try {
+      List<ExampleEntity> created = mongoTemplate.find(query, ExampleEntity.class);
+      created.forEach(entity -> codes.put(entity.getCode()));
+      caughtUpTo = startedAt;
+      log.debug("Example code filter caught up with {} recent codes", created.size());
+    } catch (RuntimeException ex) {
+      log.warn("Example code filter catch-up failed: {}", ex.getMessage());
+    }
+  }
+
+  private void onRemoteInvalidation(CacheInvalidationMessage message) {
+    // Creates evict the code mapping after commit, on every node
+    if (ExampleService.EXAMPLE_CODES_CACHE.equals(message.cacheName()) && message.key() != null) {
+      codeAdded(message.key());
+    }
+  }
+
+  /** Lowest ObjectId generated at {@code instant}: its timestamp, then zeros. */
+  private static ObjectId firstObjectIdAt(Instant instant) {
+    return new ObjectId(String.format("%08x%016x", instant.getEpochSecond(), 0));
+  }
+
+  private double observedRate() {
+    double positives = bloomPositives.count();
+    return positives == 0 ? 0 : bloomFalsePositives.count() / positives;
+  }
+
+  private static Cache<String, Boolean> negativeCache(Duration ttl, long maximumSize) {
+    return Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumSize(maximumSize)
+        .recordStats()
+        .build();
+  }
+
+  private static Counter shortCircuitCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("examples.lookup.short_circuit")
+        .description("Example lookups answered as not found without querying Mongo")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,477 @@
+package org.wespeak.template.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.CollectionVersionEntity;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.service.CollectionVersionService.CollectionVersion;
+
+/**
+ * In-memory copy of the {@code examples} collection, so reads need neither the cache nor Mongo.
+ * Opt-in with {@code app.examples.replica.enabled}; requires a replica set.
+ *
+ * <p>A single tailer thread opens a change stream on {@code examples} and {@code
+ * collection_versions}, loads the collection (changes made during the load are replayed from the
+ * stream) and then applies every change. Readers get an immutable {@link Snapshot}, replaced
+ * whenever the stream has been drained, so a burst of writes costs one copy. The tailer state is
+ * confined to its thread: request threads only read the published snapshot and queue removals.
+ *
+ * <p>The snapshot and its resume token are checkpointed to {@code
+ * app.examples.replica.checkpoint-path} every {@code app.examples.replica.checkpoint-interval} and
+ * at shutdown. A restarting pod starts from the checkpoint and only replays the changes after its
+ * token; when the token has left the oplog, it loads the collection again.
+ *
+ * <p>The replica lags by the time since the stream was last drained. While it is loading or lags
+ * more than {@code app.examples.replica.max-lag}, {@link #current()} returns {@code null} and reads
+ * go through the cache and Mongo as without the replica.
+ *
+ * <p>Metrics: {@code examples.replica.lag}, {@code examples.replica.size} and {@code
+ * examples.replica.fallbacks{reason}} ({@code loading}, {@code lag}).
+ */
+@Component
+@Slf4j
+public class ExampleReadReplica {
+
+  private static final String VERSIONS_COLLECTION = "collection_versions";
+  private static final Duration MAX_AWAIT = Duration.ofSeconds(1);
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+  private static final int LOAD_BATCH_SIZE = 1000;
+  private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+  private final MongoTemplate mongoTemplate;
+  private final CollectionVersionService collectionVersionService;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final long maxLagNanos;
+  private final Path checkpointPath;
+  private final Counter loadingFallbacks;
+  private final Counter lagFallbacks;
+
+  // Removals made on this pod, hidden from readers until a published snapshot no longer has them
+  private final Set<String> pendingRemovals = ConcurrentHashMap.newKeySet();
+
+  // Tailer state, only touched by the tailer thread
+  private final Map<String, ExampleResponse> working = new HashMap<>();
+  private CollectionVersion version = new CollectionVersion(0, null);
+  private BsonDocument resumeToken;
+  private boolean loaded;
+  private boolean dirty;
+
+  private volatile Snapshot snapshot;
+  private volatile long caughtUpAt;
+  private volatile boolean running;
+
+  public ExampleReadReplica(
+      MongoTemplate mongoTemplate,
+      CollectionVersionService collectionVersionService,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.examples.replica.enabled:false}") boolean enabled,
+      @Value("${app.examples.replica.max-lag:5s}") Duration maxLag,
+      @Value("${app.examples.replica.checkpoint-path}") Path checkpointPath) {
+    this.mongoTemplate = mongoTemplate;
+    this.collectionVersionService = collectionVersionService;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.maxLagNanos = maxLag.toNanos();
+    this.checkpointPath = checkpointPath;
+    this.loadingFallbacks = fallbackCounter(meterRegistry, "loading");
+    this.lagFallbacks = fallbackCounter(meterRegistry, "lag");
+    TimeGauge.builder("examples.replica.lag", this, TimeUnit.NANOSECONDS, ExampleReadReplica::lag)
+        .description("Time since the read replica last caught up with the change stream")
+        .register(meterRegistry);
+    Gauge.builder("examples.replica.size", this, ExampleReadReplica::size)
+        .description("Examples held by the read replica")
+        .register(meterRegistry);
+  }
+
+  /**
+   * The current snapshot, or {@code null} when reads must go to Mongo: replica disabled, still
+   * loading or lagging more than {@code max-lag}.
+   */
+  public Snapshot current() {
+    if (!enabled) {
+      return null;
+    }
+    Snapshot current = snapshot;
+    double lag = lag();
+    if (current == null || Double.isNaN(lag)) {
+      loadingFallbacks.increment();
+      return null;
+    }
+    if (lag > maxLagNanos) {
+      lagFallbacks.increment();
+      return null;
+    }
+    return current;
+  }
+
+  /**
+   * Hides a deleted example right away, so the pod that deleted it stops serving it by id or code
+   * before the change comes back through the stream. The tailer drops it from the next snapshot;
+   * lists may show it until then.
+   */
+  public void removed(String id) {
+    if (enabled) {
+      pendingRemovals.add(id);
+    }
+  }
+
+  /** Whether the example was deleted on this pod and may still be in the current snapshot. */
+  public boolean isRemoved(String id) {
+    return pendingRemovals.contains(id);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    Thread.ofVirtual().name("examples-replica").start(this::run);
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    writeCheckpoint();
+  }
+
+  /** Writes the published snapshot and its resume token for the next start. */
+  @Scheduled(
+      initialDelayString = "${app.examples.replica.checkpoint-interval:1m}",
+      fixedDelayString = "${app.examples.replica.checkpoint-interval:1m}")
+  public void writeCheckpoint() {
+    Snapshot current = snapshot;
+    if (!enabled || current == null || current.resumeToken == null) {
+      return;
+    }
+    try {
+      Path directory = checkpointPath.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, "examples-replica", ".tmp");
+      objectMapper.writeValue(
+          temp.toFile(),
+          new Checkpoint(
+              current.resumeToken.toJson(), current.version, Arrays.asList(current.examples)));
+      Files.move(
+          temp,
+          checkpointPath,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      log.debug("Checkpointed {} examples to {}", current.size(), checkpointPath);
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Cannot write the read replica checkpoint {}: {}", checkpointPath, ex.getMessage());
+    }
+  }
+
+  private void run() {
+    restoreCheckpoint();
+    while (running) {
+      try {
+        tail();
+      } catch (MongoServerException ex) {
+        if (ex.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+          log.warn("Read replica resume token no longer in the oplog, reloading examples");
+          reset();
+        } else {
+          retryLater(ex);
+        }
+      } catch (RuntimeException ex) {
+        retryLater(ex);
+      }
+    }
+  }
+
+  /** Opens the change stream, loads the collection if needed and applies changes until stopped. */
+  private void tail() {
+    try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openStream()) {
+      if (!loaded) {
+        load();
+      }
+      while (running) {
+        long polledAt = System.nanoTime();
+        ChangeStreamDocument<Document> change = cursor.tryNext();
+        if (change != null) {
+          if (!apply(change)) {
+            reset();
+            return;
+          }
+          continue;
+        }
+        resumeToken = cursor.getResumeToken();
+        List<String> removals = List.copyOf(pendingRemovals);
+        for (String id : removals) {
+          dirty |= working.remove(id) != null;
+        }
+        if (dirty || snapshot == null) {
+          publish();
+        }
+        pendingRemovals.removeAll(removals);
+        caughtUpAt = polledAt;
+      }
+    }
+  }
+
+  private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openStream() {
+    var stream =
+        mongoTemplate
+            .getDb()
+            .watch(
+                List.of(
+                    Aggregates.match(
+                        Filters.in("ns.coll", ExampleService.COLLECTION, VERSIONS_COLLECTION))),
+                Document.class)
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS);
+    return resumeToken != null ? stream.resumeAfter(resumeToken).cursor() : stream.cursor();
+  }
+
+  /** Reads the version first: a newer list under an older ETag is only a missed 304. */
+  private void load() {
+    long start = System.nanoTime();
+    working.clear();
+    version = collectionVersionService.current(ExampleService.COLLECTION);
+    Query query = new Query();
+    query.cursorBatchSize(LOAD_BATCH_SIZE);
+    try (Stream<ExampleResponse> examples =
+        mongoTemplate
+            .query(ExampleEntity.class)
+            .as(ExampleResponse.class)
+            .matching(query)
+            .stream()) {
+      examples.forEach(example -> working.put(example.getId(), example));
+    }
+    loaded = true;
+    dirty = true;
+    log.info(
+        "Read replica loaded {} examples in {} ms",
+        working.size(),
+        Duration.ofNanos(System.nanoTime() - start).toMillis());
+  }
+
+  /** Applies a change; {@code false} when the stream is no longer usable and must be reopened. */
+  private boolean apply(ChangeStreamDocument<Document> change) {
+    String collection =
+        change.getNamespace() != null ? change.getNamespace().getCollectionName() : null;
+    switch (change.getOperationType()) {
+      case INSERT, UPDATE, REPLACE -> {
+        Document document = change.getFullDocument();
+        if (VERSIONS_COLLECTION.equals(collection)) {
+          if (document != null && ExampleService.COLLECTION.equals(document.get("_id"))) {
+            CollectionVersionEntity entity =
+                mongoTemplate.getConverter().read(CollectionVersionEntity.class, document);
+            version = new CollectionVersion(entity.getVersion(), entity.getUpdatedAt());
+          }
+        } else if (document != null) {
+          ExampleResponse example =
+              mongoTemplate.getConverter().read(ExampleResponse.class, document);
+          working.put(example.getId(), example);
+        } else {
+          // Deleted before the lookup of its update: the delete follows
+          working.remove(id(change.getDocumentKey()));
+        }
+      }
+      case DELETE -> {
+        if (ExampleService.COLLECTION.equals(collection)) {
+          working.remove(id(change.getDocumentKey()));
+        }
+      }
+      case DROP -> {
+        if (ExampleService.COLLECTION.equals(collection)) {
+          working.clear();
+        }
+      }
+      case DROP_DATABASE, RENAME, INVALIDATE -> {
+        log.warn("Read replica stream invalidated by a {}, reloading", change.getOperationType());
+        return false;
+      }
+      default -> {
+        return true;
+      }
+    }
+    dirty = true;
+    return true;
+  }
+
+  private void publish() {
+    snapshot = new Snapshot(working, version, resumeToken);
+    dirty = false;
+  }
+
+  private void reset() {
+    loaded = false;
+    resumeToken = null;
+  }
+
+  private void restoreCheckpoint() {
+    if (!Files.isReadable(checkpointPath)) {
+      return;
+    }
+    try {
+      Checkpoint checkpoint = objectMapper.readValue(checkpointPath.toFile(), Checkpoint.class);
+      checkpoint.examples().forEach(example -> working.put(example.getId(), example));
+      version = checkpoint.version();
+      resumeToken = BsonDocument.parse(checkpoint.resumeToken());
+      loaded = true;
+      publish();
+      log.info("Read replica restored {} examples from {}", working.size(), checkpointPath);
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Cannot read the read replica checkpoint {}: {}", checkpointPath, ex.getMessage());
+      working.clear();
+      loaded = false;
+      resumeToken = null;
+    }
+  }
+
+  private void retryLater(RuntimeException ex) {
+    log.warn("Read replica change stream failed, retrying: {}", ex.getMessage());
+    try {
+      Thread.sleep(RETRY_DELAY);
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  /** Nanoseconds since the stream was last drained; NaN until it has been drained once. */
+  private double lag() {
+    long at = caughtUpAt;
+    return at == 0 ? Double.NaN : System.nanoTime() - at;
+  }
+
+  private int size() {
+    Snapshot current = snapshot;
+    return current != null ? current.size() : 0;
+  }
+
+  private static String id(BsonDocument documentKey) {
+    BsonValue id = documentKey.get("_id");
+    return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+  }
+
+  private static Counter fallbackCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("examples.replica.fallbacks")
+        .description("Example reads sent to the cache and Mongo instead of the read replica")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  /** On-disk form of a snapshot. */
+  record Checkpoint(
+      String resumeToken, CollectionVersion version, List<ExampleResponse> examples) {}
+
+  /**
+   * Immutable state of the collection: examples in id order (ObjectId hex strings sort as the
+   * ObjectIds do), hash indexes by id and code, and the active flags as a bit set over the id
+   * order. Examples are shared with the other snapshots and must not be modified.
+   */
+  public static final class Snapshot {
+
+    private final String[] ids;
+    private final ExampleResponse[] examples;
+    private final Map<String, ExampleResponse> byId;
+    private final Map<String, ExampleResponse> byCode;
+    private final BitSet active;
+    private final CollectionVersion version;
+    private final BsonDocument resumeToken;
+
+    Snapshot(
+        Map<String, ExampleResponse> working, CollectionVersion version, BsonDocument resumeToken) {
+      this.ids = working.keySet().toArray(String[]::new);
+      Arrays.sort(ids);
+      this.examples = new ExampleResponse[ids.length];
+      this.active = new BitSet(ids.length);
+      Map<String, ExampleResponse> codes = HashMap.newHashMap(ids.length);
+      for (int i = 0; i < ids.length; i++) {
+        ExampleResponse example = working.get(ids[i]);
+        examples[i] = example;
+        if (example.getCode() != null) {
+          codes.put(example.getCode(), example);
+        }
+        if (Boolean.TRUE.equals(example.getActive())) {
+          active.set(i);
+        }
+      }
+      this.byId = Map.copyOf(working);
+      this.byCode = Map.copyOf(codes);
+      this.version = version;
+      this.resumeToken = resumeToken;
+    }
+
+    public ExampleResponse byId(String id) {
+      return byId.get(id);
+    }
+
+    public ExampleResponse byCode(String code) {
+      return byCode.get(code);
+    }
+
+    /** Up to {@code limit} examples with an id greater than {@code afterId} (all if null). */
+    public List<ExampleResponse> page(String afterId, int limit) {
+      int from = 0;
+      if (afterId != null) {
+        int found = Arrays.binarySearch(ids, afterId);
+        from = found >= 0 ? found + 1 : -found - 1;
+      }
+      int to = (int) Math.min((long) from + limit, ids.length);
+      return List.of(Arrays.copyOfRange(examples, from, Math.max(from, to)));
+    }
+
+    /** Examples in id order, optionally only the active or inactive ones. */
+    public Stream<ExampleResponse> stream(Boolean activeOnly) {
+      if (activeOnly == null) {
+        return Arrays.stream(examples);
+      }
+      return activeOnly
+          ? active.stream().mapToObj(i -> examples[i])
+          : Stream.iterate(
+                  active.nextClearBit(0), i -> i < examples.length, i -> active.nextClearBit(i + 1))
+              .map(i -> examples[i]);
+    }
+
+    public CollectionVersion version() {
+      return version;
+    }
+
+    public int size() {
+      return ids.length;
+    }
+  }
+}
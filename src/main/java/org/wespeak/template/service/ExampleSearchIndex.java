@@ -0,0 +1,268 @@
+package org.wespeak.template.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.cache.CacheInvalidationMessage;
+import org.wespeak.template.cache.TwoTierCacheManager;
+import org.wespeak.template.exception.ServiceOverloadedException;
+import org.wespeak.template.search.InvertedIndex;
+import org.wespeak.template.search.InvertedIndex.ExampleText;
+import org.wespeak.template.search.InvertedIndex.Result;
+
+/**
+ * Local {@link InvertedIndex} over the examples, behind {@code GET /api/examples/search}.
+ *
+ * <p>The index is built from Mongo at startup and every {@code
+ * app.examples.search.rebuild-interval}, tokenizing in parallel; the rebuild also drops the
+ * documents deleted since. Until the first build, searches are answered with a 503. In between, it
+ * is updated:
+ *
+ * <ul>
+ *   <li>by {@link ExampleService} on create and delete, after commit;
+ *   <li>with the two-tier cache, by the invalidations of the other nodes: an {@code example-codes}
+ *       eviction indexes the example with that code if it exists (creates evict the code), an
+ *       {@code examples} eviction flagged as a delete removes the example. They are applied in
+ *       order on a thread of their own, never on the pub/sub listener thread that delivers them;
+ *       the codes evicted while that thread is busy are coalesced and fetched with one {@code $in}
+ *       query per {@value #LOAD_BATCH_SIZE} codes;
+ *   <li>by the {@code example.created} events consumed, for examples not indexed yet.
+ * </ul>
+ *
+ * <p>Changes made while a rebuild loads are replayed on the rebuilt index before it replaces the
+ * current one.
+ *
+ * <p>Metrics: {@code examples.search} (query latency), {@code examples.search.documents}, {@code
+ * examples.search.deleted} and {@code examples.search.terms}.
+ */
+@Component
+@Slf4j
+public class ExampleSearchIndex {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+  private static final Duration LOADING_RETRY_AFTER = Duration.ofSeconds(5);
+
+  private final MongoTemplate mongoTemplate;
+  private final int maxExpansions;
+  private final int minPrefixLength;
+  private final Timer queryTimer;
+  // Applies the other nodes' invalidations in the order received, off the pub/sub listener thread
+  private final ExecutorService invalidations =
+      Executors.newSingleThreadExecutor(Thread.ofVirtual().name("examples-search-sync").factory());
+
+  // Codes evicted by the other nodes and not fetched yet; guarded by itself
+  private final Set<String> evictedCodes = new LinkedHashSet<>();
+
+  private volatile InvertedIndex index;
+  private volatile boolean ready;
+  // Changes made during a rebuild, replayed on the rebuilt index; guarded by this
+  private List<Consumer<InvertedIndex>> pending;
+
+  public ExampleSearchIndex(
+      MongoTemplate mongoTemplate,
+      CacheManager cacheManager,
+      MeterRegistry meterRegistry,
+      @Value("${app.examples.search.max-expansions:64}") int maxExpansions,
+      @Value("${app.examples.search.min-prefix-length:2}") int minPrefixLength) {
+    this.mongoTemplate = mongoTemplate;
+    this.maxExpansions = maxExpansions;
+    this.minPrefixLength = minPrefixLength;
+    this.index = new InvertedIndex(maxExpansions, minPrefixLength);
+    this.queryTimer =
+        Timer.builder("examples.search")
+            .description("Latency of search queries on the local index")
+            .register(meterRegistry);
+    gauge(meterRegistry, "examples.search.documents", "Indexed examples", InvertedIndex::size);
+    gauge(
+        meterRegistry,
+        "examples.search.deleted",
+        "Deleted examples still in the index until its next rebuild",
+        InvertedIndex::deleted);
+    gauge(meterRegistry, "examples.search.terms", "Distinct indexed terms", InvertedIndex::terms);
+
+    if (cacheManager instanceof TwoTierCacheManager twoTier) {
+      twoTier.addInvalidationListener(this::onRemoteInvalidation);
+    }
+  }
+
+  /**
+   * Ranked examples matching the query, the last term as a prefix unless followed by a space.
+   *
+   * @throws ServiceOverloadedException until the index has been built once
+   */
+  public Result search(String query, int offset, int limit) {
+    if (!ready) {
+      throw new ServiceOverloadedException("Search index is loading", LOADING_RETRY_AFTER);
+    }
+    return queryTimer.record(() -> index.search(query, offset, limit));
+  }
+
+  /** Indexes a created example. */
+  public void created(ExampleResponse example) {
+    ExampleText text =
+        new ExampleText(
+            example.getId(), example.getCode(), example.getName(), example.getDescription());
+    apply(target -> target.add(text));
+  }
+
+  /**
+   * Indexes an example known from an event, unless already indexed with its description by a create
+   * or a rebuild.
+   */
+  public void createdElsewhere(String id, String code, String name) {
+    ExampleText text = new ExampleText(id, code, name, null);
+    apply(
+        target -> {
+          if (!target.contains(id)) {
+            target.add(text);
+          }
+        });
+  }
+
+  public void removed(String id) {
+    apply(target -> target.remove(id));
+  }
+
+  /** Rebuilds the index from Mongo; changes made meanwhile are replayed on the new one. */
+  @Scheduled(initialDelay = 0, fixedDelayString = "${app.examples.search.rebuild-interval:1h}")
+  public void rebuild() {
+    long start = System.nanoTime();
+    synchronized (this) {
+      pending = new ArrayList<>();
+    }
+    try {
+      List<ExampleText> examples = new ArrayList<>();
+      Query query = new Query();
+      query.fields().include("code", "name", "description");
+      query.cursorBatchSize(LOAD_BATCH_SIZE);
+      try (Stream<ExampleEntity> entities = mongoTemplate.stream(query, ExampleEntity.class)) {
+        entities.forEach(entity -> examples.add(text(entity)));
+      }
+      long loaded = System.nanoTime();
+      InvertedIndex next = InvertedIndex.build(examples, maxExpansions, minPrefixLength);
+      synchronized (this) {
+        pending.forEach(change -> change.accept(next));
+        index = next;
+        ready = true;
+      }
+      log.info(
+          "Search index rebuilt with {} examples and {} terms (load {} ms, build {} ms)",
+          examples.size(),
+          next.terms(),
+          Duration.ofNanos(loaded - start).toMillis(),
+          Duration.ofNanos(System.nanoTime() - loaded).toMillis());
+    } catch (RuntimeException ex) {
+      log.warn("Search index rebuild failed, keeping the previous one: {}", ex.getMessage());
+    } finally {
+      synchronized (this) {
+        pending = null;
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    invalidations.shutdownNow();
+  }
+
+  private synchronized void apply(Consumer<InvertedIndex> change) {
+    change.accept(index);
+    if (pending != null) {
+      pending.add(change);
+    }
+  }
+
+  private void onRemoteInvalidation(CacheInvalidationMessage message) {
+    if (message.key() == null) {
+      return;
+    }
+    boolean deleted =
+        ExampleService.EXAMPLES_CACHE.equals(message.cacheName()) && message.deleted();
+    boolean codeEvicted = ExampleService.EXAMPLE_CODES_CACHE.equals(message.cacheName());
+    if (!deleted && !codeEvicted) {
+      return;
+    }
+    if (codeEvicted) {
+      boolean drainQueued;
+      synchronized (evictedCodes) {
+        drainQueued = !evictedCodes.isEmpty();
+        evictedCodes.add(message.key());
+      }
+      if (drainQueued) {
+        return;
+      }
+    }
+    try {
+      invalidations.execute(
+          () -> {
+            if (deleted) {
+              removed(message.key());
+            } else {
+              indexEvictedCodes();
+            }
+          });
+    } catch (RejectedExecutionException ex) {
+      log.debug("Search index shut down, ignoring invalidation of {}", message.key());
+    }
+  }
+
+  /** Indexes the existing examples with the codes evicted so far, one query per batch. */
+  private void indexEvictedCodes() {
+    List<String> codes;
+    synchronized (evictedCodes) {
+      codes = new ArrayList<>(evictedCodes);
+      evictedCodes.clear();
+    }
+    for (int from = 0; from < codes.size(); from += LOAD_BATCH_SIZE) {
+      List<String> batch = codes.subList(from, Math.min(from + LOAD_BATCH_SIZE, codes.size()));
+      try {
+        Query query = Query.query(Criteria.where("code").in(batch));
+        query.fields().include("code", "name", "description");
+        List<ExampleText> texts =
+            mongoTemplate.find(query, ExampleEntity.class).stream()
+                .map(ExampleSearchIndex::text)
+                .toList();
+        apply(target -> texts.forEach(target::add));
+      } catch (RuntimeException ex) {
+        log.warn("Cannot index {} evicted example codes: {}", batch.size(), ex.getMessage());
+      }
+    }
+  }
+
+  private static ExampleText text(ExampleEntity entity) {
+    return new ExampleText(
+        entity.getId(), entity.getCode(), entity.getName(), entity.getDescription());
+  }
+
+  private void gauge(
+      MeterRegistry meterRegistry,
+      String name,
+      String description,
+      ToDoubleFunction<InvertedIndex> value) {
+    Gauge.builder(name, this, search -> value.applyAsDouble(search.index))
+        .description(description)
+        .register(meterRegistry);
+  }
+}
@@ -1,49 +1,385 @@
 package org.wespeak.template.service;
 
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.TerminatingFind;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.wespeak.template.BulkCreateResponse;
+import org.wespeak.template.BulkItemResult;
+import org.wespeak.template.BulkItemStatus;
 import org.wespeak.template.CreateExampleRequest;
 import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExamplePageResponse;
 import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.ExampleSearchHit;
+import org.wespeak.template.ExampleSearchResponse;
+import org.wespeak.template.OutboxEventEntity;
+import org.wespeak.template.cache.HotKeyTracker;
+import org.wespeak.template.cache.TwoTierCache;
+import org.wespeak.template.exception.BadRequestException;
 import org.wespeak.template.exception.ResourceNotFoundException;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleCreatedPayload;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleDeletedPayload;
+import org.wespeak.template.metrics.LookupTimer;
 import org.wespeak.template.repository.ExampleRepository;
+import org.wespeak.template.search.InvertedIndex.Result;
+import org.wespeak.template.service.CollectionVersionService.CollectionVersion;
+import org.wespeak.template.service.OutboxService.PendingEvent;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ExampleService {
 
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 500;
+  public static final int DEFAULT_SEARCH_LIMIT = 20;
+  public static final int MAX_SEARCH_LIMIT = 100;
+  public static final String EXAMPLE_CREATED = "example.created";
+  public static final String EXAMPLE_DELETED = "example.deleted";
+
+  /** Response fields a client can select with {@code ?fields=}; the id is always returned. */
+  public static final Set<String> SELECTABLE_FIELDS =
+      Set.of("code", "name", "description", "active", "createdAt", "updatedAt");
+
+  static final int STREAM_BATCH_SIZE = 500;
+  private static final int DUPLICATE_KEY_ERROR = 11000;
+  private static final int HOT_KEYS_TRACKED = 10_000;
+  static final String EXAMPLES_CACHE = "examples";
+  static final String EXAMPLE_CODES_CACHE = "example-codes";
+  static final String COLLECTION = "examples";
+
   private final ExampleRepository repository;
+  private final MongoTemplate mongoTemplate;
+  private final Validator validator;
+  private final OutboxService outboxService;
+  private final CacheManager cacheManager;
+  private final ExampleExistenceFilter existenceFilter;
+  private final CollectionVersionService collectionVersionService;
+  private final LookupTimer lookupTimer;
+  private final ExampleReadReplica readReplica;
+  private final ExampleSearchIndex searchIndex;
+  private final HotKeyTracker hotKeys = new HotKeyTracker(HOT_KEYS_TRACKED);
 
-  @Cacheable(value = "examples", key = "#id")
-  public ExampleResponse getById(String id) {
-    log.info("Fetching example with id: {}", id);
-    ExampleEntity entity =
-        repository
-            .findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Example", "id", id));
-    return toResponse(entity);
+  @Value("${app.examples.bulk.max-size:1000}")
+  private int maxBulkSize;
+
+  @Value("${app.examples.search.max-window:1000}")
+  private int maxSearchWindow;
+
+  @Value("${app.outbox.hold-timeout:1m}")
+  private Duration holdTimeout;
+
+  /**
+   * Reads an example through the {@code examples} cache. Misses are single-flight: concurrent
+   * misses for the same id share one Mongo query.
+   *
+   * @param fields response fields to return besides the id (see {@link #parseFields}), or {@code
+   *     null} for all. A sparse read is served from the cached example when present, otherwise by a
+   *     projection query, and is not cached.
+   */
+  public ExampleResponse getById(String id, Set<String> fields) {
+    ExampleResponse example = lookupTimer.record("by_id", onMiss -> findById(id, fields, onMiss));
+    hotKeys.record(example.getId());
+    return example;
   }
 
-  public ExampleResponse getByCode(String code) {
-    log.info("Fetching example with code: {}", code);
-    ExampleEntity entity =
-        repository
-            .findByCode(code)
-            .orElseThrow(() -> new ResourceNotFoundException("Example", "code", code));
-    return toResponse(entity);
+  /**
+   * Resolves the code to an id through the {@code example-codes} cache, then reads the example
+   * through the {@code examples} cache. Both lookups are single-flight; on a code miss the loaded
+   * example also fills {@code examples}, so a cold lookup costs one Mongo query.
+   *
+   * @param fields as for {@link #getById}
+   */
+  public ExampleResponse getByCode(String code, Set<String> fields) {
+    ExampleResponse example =
+        lookupTimer.record("by_code", onMiss -> findByCode(code, fields, onMiss));
+    hotKeys.record(example.getId());
+    return example;
+  }
+
+  /**
+   * The most read example ids since the previous call, most read first; older reads count half as
+   * much at each call.
+   */
+  public List<String> hottestIds(int limit) {
+    return hotKeys.snapshot(limit);
+  }
+
+  /**
+   * Loads examples into the {@code examples} cache with one Mongo query. With the two-tier cache,
+   * entries already in Redis are taken from there and nothing is broadcast to the other nodes.
+   *
+   * @param ids example ids; unknown and invalid ones are skipped
+   * @return the number of examples now cached
+   */
+  public int warmUp(List<String> ids) {
+    List<String> valid = ids.stream().filter(ObjectId::isValid).toList();
+    if (valid.isEmpty()) {
+      return 0;
+    }
+    Cache examples = cache(EXAMPLES_CACHE);
+    List<ExampleResponse> found = responses(Query.query(Criteria.where("_id").in(valid))).all();
+    found.forEach(example -> examples.get(example.getId(), () -> example));
+    return found.size();
+  }
+
+  private ExampleResponse findById(String id, Set<String> fields, Runnable onMiss) {
+    ExampleResponse replicated = fromReplica(snapshot -> snapshot.byId(id));
+    if (replicated != null) {
+      return fields == null ? replicated : select(replicated, fields);
+    }
+    Cache examples = cache(EXAMPLES_CACHE);
+    if (fields == null) {
+      return load(examples, id, () -> loadById(id, onMiss));
+    }
+    ExampleResponse cached = examples.get(id, ExampleResponse.class);
+    if (cached != null) {
+      return select(cached, fields);
+    }
+    onMiss.run();
+    if (existenceFilter.isKnownMissingId(id)) {
+      throw new ResourceNotFoundException("Example", "id", id);
+    }
+    log.debug("Fetching fields {} of example with id: {}", fields, id);
+    return findOne(Criteria.where("_id").is(id), fields)
+        .orElseThrow(
+            () -> {
+              existenceFilter.idMissing(id);
+              return new ResourceNotFoundException("Example", "id", id);
+            });
+  }
+
+  private ExampleResponse findByCode(String code, Set<String> fields, Runnable onMiss) {
+    ExampleResponse replicated = fromReplica(snapshot -> snapshot.byCode(code));
+    if (replicated != null) {
+      return fields == null ? replicated : select(replicated, fields);
+    }
+    Cache examples = cache(EXAMPLES_CACHE);
+    if (fields != null) {
+      String cachedId = cache(EXAMPLE_CODES_CACHE).get(code, String.class);
+      ExampleResponse cached =
+          cachedId != null ? examples.get(cachedId, ExampleResponse.class) : null;
+      if (cached != null) {
+        return select(cached, fields);
+      }
+      onMiss.run();
+      if (existenceFilter.isKnownMissingCode(code)) {
+        throw new ResourceNotFoundException("Example", "code", code);
+      }
+      log.debug("Fetching fields {} of example with code: {}", fields, code);
+      return findOne(Criteria.where("code").is(code), fields)
+          .orElseThrow(
+              () -> {
+                existenceFilter.codeMissing(code);
+                return new ResourceNotFoundException("Example", "code", code);
+              });
+    }
+
+    String id =
+        load(
+            cache(EXAMPLE_CODES_CACHE),
+            code,
+            () -> {
+              onMiss.run();
+              if (existenceFilter.isKnownMissingCode(code)) {
+                throw new ResourceNotFoundException("Example", "code", code);
+              }
+              log.debug("Fetching example with code: {}", code);
+              ExampleResponse example =
+                  findOne(Criteria.where("code").is(code), null)
+                      .orElseThrow(
+                          () -> {
+                            existenceFilter.codeMissing(code);
+                            return new ResourceNotFoundException("Example", "code", code);
+                          });
+              return examples.get(example.getId(), () -> example).getId();
+            });
+    try {
+      return load(examples, id, () -> loadById(id, onMiss));
+    } catch (ResourceNotFoundException ex) {
+      // Mapping cached before a delete whose eviction has not reached us yet
+      cache(EXAMPLE_CODES_CACHE).evict(code);
+      throw new ResourceNotFoundException("Example", "code", code);
+    }
   }
 
-  public List<ExampleResponse> findAll() {
-    log.info("Fetching all examples");
-    return repository.findAll().stream().map(this::toResponse).collect(Collectors.toList());
+  /**
+   * Parses a sparse fieldset ({@code ?fields=code,name}).
+   *
+   * @return the selected fields, or {@code null} for all fields when none are given
+   * @throws BadRequestException for a field that is not in {@link #SELECTABLE_FIELDS}
+   */
+  public static Set<String> parseFields(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return null;
+    }
+    Set<String> selected = new LinkedHashSet<>();
+    for (String field : fields.split(",")) {
+      String name = field.trim();
+      if (name.equals("id") || name.isEmpty()) {
+        continue;
+      }
+      if (!SELECTABLE_FIELDS.contains(name)) {
+        throw new BadRequestException(
+            "Unknown field '" + name + "', expected one of " + SELECTABLE_FIELDS);
+      }
+      selected.add(name);
+    }
+    return selected;
+  }
+
+  /**
+   * Version of the examples collection, changed by every create and delete. With the read replica,
+   * the version its snapshot was replicated with, so that a list is never tagged newer than it is.
+   * {@link CollectionVersion#UNKNOWN} while an increment is pending.
+   */
+  public CollectionVersion collectionVersion() {
+    if (collectionVersionService.isPending(COLLECTION)
+        && !collectionVersionService.current(COLLECTION).known()) {
+      return CollectionVersion.UNKNOWN;
+    }
+    ExampleReadReplica.Snapshot snapshot = readReplica.current();
+    return snapshot != null ? snapshot.version() : collectionVersionService.current(COLLECTION);
+  }
+
+  /**
+   * Keyset pagination on {@code _id}: returns up to {@code size} examples after the given cursor.
+   *
+   * @param cursor opaque cursor from a previous page, or {@code null} for the first page
+   * @param size requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+   * @param fields as for {@link #getById}
+   */
+  public ExamplePageResponse findPage(String cursor, int size, Set<String> fields) {
+    int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    log.debug("Fetching examples page after cursor: {}, size: {}", cursor, limit);
+    ObjectId after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+    List<ExampleResponse> found;
+    ExampleReadReplica.Snapshot snapshot = readReplica.current();
+    if (snapshot != null) {
+      found =
+          snapshot.page(after != null ? after.toHexString() : null, limit + 1).stream()
+              .map(example -> fields == null ? example : select(example, fields))
+              .toList();
+    } else {
+      Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit + 1);
+      if (after != null) {
+        query.addCriteria(Criteria.where("_id").gt(after));
+      }
+      found = responses(project(query, fields)).all();
+    }
+    boolean hasMore = found.size() > limit;
+    List<ExampleResponse> items = hasMore ? found.subList(0, limit) : found;
+
+    return ExamplePageResponse.builder()
+        .items(items)
+        .nextCursor(hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+        .build();
+  }
+
+  /**
+   * Streams every example in {@code _id} order straight from a Mongo cursor, so memory stays flat
+   * regardless of the collection size, or from the read replica. The caller must close the returned
+   * stream.
+   *
+   * @param active only the active or inactive examples, or {@code null} for all
+   * @param fields as for {@link #getById}
+   */
+  public Stream<ExampleResponse> streamAll(Boolean active, Set<String> fields) {
+    log.debug("Streaming all examples, active: {}", active);
+    ExampleReadReplica.Snapshot snapshot = readReplica.current();
+    if (snapshot != null) {
+      return snapshot.stream(active)
+          .map(example -> fields == null ? example : select(example, fields));
+    }
+    Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+    if (active != null) {
+      query.addCriteria(Criteria.where("active").is(active));
+    }
+    query.cursorBatchSize(STREAM_BATCH_SIZE);
+    return responses(project(query, fields)).stream();
   }
 
+  /**
+   * Searches the code, name and description of the examples in the local index, the last term as a
+   * prefix unless the query ends with a space.
+   *
+   * @param limit matches per page, clamped to [1, {@value #MAX_SEARCH_LIMIT}]
+   * @throws BadRequestException for a blank query, or a page past {@code
+   *     app.examples.search.max-window} matches
+   */
+  public ExampleSearchResponse search(String query, int offset, int limit) {
+    if (query == null || query.isBlank()) {
+      throw new BadRequestException("Search query must not be blank");
+    }
+    int size = Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT);
+    if (offset < 0 || offset + size > maxSearchWindow) {
+      throw new BadRequestException(
+          "Search pages are limited to the first " + maxSearchWindow + " matches");
+    }
+    Result result = searchIndex.search(query, offset, size);
+    int next = offset + result.hits().size();
+    return ExampleSearchResponse.builder()
+        .items(
+            result.hits().stream()
+                .map(
+                    hit ->
+                        ExampleSearchHit.builder()
+                            .id(hit.id())
+                            .code(hit.code())
+                            .name(hit.name())
+                            .score(hit.score())
+                            .build())
+                .toList())
+        .total(result.total())
+        .nextOffset(next < result.total() && next + size <= maxSearchWindow ? next : null)
+        .build();
+  }
+
+  /**
+   * Indexes an example created by another instance, as announced by its {@code example.created}
+   * event, for search.
+   */
+  public void handleExampleCreated(ExampleCreatedPayload payload) {
+    searchIndex.createdElsewhere(payload.id(), payload.code(), payload.name());
+  }
+
+  @Transactional
   public ExampleResponse create(CreateExampleRequest request) {
     log.info("Creating example with code: {}", request.getCode());
 
@@ -60,13 +396,188 @@ public class ExampleService {
             .active(true)
             .build();
 
-    ExampleEntity saved = repository.save(entity);
+    existenceFilter.codeAdded(request.getCode());
+    ExampleEntity saved;
+    try {
+      saved = repository.save(entity);
+    } catch (DuplicateKeyException ex) {
+      // Lost the race against a concurrent create: the unique code index decides
+      throw new IllegalArgumentException(
+          "Example with code " + request.getCode() + " already exists");
+    }
+    outboxService.append(EXAMPLE_CREATED, saved.getId(), createdPayload(saved));
+    ExampleResponse created = toResponse(saved);
+    afterCommit(
+        () -> {
+          codeCreated(saved.getCode());
+          searchIndex.created(created);
+          collectionVersionService.increment(COLLECTION);
+        });
     log.info("Example created with id: {}", saved.getId());
 
-    return toResponse(saved);
+    return created;
   }
 
-  @CacheEvict(value = "examples", key = "#id")
+  /**
+   * Creates a batch of examples in a single unordered {@code insertMany}. Items are validated
+   * individually; duplicate codes are detected by the unique {@code code} index rather than checked
+   * beforehand, so a batch costs one round trip and is safe against concurrent creates.
+   *
+   * <p>Not transactional, since a transaction would abort on the first duplicate. The outbox events
+   * of all items are written first, held, then released for the created items and discarded for the
+   * others once the insert is done; {@link #settleStaleHeldEvents} settles those left held by a pod
+   * stopped in between.
+   *
+   * @return one result per request item, in request order
+   */
+  public BulkCreateResponse createBulk(List<CreateExampleRequest> requests) {
+    if (requests.size() > maxBulkSize) {
+      throw new BadRequestException(
+          "Bulk request exceeds the maximum of " + maxBulkSize + " items: " + requests.size());
+    }
+    log.info("Bulk creating {} examples", requests.size());
+
+    BulkItemResult[] results = new BulkItemResult[requests.size()];
+    List<ExampleEntity> entities = new ArrayList<>(requests.size());
+    List<Integer> positions = new ArrayList<>(requests.size());
+    Instant now = Instant.now();
+
+    for (int i = 0; i < requests.size(); i++) {
+      CreateExampleRequest request = requests.get(i);
+      Map<String, String> errors = validate(request);
+      if (!errors.isEmpty()) {
+        results[i] =
+            BulkItemResult.builder()
+                .index(i)
+                .status(BulkItemStatus.INVALID)
+                .code(request != null ? request.getCode() : null)
+                .message("Invalid request parameters")
+                .validationErrors(errors)
+                .build();
+        continue;
+      }
+      entities.add(
+          ExampleEntity.builder()
+              .id(new ObjectId().toHexString())
+              .code(request.getCode())
+              .name(request.getName())
+              .description(request.getDescription())
+              .active(true)
+              .createdAt(now)
+              .updatedAt(now)
+              .build());
+      positions.add(i);
+    }
+
+    entities.forEach(entity -> existenceFilter.codeAdded(entity.getCode()));
+    List<String> heldEvents =
+        outboxService.hold(
+            entities.stream()
+                .map(
+                    entity ->
+                        new PendingEvent(EXAMPLE_CREATED, entity.getId(), createdPayload(entity)))
+                .toList());
+    Map<Integer, BulkWriteError> writeErrors = new HashMap<>();
+    if (!entities.isEmpty()) {
+      try {
+        mongoTemplate
+            .bulkOps(BulkOperations.BulkMode.UNORDERED, ExampleEntity.class)
+            .insert(entities)
+            .execute();
+      } catch (BulkOperationException ex) {
+        ex.getErrors().forEach(error -> writeErrors.put(error.getIndex(), error));
+      }
+    }
+
+    for (int j = 0; j < entities.size(); j++) {
+      int index = positions.get(j);
+      ExampleEntity entity = entities.get(j);
+      BulkWriteError error = writeErrors.get(j);
+      BulkItemResult.BulkItemResultBuilder result =
+          BulkItemResult.builder().index(index).code(entity.getCode());
+      if (error == null) {
+        ExampleResponse created = toResponse(entity);
+        codeCreated(entity.getCode());
+        searchIndex.created(created);
+        result.status(BulkItemStatus.CREATED).example(created);
+      } else if (error.getCode() == DUPLICATE_KEY_ERROR) {
+        result
+            .status(BulkItemStatus.CONFLICT)
+            .message("Example with code " + entity.getCode() + " already exists");
+      } else {
+        result.status(BulkItemStatus.FAILED).message(error.getMessage());
+      }
+      results[index] = result.build();
+    }
+
+    List<String> released = new ArrayList<>(entities.size());
+    List<String> discarded = new ArrayList<>(writeErrors.size());
+    for (int j = 0; j < entities.size(); j++) {
+      (writeErrors.containsKey(j) ? discarded : released).add(heldEvents.get(j));
+    }
+    outboxService.release(released);
+    outboxService.discard(discarded);
+
+    List<BulkItemResult> items = List.of(results);
+    if (writeErrors.size() < entities.size()) {
+      collectionVersionService.increment(COLLECTION);
+    }
+    BulkCreateResponse response =
+        BulkCreateResponse.builder()
+            .created(count(items, BulkItemStatus.CREATED))
+            .conflicts(count(items, BulkItemStatus.CONFLICT))
+            .invalid(count(items, BulkItemStatus.INVALID))
+            .failed(count(items, BulkItemStatus.FAILED))
+            .items(items)
+            .build();
+    log.info(
+        "Bulk create done: created={}, conflicts={}, invalid={}, failed={}",
+        response.getCreated(),
+        response.getConflicts(),
+        response.getInvalid(),
+        response.getFailed());
+    return response;
+  }
+
+  /**
+   * Settles the outbox events of bulk creates held for longer than {@code app.outbox.hold-timeout}:
+   * released when the example exists, discarded otherwise.
+   */
+  @Scheduled(
+      fixedDelayString = "${app.outbox.hold-timeout:1m}",
+      initialDelayString = "${app.outbox.hold-timeout:1m}")
+  public void settleStaleHeldEvents() {
+    List<OutboxEventEntity> stale = outboxService.heldBefore(Instant.now().minus(holdTimeout));
+    if (stale.isEmpty()) {
+      return;
+    }
+    List<String> aggregateIds = stale.stream().map(OutboxEventEntity::getAggregateId).toList();
+    Query written = Query.query(Criteria.where("_id").in(aggregateIds));
+    written.fields().include("_id");
+    Set<String> existing =
+        mongoTemplate.find(written, ExampleEntity.class).stream()
+            .map(ExampleEntity::getId)
+            .collect(Collectors.toSet());
+    Map<Boolean, List<String>> settled =
+        stale.stream()
+            .collect(
+                Collectors.partitioningBy(
+                    entry -> existing.contains(entry.getAggregateId()),
+                    Collectors.mapping(OutboxEventEntity::getId, Collectors.toList())));
+    outboxService.release(settled.get(true));
+    outboxService.discard(settled.get(false));
+    log.warn(
+        "Settled stale held outbox events: released={}, discarded={}",
+        settled.get(true).size(),
+        settled.get(false).size());
+  }
+
+  /**
+   * Deletes the example and evicts both its {@code examples} entry and its code mapping once the
+   * transaction has committed, so a concurrent read on this node cannot cache the pre-delete state
+   * again; other nodes drop a load in flight when the invalidation reaches them.
+   */
+  @Transactional
   public void delete(String id) {
     log.info("Deleting example with id: {}", id);
     ExampleEntity entity =
@@ -75,10 +586,166 @@ public class ExampleService {
             .orElseThrow(() -> new ResourceNotFoundException("Example", "id", id));
 
     repository.delete(entity);
+    outboxService.append(
+        EXAMPLE_DELETED, id, new ExampleDeletedPayload(entity.getId(), entity.getCode()));
+    afterCommit(
+        () -> {
+          evictDeleted(cache(EXAMPLES_CACHE), id);
+          cache(EXAMPLE_CODES_CACHE).evict(entity.getCode());
+          readReplica.removed(id);
+          searchIndex.removed(id);
+          existenceFilter.removed(id, entity.getCode());
+          collectionVersionService.increment(COLLECTION);
+        });
     log.info("Example deleted: {}", id);
   }
 
-  private ExampleResponse toResponse(ExampleEntity entity) {
+  /**
+   * Drops negative entries for a code now committed. The {@code example-codes} eviction clears a
+   * stale mapping and, with the two-tier cache, tells the other nodes' existence filters.
+   */
+  private void codeCreated(String code) {
+    existenceFilter.codeAdded(code);
+    cache(EXAMPLE_CODES_CACHE).evict(code);
+  }
+
+  /**
+   * The example found in the read replica, or {@code null} when it is not serving or does not know
+   * the example, e.g. one just created or deleted on this pod: the caller then reads as without it.
+   */
+  private ExampleResponse fromReplica(Function<ExampleReadReplica.Snapshot, ExampleResponse> find) {
+    ExampleReadReplica.Snapshot snapshot = readReplica.current();
+    ExampleResponse found = snapshot != null ? find.apply(snapshot) : null;
+    return found != null && !readReplica.isRemoved(found.getId()) ? found : null;
+  }
+
+  private ExampleResponse loadById(String id, Runnable onMiss) {
+    onMiss.run();
+    if (existenceFilter.isKnownMissingId(id)) {
+      throw new ResourceNotFoundException("Example", "id", id);
+    }
+    log.debug("Fetching example with id: {}", id);
+    return findOne(Criteria.where("_id").is(id), null)
+        .orElseThrow(
+            () -> {
+              existenceFilter.idMissing(id);
+              return new ResourceNotFoundException("Example", "id", id);
+            });
+  }
+
+  private Optional<ExampleResponse> findOne(Criteria criteria, Set<String> fields) {
+    return responses(project(Query.query(criteria), fields)).one();
+  }
+
+  /**
+   * Reads examples straight into {@link ExampleResponse}, without hydrating {@link ExampleEntity}:
+   * Mongo returns only the response's fields, or the query's own projection when it has one.
+   */
+  private TerminatingFind<ExampleResponse> responses(Query query) {
+    return mongoTemplate.query(ExampleEntity.class).as(ExampleResponse.class).matching(query);
+  }
+
+  static Query project(Query query, Set<String> fields) {
+    if (fields != null) {
+      query.fields().include("id").include(fields.toArray(String[]::new));
+    }
+    return query;
+  }
+
+  /** Copy of a full example restricted to the given fields; the id is always kept. */
+  static ExampleResponse select(ExampleResponse example, Set<String> fields) {
+    return ExampleResponse.builder()
+        .id(example.getId())
+        .code(fields.contains("code") ? example.getCode() : null)
+        .name(fields.contains("name") ? example.getName() : null)
+        .description(fields.contains("description") ? example.getDescription() : null)
+        .active(fields.contains("active") ? example.getActive() : null)
+        .createdAt(fields.contains("createdAt") ? example.getCreatedAt() : null)
+        .updatedAt(fields.contains("updatedAt") ? example.getUpdatedAt() : null)
+        .build();
+  }
+
+  private Cache cache(String name) {
+    Cache cache = cacheManager.getCache(name);
+    if (cache == null) {
+      throw new IllegalStateException("Cache '" + name + "' is not configured");
+    }
+    return cache;
+  }
+
+  /**
+   * Evicts a deleted key; with the two-tier cache, the other nodes are told it was deleted, so that
+   * their search indexes drop it.
+   */
+  private static void evictDeleted(Cache cache, Object key) {
+    if (cache instanceof TwoTierCache twoTier) {
+      twoTier.evictDeleted(key);
+    } else {
+      cache.evict(key);
+    }
+  }
+
+  /** {@link Cache#get(Object, Callable)} rethrowing the loader's own runtime exceptions. */
+  private static <T> T load(Cache cache, Object key, Callable<T> loader) {
+    try {
+      return cache.get(key, loader);
+    } catch (Cache.ValueRetrievalException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  static ExampleCreatedPayload createdPayload(ExampleEntity entity) {
+    return new ExampleCreatedPayload(entity.getId(), entity.getCode(), entity.getName());
+  }
+
+  private Map<String, String> validate(CreateExampleRequest request) {
+    if (request == null) {
+      return Map.of("request", "Item is required");
+    }
+    Map<String, String> errors = new LinkedHashMap<>();
+    for (ConstraintViolation<CreateExampleRequest> violation : validator.validate(request)) {
+      errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+    }
+    return errors;
+  }
+
+  private static int count(List<BulkItemResult> items, BulkItemStatus status) {
+    return (int) items.stream().filter(item -> item.getStatus() == status).count();
+  }
+
+  static String encodeCursor(String id) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(id.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static ObjectId decodeCursor(String cursor) {
+    try {
+      String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      return new ObjectId(id);
+    } catch (IllegalArgumentException ex) {
+      throw new BadRequestException("Invalid cursor: " + cursor);
+    }
+  }
+
+  static ExampleResponse toResponse(ExampleEntity entity) {
     return ExampleResponse.builder()
         .id(entity.getId())
         .code(entity.getCode())
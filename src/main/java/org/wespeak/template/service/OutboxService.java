@@ -0,0 +1,117 @@
+package org.wespeak.template.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.wespeak.template.OutboxEventEntity;
+import org.wespeak.template.listener.CloudEvent;
+
+/**
+ * Appends CloudEvents to the outbox collection. Call it inside the transaction that changes the
+ * entity so the event is stored if and only if the change is committed; the OutboxRelay then
+ * publishes it to Kafka outside of the request.
+ *
+ * <p>Writes that cannot run in a transaction {@link #hold} their events before writing, then {@link
+ * #release} the ones whose write succeeded and {@link #discard} the others.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+  private final MongoTemplate mongoTemplate;
+  private final ObjectMapper objectMapper;
+
+  @Value("${spring.application.name}")
+  private String source;
+
+  /** An event to append: its type, the aggregate it belongs to and its payload. */
+  public record PendingEvent(String type, String aggregateId, Object data) {}
+
+  public void append(String type, String aggregateId, Object data) {
+    appendAll(List.of(new PendingEvent(type, aggregateId, data)));
+  }
+
+  public void appendAll(List<PendingEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    Instant now = Instant.now();
+    List<OutboxEventEntity> entries = events.stream().map(event -> toEntry(event, now)).toList();
+    mongoTemplate.insertAll(entries);
+    log.debug("Appended {} events to the outbox", entries.size());
+  }
+
+  /**
+   * Appends events that the relay does not publish until they are released.
+   *
+   * @return the ids of the held entries, in the order of {@code events}
+   */
+  public List<String> hold(List<PendingEvent> events) {
+    if (events.isEmpty()) {
+      return List.of();
+    }
+    Instant now = Instant.now();
+    List<OutboxEventEntity> entries = new ArrayList<>(events.size());
+    for (PendingEvent event : events) {
+      OutboxEventEntity entry = toEntry(event, now);
+      entry.setHeld(true);
+      entries.add(entry);
+    }
+    return mongoTemplate.insertAll(entries).stream().map(OutboxEventEntity::getId).toList();
+  }
+
+  /** Makes held entries publishable. */
+  public void release(Collection<String> ids) {
+    if (!ids.isEmpty()) {
+      mongoTemplate.updateMulti(
+          Query.query(Criteria.where("_id").in(ids)),
+          new Update().unset("held"),
+          OutboxEventEntity.class);
+    }
+  }
+
+  /** Removes held entries whose write did not happen. */
+  public void discard(Collection<String> ids) {
+    if (!ids.isEmpty()) {
+      mongoTemplate.remove(
+          Query.query(Criteria.where("_id").in(ids).and("held").is(true)), OutboxEventEntity.class);
+    }
+  }
+
+  /** Entries held since before {@code heldBefore}, left by a pod stopped before settling them. */
+  public List<OutboxEventEntity> heldBefore(Instant heldBefore) {
+    return mongoTemplate.find(
+        Query.query(Criteria.where("held").is(true).and("createdAt").lt(heldBefore)),
+        OutboxEventEntity.class);
+  }
+
+  OutboxEventEntity toEntry(PendingEvent event, Instant now) {
+    String eventId = UUID.randomUUID().toString();
+    CloudEvent<Object> cloudEvent =
+        new CloudEvent<>(eventId, source, event.type(), now, event.data());
+    try {
+      return OutboxEventEntity.builder()
+          .eventId(eventId)
+          .type(event.type())
+          .aggregateId(event.aggregateId())
+          .payload(objectMapper.writeValueAsString(cloudEvent))
+          .createdAt(now)
+          .build();
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot serialize " + event.type() + " event", ex);
+    }
+  }
+}
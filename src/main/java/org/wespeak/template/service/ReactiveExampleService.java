@@ -0,0 +1,289 @@
+package org.wespeak.template.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveFindOperation.TerminatingFind;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.wespeak.template.BulkCreateResponse;
+import org.wespeak.template.CollectionVersionEntity;
+import org.wespeak.template.CreateExampleRequest;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExamplePageResponse;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.exception.ResourceNotFoundException;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleDeletedPayload;
+import org.wespeak.template.repository.ReactiveExampleRepository;
+import org.wespeak.template.service.CollectionVersionService.CollectionVersion;
+import org.wespeak.template.service.OutboxService.PendingEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link ExampleService} for the {@code reactive} profile: same rules,
+ * same outbox events and collection versions, on the reactive Mongo driver.
+ *
+ * <p>Differences:
+ *
+ * <ul>
+ *   <li>reads skip the {@code examples} / {@code example-codes} caches, whose Redis tier is
+ *       blocking; unknown ids and codes are still answered by {@link ExampleExistenceFilter}.
+ *       Writes evict both caches, off the event loop, so servlet pods sharing Redis stay
+ *       consistent;
+ *   <li>bulk creates run {@link ExampleService#createBulk} on the bounded elastic scheduler.
+ * </ul>
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveExampleService {
+
+  private final ReactiveExampleRepository repository;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final TransactionalOperator transactionalOperator;
+  private final OutboxService outboxService;
+  private final ExampleService blockingService;
+  private final CacheManager cacheManager;
+  private final ExampleExistenceFilter existenceFilter;
+  private final CollectionVersionService collectionVersionService;
+
+  /**
+   * @param fields as for {@link ExampleService#getById}
+   */
+  public Mono<ExampleResponse> getById(String id, Set<String> fields) {
+    if (existenceFilter.isKnownMissingId(id)) {
+      return Mono.error(new ResourceNotFoundException("Example", "id", id));
+    }
+    return findOne(Criteria.where("_id").is(id), fields)
+        .switchIfEmpty(
+            Mono.defer(
+                () -> {
+                  existenceFilter.idMissing(id);
+                  return Mono.error(new ResourceNotFoundException("Example", "id", id));
+                }));
+  }
+
+  /**
+   * @param fields as for {@link ExampleService#getById}
+   */
+  public Mono<ExampleResponse> getByCode(String code, Set<String> fields) {
+    if (existenceFilter.isKnownMissingCode(code)) {
+      return Mono.error(new ResourceNotFoundException("Example", "code", code));
+    }
+    return findOne(Criteria.where("code").is(code), fields)
+        .switchIfEmpty(
+            Mono.defer(
+                () -> {
+                  existenceFilter.codeMissing(code);
+                  return Mono.error(new ResourceNotFoundException("Example", "code", code));
+                }));
+  }
+
+  /**
+   * Version of the examples collection, changed by every create and delete; {@link
+   * CollectionVersion#UNKNOWN} while an increment is pending, as for {@link
+   * ExampleService#collectionVersion}.
+   */
+  public Mono<CollectionVersion> collectionVersion() {
+    Mono<CollectionVersion> stored =
+        mongoTemplate
+            .findById(ExampleService.COLLECTION, CollectionVersionEntity.class)
+            .map(entity -> new CollectionVersion(entity.getVersion(), entity.getUpdatedAt()))
+            .defaultIfEmpty(new CollectionVersion(0, null));
+    if (!collectionVersionService.isPending(ExampleService.COLLECTION)) {
+      return stored;
+    }
+    return tryIncrementVersion()
+        .flatMap(incremented -> incremented ? stored : Mono.just(CollectionVersion.UNKNOWN));
+  }
+
+  /**
+   * Keyset pagination on {@code _id}, as {@link ExampleService#findPage}.
+   *
+   * @param fields as for {@link ExampleService#getById}
+   */
+  public Mono<ExamplePageResponse> findPage(String cursor, int size, Set<String> fields) {
+    int limit = Math.min(Math.max(size, 1), ExampleService.MAX_PAGE_SIZE);
+    Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit + 1);
+    if (cursor != null && !cursor.isBlank()) {
+      query.addCriteria(Criteria.where("_id").gt(ExampleService.decodeCursor(cursor)));
+    }
+
+    return responses(ExampleService.project(query, fields))
+        .all()
+        .collectList()
+        .map(
+            found -> {
+              boolean hasMore = found.size() > limit;
+              List<ExampleResponse> items = hasMore ? found.subList(0, limit) : found;
+              return ExamplePageResponse.builder()
+                  .items(items)
+                  .nextCursor(
+                      hasMore
+                          ? ExampleService.encodeCursor(items.get(items.size() - 1).getId())
+                          : null)
+                  .build();
+            });
+  }
+
+  /**
+   * Every example in {@code _id} order. The driver fetches cursor batches as the subscriber
+   * requests them, so a slow client slows the cursor down instead of filling memory.
+   *
+   * @param fields as for {@link ExampleService#getById}
+   */
+  public Flux<ExampleResponse> findAll(Set<String> fields) {
+    Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+    query.cursorBatchSize(ExampleService.STREAM_BATCH_SIZE);
+    return responses(ExampleService.project(query, fields)).all();
+  }
+
+  /** Creates an example and its outbox event in one transaction, like {@link ExampleService}. */
+  public Mono<ExampleResponse> create(CreateExampleRequest request) {
+    String code = request.getCode();
+    ExampleEntity entity =
+        ExampleEntity.builder()
+            .code(code)
+            .name(request.getName())
+            .description(request.getDescription())
+            .active(true)
+            .build();
+
+    return repository
+        .existsByCode(code)
+        .flatMap(
+            exists -> {
+              if (exists) {
+                return Mono.error(alreadyExists(code));
+              }
+              existenceFilter.codeAdded(code);
+              return repository.save(entity);
+            })
+        .onErrorMap(DuplicateKeyException.class, ex -> alreadyExists(code))
+        .flatMap(
+            saved ->
+                appendEvent(
+                        ExampleService.EXAMPLE_CREATED,
+                        saved.getId(),
+                        ExampleService.createdPayload(saved))
+                    .thenReturn(saved))
+        .as(transactionalOperator::transactional)
+        .flatMap(
+            saved ->
+                evict(() -> existenceFilter.codeAdded(code), null, code)
+                    .then(incrementVersion())
+                    .thenReturn(ExampleService.toResponse(saved)))
+        .doOnNext(response -> log.info("Example created with id: {}", response.getId()));
+  }
+
+  /** Runs the blocking bulk insert off the event loop; see {@link ExampleService#createBulk}. */
+  public Mono<BulkCreateResponse> createBulk(List<CreateExampleRequest> requests) {
+    return Mono.fromCallable(() -> blockingService.createBulk(requests))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /** Deletes an example and appends its outbox event in one transaction. */
+  public Mono<Void> delete(String id) {
+    return repository
+        .findById(id)
+        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Example", "id", id)))
+        .flatMap(
+            entity ->
+                repository
+                    .delete(entity)
+                    .then(
+                        appendEvent(
+                            ExampleService.EXAMPLE_DELETED,
+                            id,
+                            new ExampleDeletedPayload(id, entity.getCode())))
+                    .thenReturn(entity))
+        .as(transactionalOperator::transactional)
+        .flatMap(
+            entity ->
+                evict(() -> existenceFilter.removed(id, entity.getCode()), id, entity.getCode())
+                    .then(incrementVersion()))
+        .doOnSuccess(done -> log.info("Example deleted: {}", id));
+  }
+
+  private Mono<ExampleResponse> findOne(Criteria criteria, Set<String> fields) {
+    return responses(ExampleService.project(Query.query(criteria), fields)).one();
+  }
+
+  private TerminatingFind<ExampleResponse> responses(Query query) {
+    return mongoTemplate.query(ExampleEntity.class).as(ExampleResponse.class).matching(query);
+  }
+
+  private Mono<Void> appendEvent(String type, String aggregateId, Object data) {
+    return mongoTemplate
+        .insert(outboxService.toEntry(new PendingEvent(type, aggregateId, data), Instant.now()))
+        .then();
+  }
+
+  /**
+   * Updates the existence filter, then evicts the example and its code mapping. The eviction may
+   * reach Redis, so it runs on the bounded elastic scheduler.
+   */
+  private Mono<Void> evict(Runnable filterUpdate, String id, String code) {
+    return Mono.fromRunnable(
+            () -> {
+              filterUpdate.run();
+              if (id != null) {
+                cache(ExampleService.EXAMPLES_CACHE).evict(id);
+              }
+              cache(ExampleService.EXAMPLE_CODES_CACHE).evict(code);
+            })
+        .subscribeOn(Schedulers.boundedElastic())
+        .then();
+  }
+
+  /** Reactive {@link CollectionVersionService#increment}: a failure is retried, not propagated. */
+  private Mono<Void> incrementVersion() {
+    return tryIncrementVersion()
+        .filter(incremented -> !incremented)
+        .doOnNext(failed -> collectionVersionService.markPending(ExampleService.COLLECTION))
+        .then();
+  }
+
+  private Mono<Boolean> tryIncrementVersion() {
+    return mongoTemplate
+        .upsert(
+            Query.query(Criteria.where("_id").is(ExampleService.COLLECTION)),
+            new Update().inc("version", 1).set("updatedAt", Instant.now()),
+            CollectionVersionEntity.class)
+        .doOnSuccess(result -> collectionVersionService.clearPending(ExampleService.COLLECTION))
+        .thenReturn(true)
+        .doOnError(
+            ex ->
+                log.warn(
+                    "Version increment of '{}' failed: {}",
+                    ExampleService.COLLECTION,
+                    ex.getMessage()))
+        .onErrorReturn(false);
+  }
+
+  private Cache cache(String name) {
+    Cache cache = cacheManager.getCache(name);
+    if (cache == null) {
+      throw new IllegalStateException("Cache '" + name + "' is not configured");
+    }
+    return cache;
+  }
+
+  private static IllegalArgumentException alreadyExists(String code) {
+    return new IllegalArgumentException("Example with code " + code + " already exists");
+  }
+}
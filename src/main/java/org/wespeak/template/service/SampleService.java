@@ -1,8 +1,18 @@
 package org.wespeak.template.service;
 
+import java.time.Instant;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.wespeak.template.SampleEventEntity;
+import org.wespeak.template.exception.BatchProcessingException;
 
 /**
  * Sample service that handles business logic for events. Listeners should delegate to this layer
@@ -13,6 +23,8 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class SampleService {
 
+  private final MongoTemplate mongoTemplate;
+
   /** Sample event payload record */
   public record SampleEventPayload(String id, String message) {}
 
@@ -22,11 +34,60 @@ public class SampleService {
    * @param payload The event payload
    */
   public void handleSampleEvent(SampleEventPayload payload) {
-    log.info("Processing sample event: {}", payload);
+    handleSampleEvents(List.of(payload));
+  }
+
+  /**
+   * Handles a batch of sample events with a single ordered bulk upsert (idempotent on the event id,
+   * so redeliveries are harmless).
+   *
+   * @param payloads The event payloads, in consumption order
+   * @throws BatchProcessingException carrying the index of the first record that could not be
+   *     processed; every record before it has been written
+   */
+  public void handleSampleEvents(List<SampleEventPayload> payloads) {
+    int invalidIndex = firstInvalidIndex(payloads);
+    List<SampleEventPayload> valid =
+        invalidIndex < 0 ? payloads : payloads.subList(0, invalidIndex);
 
-    // TODO: Implement business logic here
-    // Example: save to database, call other services, etc.
+    if (!valid.isEmpty()) {
+      write(valid);
+      log.debug("Sample events processed: {}", valid.size());
+    }
+
+    if (invalidIndex >= 0) {
+      throw new BatchProcessingException(
+          invalidIndex, "Invalid sample event: " + payloads.get(invalidIndex));
+    }
+  }
+
+  private void write(List<SampleEventPayload> payloads) {
+    Instant now = Instant.now();
+    BulkOperations bulk =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, SampleEventEntity.class);
+    for (SampleEventPayload payload : payloads) {
+      bulk.upsert(
+          Query.query(Criteria.where("_id").is(payload.id())),
+          new Update().set("message", payload.message()).setOnInsert("receivedAt", now));
+    }
+
+    try {
+      bulk.execute();
+    } catch (BulkOperationException ex) {
+      // Ordered bulk: Mongo stops at the first error, everything before it is written
+      int failedIndex = ex.getErrors().isEmpty() ? 0 : ex.getErrors().get(0).getIndex();
+      throw new BatchProcessingException(
+          failedIndex, "Failed to write sample event: " + payloads.get(failedIndex).id(), ex);
+    }
+  }
 
-    log.info("Sample event processed successfully: {}", payload.id());
+  private static int firstInvalidIndex(List<SampleEventPayload> payloads) {
+    for (int i = 0; i < payloads.size(); i++) {
+      SampleEventPayload payload = payloads.get(i);
+      if (payload == null || payload.id() == null || payload.id().isBlank()) {
+        return i;
+      }
+    }
+    return -1;
   }
 }
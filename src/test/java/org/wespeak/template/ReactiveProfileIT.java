@@ -0,0 +1,58 @@
+package org.wespeak.template;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.reactive.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+import org.wespeak.template.controller.ExampleController;
+import org.wespeak.template.controller.ReactiveExampleController;
+import org.wespeak.template.service.ReactiveExampleService;
+
+/**
+ * Context of the {@code reactive} profile against embedded Mongo. The exclusions keep Kafka out as
+ * in the test profile, but not the reactive Mongo client.
+ */
+@SpringBootTest(
+    properties =
+        "spring.autoconfigure.exclude="
+            + "org.springframework.cloud.stream.function.FunctionConfiguration,"
+            + "org.springframework.cloud.stream.config.BindingServiceConfiguration")
+@ActiveProfiles({"reactive", "test"})
+class ReactiveProfileIT {
+
+  @Autowired private ApplicationContext context;
+
+  @Autowired private ReactiveExampleService service;
+
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.remove(new Query(), ExampleEntity.class).block();
+  }
+
+  @Test
+  void examplesAreServedByTheReactiveStack() {
+    assertThat(context).isInstanceOf(ReactiveWebApplicationContext.class);
+    assertThat(context.getBeanNamesForType(ReactiveExampleController.class)).hasSize(1);
+    assertThat(context.getBeanNamesForType(ExampleController.class)).isEmpty();
+    assertThat(context.getBeanNamesForType(ReactiveMongoTemplate.class)).hasSize(1);
+  }
+
+  @Test
+  void createdExampleIsReadBackReactively() {
+    ExampleResponse created =
+        service
+            .create(CreateExampleRequest.builder().code("REACTIVE_IT").name("Reactive").build())
+            .block();
+
+    assertThat(service.getById(created.getId(), null).block().getCode()).isEqualTo("REACTIVE_IT");
+  }
+}
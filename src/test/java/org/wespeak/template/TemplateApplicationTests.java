@@ -1,16 +1,28 @@
 package org.wespeak.template;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mongodb.reactivestreams.client.MongoClient;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @ActiveProfiles("test")
 class TemplateApplicationTests {
 
+  @Autowired private ApplicationContext context;
+
   @Test
   void contextLoads() {
     // Verify Spring context loads successfully without external dependencies
     // Kafka listeners are disabled via application-test.properties
   }
+
+  @Test
+  void servletContextDoesNotOpenTheReactiveMongoClient() {
+    assertThat(context.getBeanNamesForType(MongoClient.class)).isEmpty();
+  }
 }
@@ -0,0 +1,46 @@
+package org.wespeak.template.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  @Test
+  void neverReportsAnAddedValueMissing() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("CODE_" + i);
+    }
+
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(filter.mightContain("CODE_" + i)).isTrue();
+    }
+  }
+
+  @Test
+  void falsePositiveRateStaysNearTheTarget() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("CODE_" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("OTHER_" + i)) {
+        falsePositives++;
+      }
+    }
+
+    assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.02);
+  }
+
+  @Test
+  void emptyFilterContainsNothing() {
+    BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+    assertThat(filter.mightContain("CODE_1")).isFalse();
+    assertThat(filter.expectedFalsePositiveRate()).isZero();
+  }
+}
@@ -0,0 +1,69 @@
+package org.wespeak.template.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.wespeak.template.cache.EncodedResponseCache.Encoded;
+import org.wespeak.template.cache.EncodedResponseCache.Format;
+
+class EncodedResponseCacheTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final EncodedResponseCache cache =
+      new EncodedResponseCache(
+          objectMapper, new SimpleMeterRegistry(), 100, true, DataSize.ofBytes(64));
+
+  @Test
+  void negotiatesByQualityThenOrder() {
+    assertThat(EncodedResponseCache.negotiate(MediaType.parseMediaTypes(""))).contains(Format.JSON);
+    assertThat(EncodedResponseCache.negotiate(MediaType.parseMediaTypes("*/*")))
+        .contains(Format.JSON);
+    assertThat(
+            EncodedResponseCache.negotiate(
+                MediaType.parseMediaTypes("application/json;q=0.5, application/cbor")))
+        .contains(Format.CBOR);
+    assertThat(
+            EncodedResponseCache.negotiate(
+                MediaType.parseMediaTypes("application/x-jackson-smile, application/json")))
+        .contains(Format.SMILE);
+    assertThat(EncodedResponseCache.negotiate(MediaType.parseMediaTypes("text/csv"))).isEmpty();
+  }
+
+  @Test
+  void encodesOncePerValue() throws IOException {
+    Map<String, String> value = Map.of("code", "EX-1");
+
+    Encoded first = cache.encode(value, Format.CBOR, false);
+    Encoded second = cache.encode(value, Format.CBOR, false);
+
+    assertThat(second.body()).isSameAs(first.body());
+    assertThat(first.contentType()).isEqualTo(EncodedResponseCache.APPLICATION_CBOR);
+    assertThat(objectMapper.copyWith(new CBORFactory()).readValue(first.body(), Map.class))
+        .isEqualTo(value);
+  }
+
+  @Test
+  void gzipsOnlyLargeJson() throws IOException {
+    Map<String, String> small = Map.of("code", "EX-1");
+    Map<String, String> large = Map.of("description", "d".repeat(200));
+
+    assertThat(cache.encode(small, Format.JSON, true).gzipped()).isFalse();
+    assertThat(cache.encode(large, Format.SMILE, true).gzipped()).isFalse();
+    assertThat(cache.encode(large, Format.JSON, false).gzipped()).isFalse();
+
+    Encoded gzipped = cache.encode(large, Format.JSON, true);
+    assertThat(gzipped.gzipped()).isTrue();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+      assertThat(objectMapper.readValue(in, Map.class)).isEqualTo(large);
+    }
+  }
+}
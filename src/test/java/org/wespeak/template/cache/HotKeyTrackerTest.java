@@ -0,0 +1,45 @@
+package org.wespeak.template.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HotKeyTrackerTest {
+
+  @Test
+  void snapshotRanksKeysByAccessCount() {
+    HotKeyTracker tracker = new HotKeyTracker(100);
+    record(tracker, "warm", 5);
+    record(tracker, "hot", 10);
+    record(tracker, "cold", 1);
+
+    assertThat(tracker.snapshot(2)).containsExactly("hot", "warm");
+  }
+
+  @Test
+  void recentAccessesOutweighOldOnes() {
+    HotKeyTracker tracker = new HotKeyTracker(100);
+    record(tracker, "old", 10);
+    tracker.snapshot(10);
+    tracker.snapshot(10);
+
+    record(tracker, "recent", 4);
+
+    assertThat(tracker.snapshot(10)).containsExactly("recent", "old");
+  }
+
+  @Test
+  void forgottenKeysLeaveTheSnapshot() {
+    HotKeyTracker tracker = new HotKeyTracker(100);
+    record(tracker, "once", 1);
+    tracker.snapshot(10);
+
+    assertThat(tracker.snapshot(10)).isEmpty();
+  }
+
+  private static void record(HotKeyTracker tracker, String key, int times) {
+    for (int i = 0; i < times; i++) {
+      tracker.record(key);
+    }
+  }
+}
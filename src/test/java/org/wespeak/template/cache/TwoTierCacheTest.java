@@ -0,0 +1,274 @@
+package org.wespeak.template.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/** Two nodes sharing an in-process L2 stand-in and an in-memory invalidation bus. */
+class TwoTierCacheTest {
+
+  private static final String SPEC = "maximumSize=100,expireAfterWrite=10m";
+
+  private ConcurrentMapCacheManager shared;
+  private TwoTierCacheManager nodeA;
+  private TwoTierCacheManager nodeB;
+
+  @BeforeEach
+  void setUp() {
+    shared = new ConcurrentMapCacheManager();
+    List<TwoTierCacheManager> nodes = new ArrayList<>();
+    CacheInvalidationPublisher bus = message -> nodes.forEach(n -> n.onInvalidation(message));
+    nodeA = new TwoTierCacheManager(SPEC, shared, bus);
+    nodeB = new TwoTierCacheManager(SPEC, shared, bus);
+    nodes.add(nodeA);
+    nodes.add(nodeB);
+  }
+
+  @Test
+  void missOnOneNodeIsServedFromL2OnTheOther() {
+    nodeA.getCache("examples").put("1", "value");
+
+    Cache.ValueWrapper value = nodeB.getCache("examples").get("1");
+
+    assertThat(value).isNotNull();
+    assertThat(value.get()).isEqualTo("value");
+  }
+
+  @Test
+  void evictOnOneNodeDropsStaleL1EntryOnTheOther() {
+    nodeA.getCache("examples").put("1", "value");
+    nodeB.getCache("examples").get("1");
+
+    nodeA.getCache("examples").evict("1");
+
+    assertThat(shared.getCache("examples").get("1")).isNull();
+    assertThat(nodeB.getCache("examples").get("1")).isNull();
+  }
+
+  @Test
+  void clearIsBroadcastToOtherNodes() {
+    nodeA.getCache("examples").put("1", "value");
+    nodeB.getCache("examples").get("1");
+
+    nodeA.getCache("examples").clear();
+
+    assertThat(nodeB.getCache("examples").get("1")).isNull();
+  }
+
+  @Test
+  void deleteEvictionIsFlaggedForTheOtherNodesListeners() {
+    List<CacheInvalidationMessage> received = new ArrayList<>();
+    nodeB.addInvalidationListener(received::add);
+    TwoTierCache examples = (TwoTierCache) nodeA.getCache("examples");
+
+    examples.evict("1");
+    examples.evictDeleted("2");
+
+    assertThat(received)
+        .extracting(CacheInvalidationMessage::key, CacheInvalidationMessage::deleted)
+        .containsExactly(tuple("1", false), tuple("2", true));
+  }
+
+  @Test
+  void concurrentMissesShareOneLoad() throws Exception {
+    Cache cache = nodeA.getCache("examples");
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    Callable<String> loader =
+        () -> {
+          loads.incrementAndGet();
+          Thread.sleep(100);
+          return "value";
+        };
+
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return cache.get("1", loader);
+                }));
+      }
+      start.countDown();
+      for (Future<String> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(loads).hasValue(1);
+    assertThat(shared.getCache("examples").get("1").get()).isEqualTo("value");
+  }
+
+  @Test
+  void evictAndOtherKeysDoNotWaitForAnInFlightLoad() throws Exception {
+    Cache cache = nodeA.getCache("examples");
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<String> slow =
+          executor.submit(
+              () ->
+                  cache.get(
+                      "1",
+                      () -> {
+                        loading.countDown();
+                        release.await();
+                        return "slow";
+                      }));
+      assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+      cache.evict("1");
+      assertThat(cache.get("2", () -> "fast")).isEqualTo("fast");
+
+      release.countDown();
+      assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void loadInFlightDuringAnEvictIsNotCached() throws Exception {
+    Cache cache = nodeA.getCache("examples");
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<String> stale =
+          executor.submit(
+              () ->
+                  cache.get(
+                      "1",
+                      () -> {
+                        loading.countDown();
+                        release.await();
+                        return "before delete";
+                      }));
+      assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+      ((TwoTierCache) cache).evictDeleted("1");
+      release.countDown();
+
+      assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before delete");
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(shared.getCache("examples").get("1")).isNull();
+    assertThat(cache.get("1")).isNull();
+    assertThat(nodeB.getCache("examples").get("1", () -> "after delete")).isEqualTo("after delete");
+  }
+
+  @Test
+  void failedLoadIsNotCached() {
+    Cache cache = nodeA.getCache("examples");
+
+    assertThatThrownBy(
+            () ->
+                cache.get(
+                    "1",
+                    () -> {
+                      throw new IllegalStateException("Mongo down");
+                    }))
+        .isInstanceOf(Cache.ValueRetrievalException.class)
+        .hasRootCauseMessage("Mongo down");
+
+    assertThat(cache.get("1", () -> "value")).isEqualTo("value");
+  }
+
+  @Test
+  void loadIsServedFromL2BeforeCallingTheLoader() {
+    nodeA.getCache("examples").put("1", "value");
+
+    String value =
+        nodeB
+            .getCache("examples")
+            .get(
+                "1",
+                () -> {
+                  throw new IllegalStateException("should not load");
+                });
+
+    assertThat(value).isEqualTo("value");
+  }
+
+  @Test
+  void l2FailureDegradesToL1() {
+    Cache failing = new FailingCache("examples");
+    TwoTierCache cache =
+        new TwoTierCache(
+            new CaffeineCache("examples", Caffeine.newBuilder().buildAsync(), true),
+            failing,
+            "node",
+            message -> {});
+
+    cache.put("1", "value");
+
+    assertThat(cache.get("1").get()).isEqualTo("value");
+  }
+
+  private record FailingCache(String name) implements Cache {
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+      return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+      throw new IllegalStateException("L2 down");
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+      throw new IllegalStateException("L2 down");
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+      throw new IllegalStateException("L2 down");
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+      throw new IllegalStateException("L2 down");
+    }
+
+    @Override
+    public void evict(Object key) {
+      throw new IllegalStateException("L2 down");
+    }
+
+    @Override
+    public void clear() {
+      throw new IllegalStateException("L2 down");
+    }
+  }
+}
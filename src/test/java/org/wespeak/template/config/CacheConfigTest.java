@@ -0,0 +1,44 @@
+package org.wespeak.template.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.wespeak.template.ExampleResponse;
+
+/** Values of the L2 cache as written to and read back from Redis. */
+class CacheConfigTest {
+
+  private final GenericJacksonJsonRedisSerializer serializer = CacheConfig.redisValueSerializer();
+
+  @Test
+  void cachedValuesReadBackAsTheirOwnType() {
+    ExampleResponse example =
+        ExampleResponse.builder()
+            .id("507f1f77bcf86cd799439011")
+            .code("CACHED")
+            .name("Cached")
+            .active(true)
+            .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+            .updatedAt(Instant.parse("2026-01-02T00:00:00Z"))
+            .build();
+
+    assertThat(serializer.deserialize(serializer.serialize(example))).isEqualTo(example);
+    assertThat(serializer.deserialize(serializer.serialize("507f1f77bcf86cd799439011")))
+        .isEqualTo("507f1f77bcf86cd799439011");
+  }
+
+  @Test
+  void classesOutsideTheApplicationAndTheJdkAreRejected() {
+    byte[] foreign =
+        "{\"@class\":\"org.springframework.context.support.GenericApplicationContext\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    assertThatThrownBy(() -> serializer.deserialize(foreign))
+        .isInstanceOf(SerializationException.class);
+  }
+}
@@ -0,0 +1,295 @@
+package org.wespeak.template.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.validation.Validator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.OutboxEventEntity;
+
+/** Example endpoints through the full servlet stack, with a mock JWT, against embedded Mongo. */
+@SpringBootTest(
+    properties = {
+      "app.examples.bulk.max-size=5",
+      "app.limiter.enabled=false",
+      "server.compression.min-response-size=1B"
+    })
+@ActiveProfiles("test")
+class ExampleControllerIT {
+
+  /** Name refused by the collection validator, to get a write error other than a duplicate. */
+  private static final String REJECTED_NAME = "Rejected by validator";
+
+  @Autowired private WebApplicationContext context;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  private MockMvc mvc;
+
+  @BeforeEach
+  void setUp() {
+    mvc =
+        MockMvcBuilders.webAppContextSetup(context)
+            .apply(SecurityMockMvcConfigurers.springSecurity())
+            .build();
+    mongoTemplate.dropCollection(ExampleEntity.class);
+    mongoTemplate.createCollection(
+        ExampleEntity.class,
+        CollectionOptions.empty()
+            .validator(Validator.criteria(Criteria.where("name").ne(REJECTED_NAME))));
+    // Tests run without auto-index-creation: the unique code index decides conflicts
+    mongoTemplate
+        .getCollection(mongoTemplate.getCollectionName(ExampleEntity.class))
+        .createIndex(Indexes.ascending("code"), new IndexOptions().unique(true));
+  }
+
+  @Test
+  void bulkReportsEachItemInRequestOrder() throws Exception {
+    bulk(item("BULK_EXISTING", "Existing")).andExpect(status().isOk());
+
+    bulk(
+            item("BULK_A", "First"),
+            item("BULK_EXISTING", "Duplicate"),
+            item("", "No code"),
+            item("BULK_B", REJECTED_NAME),
+            item("BULK_C", "Last"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created").value(2))
+        .andExpect(jsonPath("$.conflicts").value(1))
+        .andExpect(jsonPath("$.invalid").value(1))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.items[*].index").value(contains(0, 1, 2, 3, 4)))
+        .andExpect(
+            jsonPath("$.items[*].status")
+                .value(contains("CREATED", "CONFLICT", "INVALID", "FAILED", "CREATED")))
+        .andExpect(jsonPath("$.items[0].example.code").value("BULK_A"))
+        .andExpect(jsonPath("$.items[2].validationErrors.code").exists())
+        .andExpect(jsonPath("$.items[4].example.code").value("BULK_C"));
+  }
+
+  @Test
+  void bulkPublishesEventsOfCreatedItemsOnly() throws Exception {
+    mongoTemplate.dropCollection(OutboxEventEntity.class);
+    bulk(item("OUTBOX_EXISTING", "Existing")).andExpect(status().isOk());
+
+    bulk(
+            item("OUTBOX_A", "Created"),
+            item("OUTBOX_EXISTING", "Duplicate"),
+            item("OUTBOX_B", REJECTED_NAME))
+        .andExpect(jsonPath("$.created").value(1));
+
+    List<OutboxEventEntity> events = mongoTemplate.findAll(OutboxEventEntity.class);
+    assertThat(events).hasSize(2).allSatisfy(event -> assertThat(event.getHeld()).isNull());
+    assertThat(events)
+        .extracting(OutboxEventEntity::getPayload)
+        .anySatisfy(payload -> assertThat(payload).contains("OUTBOX_A"))
+        .noneSatisfy(payload -> assertThat(payload).contains("OUTBOX_B"));
+  }
+
+  @Test
+  void bulkKeepsRequestOrderWhenOnlySomeItemsAreWritten() throws Exception {
+    String[] items =
+        IntStream.range(0, 5)
+            .mapToObj(i -> i % 2 == 0 ? item("ORDER_" + i, "Item " + i) : item("x", "Too short"))
+            .toArray(String[]::new);
+
+    bulk(items)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[*].index").value(contains(0, 1, 2, 3, 4)))
+        .andExpect(jsonPath("$.items[0].example.code").value("ORDER_0"))
+        .andExpect(jsonPath("$.items[2].example.code").value("ORDER_2"))
+        .andExpect(jsonPath("$.items[4].example.code").value("ORDER_4"))
+        .andExpect(jsonPath("$.items[1].status").value("INVALID"))
+        .andExpect(jsonPath("$.items[3].status").value("INVALID"));
+  }
+
+  @Test
+  void bulkOverMaxSizeIsRejectedBeforeWriting() throws Exception {
+    String[] items =
+        IntStream.range(0, 6).mapToObj(i -> item("MAX_" + i, "Item " + i)).toArray(String[]::new);
+
+    bulk(items).andExpect(status().isBadRequest());
+
+    assertThat(mongoTemplate.count(new Query(), ExampleEntity.class)).isZero();
+  }
+
+  @Test
+  void exampleIsNotModifiedWhileItsETagMatches() throws Exception {
+    String id = create(item("ETAG_ITEM", "Item"));
+
+    String etag =
+        mvc.perform(get("/api/examples/{id}", id).with(user()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mvc.perform(get("/api/examples/{id}", id).with(user()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void listIsNotModifiedUntilAnExampleIsCreatedOrDeleted() throws Exception {
+    String initial = pageETag();
+    mvc.perform(get("/api/examples/page").with(user()).header(HttpHeaders.IF_NONE_MATCH, initial))
+        .andExpect(status().isNotModified());
+
+    String id = create(item("ETAG_LIST", "Listed"));
+
+    mvc.perform(get("/api/examples/page").with(user()).header(HttpHeaders.IF_NONE_MATCH, initial))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].code").value("ETAG_LIST"));
+    String afterCreate = pageETag();
+    assertThat(afterCreate).isNotEqualTo(initial);
+
+    mvc.perform(delete("/api/examples/{id}", id).with(admin())).andExpect(status().isNoContent());
+
+    mvc.perform(
+            get("/api/examples/page").with(user()).header(HttpHeaders.IF_NONE_MATCH, afterCreate))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items").isEmpty());
+    assertThat(pageETag()).isNotIn(initial, afterCreate);
+  }
+
+  @Test
+  void fullExampleHasEveryFieldButAnUnsetDescription() throws Exception {
+    String id = create(item("SHAPE_FULL", "Full"));
+
+    mvc.perform(get("/api/examples/{id}", id).with(user()).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(id))
+        .andExpect(jsonPath("$.code").value("SHAPE_FULL"))
+        .andExpect(jsonPath("$.name").value("Full"))
+        .andExpect(jsonPath("$.active").value(true))
+        .andExpect(jsonPath("$.createdAt").exists())
+        .andExpect(jsonPath("$.updatedAt").exists())
+        .andExpect(jsonPath("$.description").doesNotExist());
+  }
+
+  @Test
+  void sparseFieldsetHasTheIdAndTheSelectedFieldsOnly() throws Exception {
+    String id = create(item("SHAPE_SPARSE", "Sparse"));
+
+    mvc.perform(get("/api/examples/{id}", id).param("fields", "code").with(user()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(id))
+        .andExpect(jsonPath("$.code").value("SHAPE_SPARSE"))
+        .andExpect(jsonPath("$.name").doesNotExist())
+        .andExpect(jsonPath("$.active").doesNotExist())
+        .andExpect(jsonPath("$.updatedAt").doesNotExist());
+    mvc.perform(get("/api/examples/page").param("fields", "name,active").with(user()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].id").value(id))
+        .andExpect(jsonPath("$.items[0].name").value("Sparse"))
+        .andExpect(jsonPath("$.items[0].active").value(true))
+        .andExpect(jsonPath("$.items[0].code").doesNotExist());
+  }
+
+  @Test
+  void eachEncodingOfAnExampleHasItsOwnETag() throws Exception {
+    String id = create(item("ETAG_VARIANTS", "Variants"));
+
+    String json = eTag(get("/api/examples/{id}", id).accept(MediaType.APPLICATION_JSON));
+    String cbor = eTag(get("/api/examples/{id}", id).accept(MediaType.APPLICATION_CBOR));
+    String gzip =
+        eTag(
+            get("/api/examples/{id}", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+    assertThat(List.of(json, cbor, gzip)).doesNotHaveDuplicates();
+    mvc.perform(
+            get("/api/examples/{id}", id)
+                .with(user())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, json))
+        .andExpect(status().isOk());
+    mvc.perform(
+            get("/api/examples/{id}", id)
+                .with(user())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, cbor))
+        .andExpect(status().isNotModified());
+  }
+
+  private String pageETag() throws Exception {
+    return eTag(get("/api/examples/page"));
+  }
+
+  private String eTag(MockHttpServletRequestBuilder request) throws Exception {
+    return mvc.perform(request.with(user()))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andReturn()
+        .getResponse()
+        .getHeader(HttpHeaders.ETAG);
+  }
+
+  private String create(String item) throws Exception {
+    String body =
+        mvc.perform(
+                post("/api/examples")
+                    .with(user())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(item))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return JsonPath.read(body, "$.id");
+  }
+
+  private ResultActions bulk(String... items) throws Exception {
+    return mvc.perform(
+        post("/api/examples/_bulk")
+            .with(user())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(Arrays.stream(items).collect(Collectors.joining(",", "[", "]"))));
+  }
+
+  private static JwtRequestPostProcessor user() {
+    return jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"));
+  }
+
+  private static JwtRequestPostProcessor admin() {
+    return jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"));
+  }
+
+  private static String item(String code, String name) {
+    return "{\"code\":\"" + code + "\",\"name\":\"" + name + "\"}";
+  }
+}
@@ -0,0 +1,200 @@
+package org.wespeak.template.controller;
+
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.springSecurity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webflux.test.autoconfigure.WebFluxTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.JwtMutator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.wespeak.template.ExamplePageResponse;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.config.ReactiveSecurityConfig;
+import org.wespeak.template.exception.ResourceNotFoundException;
+import org.wespeak.template.service.CollectionVersionService.CollectionVersion;
+import org.wespeak.template.service.ReactiveExampleService;
+import reactor.core.publisher.Mono;
+
+/** ReactiveExampleController over a stub service: validators, errors and roles. */
+@WebFluxTest(controllers = ReactiveExampleController.class)
+@Import({ReactiveSecurityConfig.class, ReactiveExampleControllerTest.Stubs.class})
+@ActiveProfiles("reactive")
+class ReactiveExampleControllerTest {
+
+  private static final ExampleResponse EXAMPLE =
+      ExampleResponse.builder()
+          .id("507f1f77bcf86cd799439011")
+          .code("REACTIVE")
+          .name("Reactive")
+          .active(true)
+          .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+          .updatedAt(Instant.parse("2026-01-02T00:00:00Z"))
+          .build();
+
+  @Autowired private ApplicationContext context;
+
+  @Autowired private StubService service;
+
+  private WebTestClient client;
+
+  @BeforeEach
+  void setUp() {
+    client =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(springSecurity())
+            .configureClient()
+            .build();
+  }
+
+  @Test
+  void exampleIsNotModifiedWhileItsETagMatches() {
+    String etag =
+        client
+            .mutateWith(user())
+            .get()
+            .uri("/api/examples/{id}", EXAMPLE.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.code")
+            .isEqualTo("REACTIVE")
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+    client
+        .mutateWith(user())
+        .get()
+        .uri("/api/examples/{id}", EXAMPLE.getId())
+        .header(HttpHeaders.IF_NONE_MATCH, etag)
+        .exchange()
+        .expectStatus()
+        .isNotModified();
+  }
+
+  @Test
+  void unknownExampleIsNotFound() {
+    client
+        .mutateWith(user())
+        .get()
+        .uri("/api/examples/{id}", "507f1f77bcf86cd799439012")
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  @Test
+  void pageIsTaggedWithTheCollectionVersionWhenKnown() {
+    service.version = new CollectionVersion(3, Instant.parse("2026-01-02T00:00:00Z"));
+    client
+        .mutateWith(user())
+        .get()
+        .uri("/api/examples/page")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"examples-3\"");
+
+    service.version = CollectionVersion.UNKNOWN;
+    client
+        .mutateWith(user())
+        .get()
+        .uri("/api/examples/page")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .doesNotExist(HttpHeaders.ETAG)
+        .expectHeader()
+        .doesNotExist(HttpHeaders.LAST_MODIFIED);
+  }
+
+  @Test
+  void deleteNeedsTheAdminRole() {
+    client
+        .mutateWith(user())
+        .delete()
+        .uri("/api/examples/{id}", EXAMPLE.getId())
+        .exchange()
+        .expectStatus()
+        .isForbidden();
+    client
+        .delete()
+        .uri("/api/examples/{id}", EXAMPLE.getId())
+        .exchange()
+        .expectStatus()
+        .isUnauthorized();
+  }
+
+  private static JwtMutator user() {
+    return mockJwt().authorities(new SimpleGrantedAuthority("ROLE_USER"));
+  }
+
+  @TestConfiguration
+  static class Stubs {
+
+    @Bean
+    StubService stubService() {
+      return new StubService();
+    }
+
+    /** For the @EnableCaching of the application class; the reactive reads skip the cache. */
+    @Bean
+    CacheManager cacheManager() {
+      return new NoOpCacheManager();
+    }
+
+    /** Shared decoder adapted by ReactiveSecurityConfig; tests authenticate with mockJwt(). */
+    @Bean
+    JwtDecoder jwtDecoder() {
+      return token -> {
+        throw new BadJwtException("No token decoding in this test");
+      };
+    }
+  }
+
+  /** Serves {@link #EXAMPLE} and the collection version it is given, without Mongo. */
+  static class StubService extends ReactiveExampleService {
+
+    private volatile CollectionVersion version = new CollectionVersion(0, null);
+
+    StubService() {
+      super(null, null, null, null, null, null, null, null);
+    }
+
+    @Override
+    public Mono<ExampleResponse> getById(String id, Set<String> fields) {
+      return EXAMPLE.getId().equals(id)
+          ? Mono.just(EXAMPLE)
+          : Mono.error(new ResourceNotFoundException("Example", "id", id));
+    }
+
+    @Override
+    public Mono<CollectionVersion> collectionVersion() {
+      return Mono.just(version);
+    }
+
+    @Override
+    public Mono<ExamplePageResponse> findPage(String cursor, int size, Set<String> fields) {
+      return Mono.just(ExamplePageResponse.builder().items(List.of(EXAMPLE)).build());
+    }
+  }
+}
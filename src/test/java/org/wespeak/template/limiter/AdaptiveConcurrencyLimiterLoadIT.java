@@ -0,0 +1,110 @@
+package org.wespeak.template.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.wespeak.template.limiter.AdaptiveConcurrencyLimiter.Permit;
+
+/**
+ * Closed-loop overload against a simulated backend with a fixed connection pool, as when a burst
+ * exhausts the Mongo pool, on a manual clock. Each round every client sends a request; the admitted
+ * ones go through the pool {@code POOL_SIZE} at a time, so the n-th waits {@code n / POOL_SIZE}
+ * service times. Before the burst {@code POOL_SIZE} clients never queue, which sets the no-load
+ * latency. Without a limit every request waits behind the others, with the limiter the excess is
+ * rejected and the latency of admitted requests stays bounded.
+ */
+class AdaptiveConcurrencyLimiterLoadIT {
+
+  private static final int POOL_SIZE = 8;
+  private static final long SERVICE_TIME = Duration.ofMillis(4).toNanos();
+  private static final int CLIENTS = 64;
+  private static final int WARM_UP_ROUNDS = 150;
+  private static final int RAMP_UP_ROUNDS = 50;
+  private static final int ROUNDS = 200;
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private record Result(
+      long completed, long rejected, long maxLatencyNanos, long elapsedNanos, int finalLimit) {
+
+    double throughput() {
+      return (double) completed / elapsedNanos;
+    }
+  }
+
+  @Test
+  void limiterKeepsLatencyBoundedUnderOverload() {
+    Result unlimited = run(null);
+    Result limited =
+        run(
+            new AdaptiveConcurrencyLimiter(
+                new ConcurrencyLimitProperties(
+                    50,
+                    2,
+                    100,
+                    1.5,
+                    0.2,
+                    4,
+                    0.5,
+                    Duration.ofMillis(50),
+                    600,
+                    Duration.ofSeconds(1)),
+                clock::get));
+
+    // Unlimited, the last request of a round queues behind CLIENTS / POOL_SIZE service times
+    assertThat(unlimited.maxLatencyNanos()).isEqualTo(SERVICE_TIME * CLIENTS / POOL_SIZE);
+    // The limit settles where requests wait at most a couple of turns on the pool
+    assertThat(limited.finalLimit()).isBetween(POOL_SIZE, 4 * POOL_SIZE);
+    assertThat(limited.maxLatencyNanos()).isLessThanOrEqualTo(4 * SERVICE_TIME);
+    assertThat(limited.completed() + limited.rejected()).isEqualTo((long) CLIENTS * ROUNDS);
+    // Rejecting the excess costs little throughput: the pool stays busy but for the last turn of a
+    // round, when the limit is not a multiple of its size
+    assertThat(limited.throughput()).isGreaterThan(0.85 * unlimited.throughput());
+  }
+
+  /** Runs the rounds, with every request admitted when {@code limiter} is null. */
+  private Result run(AdaptiveConcurrencyLimiter limiter) {
+    long completed = 0;
+    long rejected = 0;
+    long maxLatency = 0;
+    long measureFrom = 0;
+    for (int round = 0; round < WARM_UP_ROUNDS + RAMP_UP_ROUNDS + ROUNDS; round++) {
+      if (round == WARM_UP_ROUNDS + RAMP_UP_ROUNDS) {
+        measureFrom = clock.get();
+      }
+      boolean measured = round >= WARM_UP_ROUNDS + RAMP_UP_ROUNDS;
+      List<Permit> permits = new ArrayList<>();
+      int admitted = 0;
+      int clients = round < WARM_UP_ROUNDS ? POOL_SIZE : CLIENTS;
+      for (int client = 0; client < clients; client++) {
+        Permit permit = limiter != null ? limiter.tryAcquire(Priority.NORMAL) : null;
+        if (limiter == null || permit != null) {
+          permits.add(permit);
+          admitted++;
+        } else if (measured) {
+          rejected++;
+        }
+      }
+
+      long start = clock.get();
+      for (int i = 0; i < admitted; i++) {
+        long latency = (i / POOL_SIZE + 1) * SERVICE_TIME;
+        clock.set(start + latency);
+        if (permits.get(i) != null) {
+          permits.get(i).release();
+        }
+        if (measured) {
+          completed++;
+          maxLatency = Math.max(maxLatency, latency);
+        }
+      }
+      clock.set(start + ((admitted + POOL_SIZE - 1) / POOL_SIZE) * SERVICE_TIME);
+    }
+    int finalLimit = limiter != null ? limiter.getLimit() : CLIENTS;
+    return new Result(completed, rejected, maxLatency, clock.get() - measureFrom, finalLimit);
+  }
+}
@@ -0,0 +1,132 @@
+package org.wespeak.template.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wespeak.template.limiter.AdaptiveConcurrencyLimiter.Permit;
+
+/** AdaptiveConcurrencyLimiter driven by a manual clock. */
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long NO_LOAD_RTT = Duration.ofMillis(5).toNanos();
+
+  private final AtomicLong clock = new AtomicLong();
+  private AdaptiveConcurrencyLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    limiter =
+        new AdaptiveConcurrencyLimiter(
+            new ConcurrencyLimitProperties(
+                20, 4, 100, 1.5, 0.2, 4, 0.5, Duration.ofMillis(10), 600, Duration.ofSeconds(1)),
+            clock::get);
+  }
+
+  @Test
+  void limitGrowsWhileLatencyStaysAtNoLoad() {
+    for (int i = 0; i < 10; i++) {
+      completeRound(limiter.getLimit(), NO_LOAD_RTT);
+    }
+
+    assertThat(limiter.getLimit()).isGreaterThan(20);
+  }
+
+  @Test
+  void limitShrinksWhenRequestsQueue() {
+    // Past the warm-up windows, so the long-term average is the no-load latency
+    for (int i = 0; i < 20; i++) {
+      completeRound(limiter.getLimit(), NO_LOAD_RTT);
+    }
+    int before = limiter.getLimit();
+
+    for (int i = 0; i < 10; i++) {
+      completeRound(limiter.getLimit(), NO_LOAD_RTT * 4);
+    }
+
+    assertThat(limiter.getLimit()).isLessThan(before).isGreaterThanOrEqualTo(4);
+  }
+
+  @Test
+  void limitHoldsUnderBimodalLatencyWithoutQueueing() {
+    // 80% cache hits at 0.2 ms, 20% Mongo reads at 3 ms, at a constant concurrency
+    long cacheHit = TimeUnit.MICROSECONDS.toNanos(200);
+    long mongoRead = TimeUnit.MILLISECONDS.toNanos(3);
+    Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      List<Permit> permits = acquire(Priority.NORMAL, 20);
+      long start = clock.get();
+      permits.stream()
+          .map(permit -> Map.entry(random.nextInt(5) == 0 ? mongoRead : cacheHit, permit))
+          .sorted(Map.Entry.comparingByKey())
+          .forEach(
+              completion -> {
+                clock.set(start + completion.getKey());
+                completion.getValue().release();
+              });
+    }
+
+    assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(20);
+  }
+
+  @Test
+  void idleTrafficDoesNotRaiseTheLimit() {
+    for (int i = 0; i < 100; i++) {
+      completeRound(2, NO_LOAD_RTT);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(20);
+  }
+
+  @Test
+  void requestsBeyondTheLimitAreRejectedExceptCriticalOnes() {
+    List<Permit> permits = acquire(Priority.NORMAL, 20);
+
+    assertThat(permits).doesNotContainNull();
+    assertThat(limiter.tryAcquire(Priority.NORMAL)).isNull();
+    assertThat(limiter.tryAcquire(Priority.SHEDDABLE)).isNull();
+    assertThat(limiter.tryAcquire(Priority.CRITICAL)).isNotNull();
+    assertThat(limiter.getInflight()).isEqualTo(21);
+  }
+
+  @Test
+  void sheddableRequestsOnlyGetTheirShareOfTheLimit() {
+    List<Permit> sheddable = acquire(Priority.SHEDDABLE, 10);
+
+    assertThat(sheddable).doesNotContainNull();
+    assertThat(limiter.tryAcquire(Priority.SHEDDABLE)).isNull();
+    assertThat(limiter.tryAcquire(Priority.NORMAL)).isNotNull();
+  }
+
+  @Test
+  void permitIsReleasedOnce() {
+    Permit permit = limiter.tryAcquire(Priority.NORMAL);
+
+    permit.release();
+    permit.release();
+    permit.releaseWithoutSample();
+
+    assertThat(limiter.getInflight()).isZero();
+  }
+
+  private void completeRound(int concurrency, long rtt) {
+    List<Permit> permits = acquire(Priority.NORMAL, concurrency);
+    clock.addAndGet(rtt);
+    permits.forEach(Permit::release);
+  }
+
+  private List<Permit> acquire(Priority priority, int count) {
+    List<Permit> permits = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      permits.add(limiter.tryAcquire(priority));
+    }
+    return permits;
+  }
+}
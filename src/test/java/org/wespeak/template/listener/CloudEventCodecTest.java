@@ -0,0 +1,101 @@
+package org.wespeak.template.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wespeak.template.listener.CloudEventCodec.EncodedEvent;
+import org.wespeak.template.listener.CloudEventCodec.Encoding;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleCreatedPayload;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleDeletedPayload;
+import org.wespeak.template.service.SampleService.SampleEventPayload;
+
+/** Binary (Avro/JSON) and structured CloudEvents against an in-memory schema registry. */
+class CloudEventCodecTest {
+
+  private static final Instant TIME = Instant.parse("2024-01-15T10:30:00Z");
+
+  private CloudEventCodec codec;
+
+  @BeforeEach
+  void setUp() {
+    ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    codec = new CloudEventCodec(objectMapper, "mock://codec-test");
+  }
+
+  @Test
+  void avroBinaryModeRoundTrip() throws Exception {
+    CloudEvent<SampleEventPayload> event =
+        new CloudEvent<>(
+            "evt-1", "test", "sample.created", TIME, new SampleEventPayload("s-1", "hi"));
+
+    EncodedEvent encoded = codec.encode("sample.events", event, Encoding.AVRO);
+
+    assertThat(header(encoded, CloudEventCodec.CONTENT_TYPE)).isEqualTo("application/avro");
+    assertThat(codec.decode(encoded.value(), headers(encoded), SampleEventPayload.class))
+        .isEqualTo(event);
+  }
+
+  @Test
+  void jsonBinaryModeRoundTrip() throws Exception {
+    CloudEvent<SampleEventPayload> event =
+        new CloudEvent<>(
+            "evt-2", "test", "sample.created", TIME, new SampleEventPayload("s-2", "hi"));
+
+    EncodedEvent encoded = codec.encode("sample.events", event, Encoding.JSON);
+
+    assertThat(header(encoded, CloudEventCodec.CONTENT_TYPE)).isEqualTo("application/json");
+    assertThat(codec.decode(encoded.value(), headers(encoded), SampleEventPayload.class))
+        .isEqualTo(event);
+  }
+
+  @Test
+  void structuredJsonIsStillAccepted() {
+    byte[] json =
+        ("{\"id\":\"evt-3\",\"source\":\"legacy\",\"type\":\"sample.created\","
+                + "\"time\":\"2024-01-15T10:30:00Z\",\"data\":{\"id\":\"s-3\",\"message\":\"m\"}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    CloudEvent<SampleEventPayload> event = codec.decode(json, Map.of(), SampleEventPayload.class);
+
+    assertThat(event)
+        .isEqualTo(
+            new CloudEvent<>(
+                "evt-3", "legacy", "sample.created", TIME, new SampleEventPayload("s-3", "m")));
+  }
+
+  @Test
+  void otherAvroEventTypeOfTheTopicHasNoData() throws Exception {
+    CloudEvent<ExampleDeletedPayload> deleted =
+        new CloudEvent<>(
+            "evt-4", "test", "example.deleted", TIME, new ExampleDeletedPayload("1", "C"));
+    EncodedEvent encoded = codec.encode("example.events", deleted, Encoding.AVRO);
+
+    CloudEvent<ExampleCreatedPayload> event =
+        codec.decode(encoded.value(), headers(encoded), ExampleCreatedPayload.class);
+
+    assertThat(event.type()).isEqualTo("example.deleted");
+    assertThat(event.data()).isNull();
+  }
+
+  @Test
+  void undecodableRecordIsNull() {
+    byte[] garbage = "not json".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(codec.decode(garbage, Map.of(), SampleEventPayload.class)).isNull();
+  }
+
+  private static Map<String, Object> headers(EncodedEvent encoded) {
+    return new HashMap<>(encoded.headers());
+  }
+
+  private static String header(EncodedEvent encoded, String name) {
+    return new String(encoded.headers().get(name), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,77 @@
+package org.wespeak.template.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.wespeak.template.ProcessedEventEntity;
+
+/** Duplicate detection against the embedded Mongo, with and without the Bloom filter. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class EventDeduplicatorIT {
+
+  private static final String LISTENER = "testListener";
+
+  @Autowired private EventDeduplicator deduplicator;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void cleanUp() {
+    mongoTemplate.dropCollection(ProcessedEventEntity.class);
+    deduplicator.rebuild();
+  }
+
+  @Test
+  void skipsEventsProcessedBefore() {
+    List<CloudEvent<String>> first = events("a", "b", "c");
+    deduplicator.markProcessed(LISTENER, first, first.size(), new BitSet());
+
+    List<CloudEvent<String>> redelivered = events("b", "d", "c", null);
+    BitSet duplicates = deduplicator.duplicates(LISTENER, redelivered);
+
+    assertThat(duplicates.stream().toArray()).containsExactly(0, 2);
+    assertThat(deduplicator.duplicates("otherListener", redelivered).isEmpty()).isTrue();
+  }
+
+  @Test
+  void marksOnlyHandledRecords() {
+    List<CloudEvent<String>> batch = events("a", "b", "c");
+    deduplicator.markProcessed(LISTENER, batch, 1, new BitSet());
+
+    assertThat(deduplicator.duplicates(LISTENER, batch).stream().toArray()).containsExactly(0);
+  }
+
+  @Test
+  void seesEventsRecordedByOtherPodsAfterCatchUp() {
+    mongoTemplate.insert(new ProcessedEventEntity(LISTENER + "/test-source/x", Instant.now()));
+    deduplicator.catchUp();
+
+    assertThat(deduplicator.duplicates(LISTENER, events("x")).get(0)).isTrue();
+    assertThat(
+            meterRegistry
+                .get("events.dedup.checks")
+                .tags("listener", LISTENER, "result", "duplicate", "by", "store")
+                .counter()
+                .count())
+        .isPositive();
+  }
+
+  private static List<CloudEvent<String>> events(String... ids) {
+    return Arrays.stream(ids)
+        .map(id -> id == null ? null : new CloudEvent<>(id, "test-source", "test", null, id))
+        .toList();
+  }
+}
@@ -0,0 +1,115 @@
+package org.wespeak.template.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.wespeak.template.exception.BatchProcessingException;
+
+class KeyOrderedBatchProcessorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final KeyOrderedBatchProcessor processor =
+      new KeyOrderedBatchProcessor(meterRegistry, 4, 8);
+
+  @AfterEach
+  void shutdown() {
+    processor.shutdown();
+  }
+
+  @Test
+  void keepsOrderPerKey() {
+    List<String> keys = IntStream.range(0, 200).mapToObj(i -> "key-" + i % 10).toList();
+    Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+    processor.process(
+        "test",
+        keys,
+        lane ->
+            lane.forEach(
+                index ->
+                    seen.computeIfAbsent(keys.get(index), key -> new ArrayList<>()).add(index)));
+
+    assertThat(seen).hasSize(10);
+    seen.values().forEach(indices -> assertThat(indices).isSorted().hasSize(20));
+  }
+
+  @Test
+  void runsLanesConcurrently() {
+    List<String> keys = List.of("a", "b", "c", "d");
+    CountDownLatch allStarted = new CountDownLatch(4);
+
+    processor.process(
+        "test",
+        keys,
+        lane -> {
+          lane.forEach(index -> allStarted.countDown());
+          try {
+            assertThat(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        });
+
+    assertThat(allStarted.getCount()).isZero();
+  }
+
+  @Test
+  void reportsLowestFailedBatchIndex() {
+    List<String> keys = IntStream.range(0, 40).mapToObj(i -> "key-" + i).toList();
+
+    assertThatThrownBy(
+            () ->
+                processor.process(
+                    "test",
+                    keys,
+                    lane -> {
+                      for (int position = 0; position < lane.size(); position++) {
+                        if (lane.get(position) % 7 == 3) {
+                          throw new BatchProcessingException(position, "boom");
+                        }
+                      }
+                    }))
+        .isInstanceOf(BatchProcessingException.class)
+        .extracting(ex -> ((BatchProcessingException) ex).getFailedIndex())
+        .isEqualTo(3);
+    assertThat(meterRegistry.get("events.inflight").tag("listener", "test").gauge().value())
+        .isZero();
+  }
+
+  @Test
+  void reportsTheRecordThatThrewNotTheFirstOfItsLane() {
+    List<String> keys = Collections.nCopies(10, "same-key");
+    List<Integer> handled = new ArrayList<>();
+
+    assertThatThrownBy(
+            () ->
+                processor.process(
+                    "test",
+                    keys,
+                    lane ->
+                        KeyOrderedBatchProcessor.forEachRecord(
+                            lane,
+                            index -> {
+                              if (index == 6) {
+                                throw new IllegalArgumentException("bad record");
+                              }
+                              handled.add(index);
+                            })))
+        .isInstanceOf(BatchProcessingException.class)
+        .hasMessage("bad record")
+        .extracting(ex -> ((BatchProcessingException) ex).getFailedIndex())
+        .isEqualTo(6);
+    assertThat(handled).containsExactly(0, 1, 2, 3, 4, 5);
+  }
+}
@@ -0,0 +1,109 @@
+package org.wespeak.template.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.wespeak.template.SampleEventEntity;
+
+/** Batch consumption of sample.events against embedded Kafka: throughput and poison isolation. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "spring.autoconfigure.exclude=",
+      "spring.cloud.stream.enabled=true",
+      "spring.cloud.function.definition=sampleEventListener",
+      "spring.cloud.stream.kafka.binder.brokers=${spring.embedded.kafka.brokers}",
+      "app.kafka.consumer.max-attempts=1",
+      "logging.level.org.wespeak=INFO"
+    })
+@EmbeddedKafka(
+    partitions = 3,
+    topics = {"sample.events", "sample.events.dlq"})
+@ActiveProfiles("test")
+class SampleEventListenersIT {
+
+  private static final Logger log = LoggerFactory.getLogger(SampleEventListenersIT.class);
+
+  private static final int EVENT_COUNT = 20_000;
+  private static final int POISON_INDEX = EVENT_COUNT / 2;
+
+  @Autowired private EmbeddedKafkaBroker broker;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Test
+  void consumesBatchesAndIsolatesPoisonRecord() throws InterruptedException {
+    mongoTemplate.dropCollection(SampleEventEntity.class);
+    KafkaTemplate<String, String> producer =
+        new KafkaTemplate<>(
+            new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker),
+                new StringSerializer(),
+                new StringSerializer()));
+
+    Instant start = Instant.now();
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      String data = i == POISON_INDEX ? "null" : "{\"id\":\"evt-" + i + "\",\"message\":\"m\"}";
+      producer.send("sample.events", "key-" + (i % 64), cloudEvent(i, data));
+    }
+    producer.flush();
+
+    long expected = EVENT_COUNT - 1;
+    long deadline = System.nanoTime() + Duration.ofSeconds(120).toNanos();
+    long stored = 0;
+    while (stored < expected && System.nanoTime() < deadline) {
+      Thread.sleep(200);
+      stored = mongoTemplate.count(new Query(), SampleEventEntity.class);
+    }
+    Duration elapsed = Duration.between(start, Instant.now());
+    log.info(
+        "Consumed {} sample events in {} ms ({} events/s)",
+        stored,
+        elapsed.toMillis(),
+        stored * 1000 / Math.max(elapsed.toMillis(), 1));
+
+    assertThat(stored).isEqualTo(expected);
+    assertThat(deadLetter().value()).contains("evt-poison-" + POISON_INDEX);
+  }
+
+  private ConsumerRecord<String, String> deadLetter() {
+    Map<String, Object> props = KafkaTestUtils.consumerProps(broker, "dlq-reader", false);
+    try (Consumer<String, String> consumer =
+        new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+            .createConsumer()) {
+      broker.consumeFromAnEmbeddedTopic(consumer, "sample.events.dlq");
+      return KafkaTestUtils.getSingleRecord(consumer, "sample.events.dlq", Duration.ofSeconds(30));
+    }
+  }
+
+  private static String cloudEvent(int i, String data) {
+    String id = "evt-" + (i == POISON_INDEX ? "poison-" : "") + i;
+    return "{\"id\":\""
+        + id
+        + "\",\"source\":\"load-test\",\"type\":\"sample.created\",\"time\":\""
+        + Instant.now()
+        + "\",\"data\":"
+        + data
+        + "}";
+  }
+}
@@ -0,0 +1,68 @@
+package org.wespeak.template.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SamplingTurboFilterTest {
+
+  private static final String CREATED = "Creating example with code: {}";
+
+  private final AtomicLong second = new AtomicLong();
+  private SamplingTurboFilter filter;
+  private Logger logger;
+
+  @BeforeEach
+  void setUp() {
+    filter = new SamplingTurboFilter(second::get);
+    filter.setEventsPerSecond(2);
+    filter.start();
+    logger = new LoggerContext().getLogger("org.wespeak.template.Test");
+    logger.setLevel(Level.DEBUG);
+  }
+
+  @Test
+  void deniesEventsOfACallSiteOverTheRateUntilTheNextSecond() {
+    long sampled = SamplingTurboFilter.sampled(Level.INFO);
+
+    assertThat(decide(Level.INFO, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+    assertThat(decide(Level.INFO, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+    assertThat(decide(Level.INFO, CREATED)).isEqualTo(FilterReply.DENY);
+    assertThat(decide(Level.INFO, "Deleting example with id: {}")).isEqualTo(FilterReply.NEUTRAL);
+    assertThat(SamplingTurboFilter.sampled(Level.INFO)).isEqualTo(sampled + 1);
+
+    second.incrementAndGet();
+
+    assertThat(decide(Level.INFO, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+  }
+
+  @Test
+  void neverSamplesWarningsErrorsOrEnabledChecks() {
+    for (int i = 0; i < 5; i++) {
+      assertThat(decide(Level.WARN, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+      assertThat(decide(Level.ERROR, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+      assertThat(decide(Level.INFO, null)).isEqualTo(FilterReply.NEUTRAL);
+    }
+    assertThat(decide(Level.INFO, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+  }
+
+  @Test
+  void disabledEventsDoNotUseTheBudget() {
+    for (int i = 0; i < 5; i++) {
+      assertThat(decide(Level.TRACE, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+    }
+    assertThat(decide(Level.DEBUG, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+    assertThat(decide(Level.DEBUG, CREATED)).isEqualTo(FilterReply.NEUTRAL);
+    assertThat(decide(Level.DEBUG, CREATED)).isEqualTo(FilterReply.DENY);
+  }
+
+  private FilterReply decide(Level level, String format) {
+    return filter.decide(null, logger, level, format, null, null);
+  }
+}
@@ -0,0 +1,70 @@
+package org.wespeak.template.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wespeak.template.listener.CloudEvent;
+
+class EventMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private EventMetrics eventMetrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    eventMetrics = new EventMetrics(registry, Set.of("example.created", "example.deleted"));
+  }
+
+  @Test
+  void countsProcessedAndSkippedRecordsByType() {
+    EventMetrics.Batch batch =
+        eventMetrics.start("listener", List.of(event("example.created"), event("example.deleted")));
+    batch.skipped(1);
+    batch.processed();
+
+    assertThat(consumed("example.created", "processed")).isEqualTo(1);
+    assertThat(consumed("example.deleted", "skipped")).isEqualTo(1);
+    assertThat(registry.get("events.batch.processing").tag("outcome", "success").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void failedBatchCountsOnlyRecordsUpToTheFailure() {
+    List<CloudEvent<?>> events =
+        Arrays.asList(event("example.created"), null, event("example.created"));
+
+    eventMetrics.start("listener", events).failed(1);
+
+    assertThat(consumed("example.created", "processed")).isEqualTo(1);
+    assertThat(consumed("undecodable", "failed")).isEqualTo(1);
+    assertThat(registry.get("events.batch.processing").tag("outcome", "failure").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void unknownTypesShareOneTag() {
+    eventMetrics.start("listener", List.of(event("random.1"), event("random.2"))).processed();
+
+    assertThat(consumed("other", "processed")).isEqualTo(2);
+  }
+
+  private double consumed(String type, String outcome) {
+    return registry
+        .get("events.consumed")
+        .tag("type", type)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  private static CloudEvent<?> event(String type) {
+    return new CloudEvent<>("id", "test", type, Instant.now(), "data");
+  }
+}
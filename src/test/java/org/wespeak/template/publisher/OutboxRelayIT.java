@@ -0,0 +1,159 @@
+package org.wespeak.template.publisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.wespeak.template.OutboxEventEntity;
+import org.wespeak.template.listener.CloudEventCodec.Encoding;
+import org.wespeak.template.listener.ExampleEventListeners.ExampleCreatedPayload;
+import org.wespeak.template.service.OutboxService;
+
+/** Outbox entries are relayed to example.events on embedded Kafka and marked as published. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "spring.cloud.stream.kafka.binder.brokers=${spring.embedded.kafka.brokers}",
+      "app.outbox.relay.enabled=true",
+      "app.outbox.initial-delay=3600000",
+      "app.outbox.batch-size=50",
+      "app.outbox.max-attempts=2",
+      "app.events.encoding=JSON"
+    })
+@EmbeddedKafka(partitions = 3, topics = "example.events")
+@ActiveProfiles("test")
+class OutboxRelayIT {
+
+  private static final int EVENT_COUNT = 120;
+
+  @Autowired private EmbeddedKafkaBroker broker;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Autowired private OutboxService outboxService;
+
+  @Autowired private OutboxRelay relay;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(OutboxEventEntity.class);
+  }
+
+  @AfterEach
+  void restoreEncoding() {
+    ReflectionTestUtils.setField(relay, "encoding", Encoding.JSON);
+  }
+
+  @Test
+  void publishesPendingEventsAndMarksThemPublished() {
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      outboxService.append(
+          "example.created", "id-" + i, new ExampleCreatedPayload("id-" + i, "CODE_" + i, "n"));
+    }
+
+    relay.relay();
+
+    assertThat(
+            mongoTemplate.count(
+                Query.query(Criteria.where("publishedAt").ne(null)), OutboxEventEntity.class))
+        .isEqualTo(EVENT_COUNT);
+    assertThat(relay.publishPending()).isZero();
+
+    List<String> values = consumeAll();
+    assertThat(values).hasSize(EVENT_COUNT);
+    assertThat(values).allMatch(value -> value.contains("\"type\":\"example.created\""));
+  }
+
+  @Test
+  void leasedEntriesAreNotPublishedTwice() {
+    outboxService.append("example.created", "id-1", new ExampleCreatedPayload("id-1", "C", "n"));
+    mongoTemplate.updateMulti(
+        new Query(),
+        new Update()
+            .set("lockedBy", "other-node")
+            .set("lockedUntil", Instant.now().plusSeconds(60)),
+        OutboxEventEntity.class);
+
+    assertThat(relay.publishPending()).isZero();
+  }
+
+  @Test
+  void entryThatCannotBeEncodedIsRetriedThenMarkedFailed() {
+    ReflectionTestUtils.setField(relay, "encoding", Encoding.AVRO);
+    outboxService.append("example.created", "id-1", new ExampleCreatedPayload("id-1", "C", "n"));
+    mongoTemplate.updateMulti(
+        new Query(), new Update().set("payload", "not a CloudEvent"), OutboxEventEntity.class);
+
+    assertThat(relay.publishPending()).isEqualTo(1);
+    OutboxEventEntity entry = mongoTemplate.findOne(new Query(), OutboxEventEntity.class);
+    assertThat(entry.getAttempts()).isEqualTo(1);
+    assertThat(entry.getLastError()).isNotBlank();
+    assertThat(entry.getFailedAt()).isNull();
+    // Retried only once its lease has expired
+    assertThat(relay.publishPending()).isZero();
+
+    expireLeases();
+    assertThat(relay.publishPending()).isEqualTo(1);
+    entry = mongoTemplate.findOne(new Query(), OutboxEventEntity.class);
+    assertThat(entry.getAttempts()).isEqualTo(2);
+    assertThat(entry.getFailedAt()).isNotNull();
+    assertThat(entry.getPublishedAt()).isNull();
+
+    expireLeases();
+    assertThat(relay.publishPending()).isZero();
+    assertThat(failures("retried")).isEqualTo(1);
+    assertThat(failures("failed")).isEqualTo(1);
+  }
+
+  private void expireLeases() {
+    mongoTemplate.updateMulti(
+        new Query(),
+        new Update().set("lockedUntil", Instant.now().minusSeconds(1)),
+        OutboxEventEntity.class);
+  }
+
+  private double failures(String outcome) {
+    return meterRegistry.get("outbox.events.failed").tag("outcome", outcome).counter().count();
+  }
+
+  private List<String> consumeAll() {
+    Map<String, Object> props = KafkaTestUtils.consumerProps(broker, "outbox-reader", false);
+    try (Consumer<String, String> consumer =
+        new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+            .createConsumer()) {
+      broker.consumeFromAnEmbeddedTopic(consumer, "example.events");
+      List<String> values = new ArrayList<>();
+      long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+      while (values.size() < EVENT_COUNT && System.nanoTime() < deadline) {
+        ConsumerRecords<String, String> records =
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(1));
+        records.forEach(record -> values.add(record.value()));
+      }
+      return values;
+    }
+  }
+}
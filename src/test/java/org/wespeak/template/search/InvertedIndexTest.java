@@ -0,0 +1,98 @@
+package org.wespeak.template.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.wespeak.template.search.InvertedIndex.ExampleText;
+import org.wespeak.template.search.InvertedIndex.Hit;
+import org.wespeak.template.search.InvertedIndex.Result;
+
+class InvertedIndexTest {
+
+  private final InvertedIndex index = new InvertedIndex(64, 2);
+
+  @Test
+  void tokenizesWithoutCaseNorAccents() {
+    assertThat(InvertedIndex.tokens("Crème brûlée, EXAMPLE_001!"))
+        .containsExactly("creme", "brulee", "example", "001");
+  }
+
+  @Test
+  void ranksCodeAboveNameAboveDescription() {
+    index.add(new ExampleText("1", "OTHER", "Other", "mentions widget"));
+    index.add(new ExampleText("2", "OTHER_2", "Widget", null));
+    index.add(new ExampleText("3", "WIDGET", "Third", null));
+
+    assertThat(index.search("widget ", 0, 10).hits())
+        .extracting(Hit::id)
+        .containsExactly("3", "2", "1");
+  }
+
+  @Test
+  void matchesLastTermAsPrefixWhileTyping() {
+    index.add(new ExampleText("1", "A", "Blue widget", null));
+    index.add(new ExampleText("2", "B", "Blue window", null));
+    index.add(new ExampleText("3", "C", "Red widget", null));
+
+    assertThat(index.search("blue wi", 0, 10).hits()).extracting(Hit::id).containsExactly("1", "2");
+    assertThat(index.search("blue wi ", 0, 10).total()).isZero();
+    // Below the minimum prefix length, only whole terms match
+    assertThat(index.search("w", 0, 10).total()).isZero();
+  }
+
+  @Test
+  void expandsPrefixToTheMostFrequentTerms() {
+    InvertedIndex narrow = new InvertedIndex(2, 2);
+    narrow.add(new ExampleText("1", "A", "Widea", null));
+    narrow.add(new ExampleText("2", "B", "Wideb", null));
+    IntStream.range(3, 6)
+        .forEach(i -> narrow.add(new ExampleText(String.valueOf(i), "C", "Widget", null)));
+
+    // "widget" sorts after the two rare terms but is in more documents than either
+    assertThat(narrow.search("wid", 0, 10).hits())
+        .extracting(Hit::id)
+        .containsExactly("1", "3", "4", "5");
+  }
+
+  @Test
+  void pagesThroughMatchesInRankOrder() {
+    IntStream.range(0, 25)
+        .forEach(i -> index.add(new ExampleText("id-" + i, "CODE_" + i, "Example " + i, null)));
+
+    Result first = index.search("exam", 0, 10);
+    Result third = index.search("exam", 20, 10);
+
+    assertThat(first.total()).isEqualTo(25);
+    assertThat(first.hits()).extracting(Hit::id).startsWith("id-0", "id-1");
+    assertThat(third.hits()).hasSize(5).extracting(Hit::id).endsWith("id-24");
+  }
+
+  @Test
+  void skipsRemovedAndReplacedExamples() {
+    index.add(new ExampleText("1", "A", "Widget", null));
+    index.add(new ExampleText("2", "B", "Widget", null));
+    index.remove("1");
+    index.add(new ExampleText("2", "B", "Gadget", null));
+
+    assertThat(index.search("widget", 0, 10).total()).isZero();
+    assertThat(index.search("gadget", 0, 10).hits()).extracting(Hit::id).containsExactly("2");
+    assertThat(index.deleted()).isEqualTo(2);
+  }
+
+  @Test
+  void parallelBuildMatchesIncrementalIndex() {
+    List<ExampleText> examples =
+        IntStream.range(0, 25_000)
+            .mapToObj(i -> new ExampleText("id-" + i, "CODE_" + i, "Name " + i % 97, "text " + i))
+            .toList();
+    examples.forEach(index::add);
+
+    InvertedIndex built = InvertedIndex.build(examples, 64, 2);
+
+    for (String query : List.of("name 42", "code", "text 24999", "na")) {
+      assertThat(built.search(query, 0, 50)).isEqualTo(index.search(query, 0, 50));
+    }
+  }
+}
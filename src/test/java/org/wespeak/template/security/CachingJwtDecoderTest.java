@@ -0,0 +1,185 @@
+package org.wespeak.template.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.wespeak.template.config.JwtDecoderConfig;
+
+/** CachingJwtDecoder over the decoder of JwtDecoderConfig, against a local stub JWK endpoint. */
+class CachingJwtDecoderTest {
+
+  private static final Duration JWK_SET_TTL = Duration.ofSeconds(3);
+
+  private HttpServer jwkServer;
+  private AnnotationConfigApplicationContext context;
+  private RSAKey signingKey;
+  private SimpleMeterRegistry meterRegistry;
+  private final AtomicInteger jwkSetFetches = new AtomicInteger();
+  private final AtomicInteger verifications = new AtomicInteger();
+  private JwtDecoder verifyingDecoder;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    signingKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+    byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+
+    jwkServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    jwkServer.createContext(
+        "/certs",
+        exchange -> {
+          jwkSetFetches.incrementAndGet();
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, jwks.length);
+          try (OutputStream body = exchange.getResponseBody()) {
+            body.write(jwks);
+          }
+        });
+    jwkServer.start();
+
+    // Refreshed ahead 1.5s after each fetch: TTL - refresh-ahead - refresh-timeout
+    context = new AnnotationConfigApplicationContext();
+    context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+    TestPropertyValues.of(
+            "spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://localhost:"
+                + jwkServer.getAddress().getPort()
+                + "/certs",
+            "app.security.jwk-set.cache-ttl=" + JWK_SET_TTL.toMillis() + "ms",
+            "app.security.jwk-set.refresh-ahead=1s",
+            "app.security.jwk-set.refresh-timeout=500ms",
+            "app.security.jwk-set.rate-limit=500ms",
+            "app.security.jwt-cache.enabled=false")
+        .applyTo(context);
+    context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+    context.register(JwtDecoderConfig.class);
+    context.refresh();
+    JwtDecoder nimbus = context.getBean(JwtDecoder.class);
+    verifyingDecoder =
+        token -> {
+          verifications.incrementAndGet();
+          return nimbus.decode(token);
+        };
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    context.close();
+    jwkServer.stop(0);
+  }
+
+  @Test
+  void jwkSetIsRefetchedAheadOfExpiryWithoutARequest() throws Exception {
+    CachingJwtDecoder decoder = decoder(Duration.ofMinutes(5));
+    decoder.decode(token(Instant.now().plus(Duration.ofMinutes(10))));
+    long fetched = System.nanoTime();
+    assertThat(jwkSetFetches).hasValue(1);
+
+    while (jwkSetFetches.get() < 2 && System.nanoTime() - fetched < JWK_SET_TTL.toNanos()) {
+      Thread.sleep(50);
+    }
+
+    // Fetched again in the background before the cached set expired, no request waited on it
+    assertThat(jwkSetFetches).hasValue(2);
+    assertThat(Duration.ofNanos(System.nanoTime() - fetched)).isLessThan(JWK_SET_TTL);
+    decoder.decode(token(Instant.now().plus(Duration.ofMinutes(20))));
+    assertThat(jwkSetFetches).hasValue(2);
+    assertThat(verifications).hasValue(2);
+  }
+
+  @Test
+  void repeatedTokenIsVerifiedOnce() throws Exception {
+    CachingJwtDecoder decoder = decoder(Duration.ofMinutes(5));
+    String token = token(Instant.now().plus(Duration.ofMinutes(10)));
+
+    decoder.decode(token);
+    decoder.decode(token);
+    decoder.decode(token);
+
+    assertThat(verifications).hasValue(1);
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(2);
+    assertThat(meterRegistry.get("security.jwt.verification").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void entryExpiresAfterTtl() throws Exception {
+    CachingJwtDecoder decoder = decoder(Duration.ofMillis(100));
+    String token = token(Instant.now().plus(Duration.ofMinutes(10)));
+
+    decoder.decode(token);
+    Thread.sleep(200);
+    decoder.decode(token);
+
+    assertThat(verifications).hasValue(2);
+  }
+
+  @Test
+  void entryExpiresWithToken() throws Exception {
+    CachingJwtDecoder decoder = decoder(Duration.ofHours(1));
+    String token = token(Instant.now().plusSeconds(1));
+
+    decoder.decode(token);
+    Thread.sleep(1_200);
+    // Still accepted by the default 60s clock skew, but verified again
+    decoder.decode(token);
+
+    assertThat(verifications).hasValue(2);
+  }
+
+  @Test
+  void invalidTokenIsNeverCached() throws Exception {
+    CachingJwtDecoder decoder = decoder(Duration.ofMinutes(5));
+    String token = token(Instant.now().plus(Duration.ofMinutes(10)));
+    String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+    assertThatThrownBy(() -> decoder.decode(tampered)).isInstanceOf(JwtException.class);
+    assertThatThrownBy(() -> decoder.decode(tampered)).isInstanceOf(JwtException.class);
+
+    assertThat(verifications).hasValue(2);
+    assertThat(decoder.size()).isZero();
+  }
+
+  private CachingJwtDecoder decoder(Duration ttl) {
+    return new CachingJwtDecoder(verifyingDecoder, 100, ttl, meterRegistry);
+  }
+
+  private String token(Instant expiresAt) throws JOSEException {
+    SignedJWT jwt =
+        new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(),
+            new JWTClaimsSet.Builder()
+                .subject("backend-service")
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build());
+    jwt.sign(new RSASSASigner(signingKey));
+    return jwt.serialize();
+  }
+}
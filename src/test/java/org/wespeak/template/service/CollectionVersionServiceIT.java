@@ -0,0 +1,86 @@
+package org.wespeak.template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mongodb.client.result.UpdateResult;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.context.ActiveProfiles;
+import org.wespeak.template.CollectionVersionEntity;
+import org.wespeak.template.service.CollectionVersionService.CollectionVersion;
+
+/** Failed version increments against embedded Mongo: lists lose their validators, then recover. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class CollectionVersionServiceIT {
+
+  private static final String COLLECTION = "versioned";
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  private final AtomicBoolean failing = new AtomicBoolean();
+
+  private CollectionVersionService service;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.remove(new Query(), CollectionVersionEntity.class);
+    MongoTemplate failingUpserts =
+        new MongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter()) {
+          @Override
+          public UpdateResult upsert(Query query, UpdateDefinition update, Class<?> entityClass) {
+            if (failing.get()) {
+              throw new DataAccessResourceFailureException("Mongo unavailable");
+            }
+            return super.upsert(query, update, entityClass);
+          }
+        };
+    service = new CollectionVersionService(failingUpserts);
+  }
+
+  @Test
+  void incrementBumpsTheVersion() {
+    assertThat(service.current(COLLECTION).version()).isZero();
+
+    service.increment(COLLECTION);
+    service.increment(COLLECTION);
+
+    CollectionVersion version = service.current(COLLECTION);
+    assertThat(version.version()).isEqualTo(2);
+    assertThat(version.updatedAt()).isNotNull();
+  }
+
+  @Test
+  void versionIsUnknownUntilAFailedIncrementIsRetried() {
+    service.increment(COLLECTION);
+    failing.set(true);
+
+    service.increment(COLLECTION);
+
+    assertThat(service.isPending(COLLECTION)).isTrue();
+    assertThat(service.current(COLLECTION).known()).isFalse();
+
+    failing.set(false);
+    service.retryPendingIncrements();
+
+    assertThat(service.isPending(COLLECTION)).isFalse();
+    assertThat(service.current(COLLECTION).version()).isEqualTo(2);
+  }
+
+  @Test
+  void failedIncrementIsRetriedOnTheNextRead() {
+    failing.set(true);
+    service.increment(COLLECTION);
+    failing.set(false);
+
+    assertThat(service.current(COLLECTION).version()).isEqualTo(1);
+    assertThat(service.isPending(COLLECTION)).isFalse();
+  }
+}
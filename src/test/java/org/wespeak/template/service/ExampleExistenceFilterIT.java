@@ -0,0 +1,130 @@
+package org.wespeak.template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+import org.wespeak.template.CreateExampleRequest;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.exception.ResourceNotFoundException;
+
+/** Lookups of missing examples against embedded Mongo, as seen by this node and by others. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "app.examples.bloom.rebuild-interval=1h",
+      "app.examples.bloom.catch-up-interval=1h"
+    })
+@ActiveProfiles("test")
+class ExampleExistenceFilterIT {
+
+  @Autowired private ExampleExistenceFilter filter;
+
+  @Autowired private ExampleService service;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.remove(new Query(), ExampleEntity.class);
+    filter.rebuild();
+  }
+
+  @Test
+  void createdExampleIsFoundRightAfterTheCreate() {
+    assertThat(filter.isKnownMissingCode("FILTER_NEW")).isTrue();
+
+    ExampleResponse created = service.create(request("FILTER_NEW"));
+
+    assertThat(filter.isKnownMissingCode("FILTER_NEW")).isFalse();
+    assertThat(service.getByCode("FILTER_NEW", null).getId()).isEqualTo(created.getId());
+  }
+
+  @Test
+  void lookupMissedBeforeTheCreateIsNotCachedAfterIt() {
+    assertThatThrownBy(() -> service.getByCode("FILTER_LATE", null))
+        .isInstanceOf(ResourceNotFoundException.class);
+
+    service.create(request("FILTER_LATE"));
+
+    assertThat(service.getByCode("FILTER_LATE", null).getCode()).isEqualTo("FILTER_LATE");
+  }
+
+  @Test
+  void exampleCreatedOnAnotherNodeIsFoundAfterCatchUp() {
+    // Written straight to Mongo, as another node would, without any invalidation reaching us
+    insert("FILTER_REMOTE");
+    assertThat(filter.isKnownMissingCode("FILTER_REMOTE")).isTrue();
+
+    filter.catchUp();
+
+    assertThat(filter.isKnownMissingCode("FILTER_REMOTE")).isFalse();
+    assertThat(service.getByCode("FILTER_REMOTE", null).getCode()).isEqualTo("FILTER_REMOTE");
+  }
+
+  @Test
+  void deletedExampleIsReportedMissingWithoutQueryingMongo() {
+    ExampleResponse created = service.create(request("FILTER_DELETED"));
+
+    service.delete(created.getId());
+
+    assertThat(filter.isKnownMissingId(created.getId())).isTrue();
+    assertThat(filter.isKnownMissingCode("FILTER_DELETED")).isTrue();
+    assertThatThrownBy(() -> service.getById(created.getId(), null))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  @Test
+  void codeOfADeletedExampleCanBeCreatedAgain() {
+    service.delete(service.create(request("FILTER_AGAIN")).getId());
+
+    ExampleResponse recreated = service.create(request("FILTER_AGAIN"));
+
+    assertThat(filter.isKnownMissingCode("FILTER_AGAIN")).isFalse();
+    assertThat(service.getByCode("FILTER_AGAIN", null).getId()).isEqualTo(recreated.getId());
+  }
+
+  @Test
+  void rebuildAddsExistingCodesAndDropsRemovedOnes() {
+    ExampleEntity kept = insert("FILTER_KEPT");
+    ExampleEntity removed = insert("FILTER_REMOVED");
+
+    filter.rebuild();
+    assertThat(filter.isKnownMissingCode(kept.getCode())).isFalse();
+    assertThat(filter.isKnownMissingCode(removed.getCode())).isFalse();
+
+    mongoTemplate.remove(
+        Query.query(Criteria.where("_id").is(removed.getId())), ExampleEntity.class);
+    filter.rebuild();
+
+    assertThat(filter.isKnownMissingCode(kept.getCode())).isFalse();
+    assertThat(filter.isKnownMissingCode(removed.getCode())).isTrue();
+  }
+
+  private ExampleEntity insert(String code) {
+    Instant now = Instant.now();
+    return mongoTemplate.insert(
+        ExampleEntity.builder()
+            .id(new ObjectId().toHexString())
+            .code(code)
+            .name("Name of " + code)
+            .active(true)
+            .createdAt(now)
+            .updatedAt(now)
+            .build());
+  }
+
+  private static CreateExampleRequest request(String code) {
+    return CreateExampleRequest.builder().code(code).name("Name of " + code).build();
+  }
+}
@@ -0,0 +1,142 @@
+package org.wespeak.template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Predicate;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.ActiveProfiles;
+import org.wespeak.template.ExampleEntity;
+import org.wespeak.template.ExampleResponse;
+import org.wespeak.template.exception.ResourceNotFoundException;
+import org.wespeak.template.service.ExampleReadReplica.Snapshot;
+
+/** The read replica follows writes made straight to Mongo, on an embedded replica set. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "app.examples.replica.enabled=true",
+      "app.examples.replica.checkpoint-path=${java.io.tmpdir}/examples-replica-it.json"
+    })
+@ActiveProfiles("test")
+class ExampleReadReplicaIT {
+
+  @Autowired private ExampleReadReplica replica;
+
+  @Autowired private ExampleService service;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Value("${app.examples.replica.checkpoint-path}")
+  private Path checkpointPath;
+
+  @BeforeEach
+  void cleanUp() {
+    mongoTemplate.remove(new Query(), ExampleEntity.class);
+  }
+
+  @Test
+  void followsInsertsUpdatesAndDeletes() throws InterruptedException {
+    ExampleEntity entity = insert("REPLICA_1", true);
+    await(snapshot -> snapshot.byId(entity.getId()) != null);
+
+    mongoTemplate.updateFirst(
+        Query.query(Criteria.where("_id").is(entity.getId())),
+        new Update().set("description", "changed behind the cache"),
+        ExampleEntity.class);
+    await(
+        snapshot ->
+            "changed behind the cache".equals(snapshot.byId(entity.getId()).getDescription()));
+    assertThat(service.getByCode("REPLICA_1", null).getDescription())
+        .isEqualTo("changed behind the cache");
+
+    mongoTemplate.remove(
+        Query.query(Criteria.where("_id").is(entity.getId())), ExampleEntity.class);
+    await(snapshot -> snapshot.byCode("REPLICA_1") == null);
+  }
+
+  @Test
+  void exampleDeletedOnThisPodIsNotServedBeforeTheStreamCatchesUp() throws InterruptedException {
+    ExampleEntity entity = insert("REPLICA_DELETED", true);
+    await(snapshot -> snapshot.byId(entity.getId()) != null);
+
+    service.delete(entity.getId());
+
+    assertThatThrownBy(() -> service.getById(entity.getId(), null))
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThatThrownBy(() -> service.getByCode("REPLICA_DELETED", null))
+        .isInstanceOf(ResourceNotFoundException.class);
+    await(snapshot -> snapshot.byId(entity.getId()) == null);
+  }
+
+  @Test
+  void servesPagesAndActiveFilterInIdOrder() throws InterruptedException {
+    ExampleEntity first = insert("REPLICA_A", true);
+    ExampleEntity second = insert("REPLICA_B", false);
+    ExampleEntity third = insert("REPLICA_C", true);
+    await(snapshot -> snapshot.size() == 3);
+
+    Snapshot snapshot = replica.current();
+    assertThat(snapshot.page(null, 2))
+        .extracting(ExampleResponse::getId)
+        .containsExactly(first.getId(), second.getId());
+    assertThat(snapshot.page(second.getId(), 10))
+        .extracting(ExampleResponse::getId)
+        .containsExactly(third.getId());
+    assertThat(snapshot.stream(true))
+        .extracting(ExampleResponse::getCode)
+        .containsExactly("REPLICA_A", "REPLICA_C");
+    assertThat(snapshot.stream(false))
+        .extracting(ExampleResponse::getCode)
+        .containsExactly("REPLICA_B");
+  }
+
+  @Test
+  void checkpointsSnapshotWithResumeToken() throws Exception {
+    ExampleEntity entity = insert("REPLICA_CHECKPOINT", true);
+    await(snapshot -> snapshot.byId(entity.getId()) != null);
+
+    replica.writeCheckpoint();
+
+    String checkpoint = Files.readString(checkpointPath);
+    assertThat(checkpoint).contains("\"resumeToken\"").contains(entity.getId());
+  }
+
+  private ExampleEntity insert(String code, boolean active) {
+    Instant now = Instant.now();
+    return mongoTemplate.insert(
+        ExampleEntity.builder()
+            .id(new ObjectId().toHexString())
+            .code(code)
+            .name(code)
+            .active(active)
+            .createdAt(now)
+            .updatedAt(now)
+            .build());
+  }
+
+  private void await(Predicate<Snapshot> condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+    while (System.nanoTime() < deadline) {
+      Snapshot snapshot = replica.current();
+      if (snapshot != null && condition.test(snapshot)) {
+        return;
+      }
+      Thread.sleep(100);
+    }
+    throw new AssertionError("Read replica did not catch up within 30s");
+  }
+}